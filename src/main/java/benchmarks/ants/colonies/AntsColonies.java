@@ -18,8 +18,15 @@
 
 package benchmarks.ants.colonies;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -28,6 +35,8 @@ import javax.annotation.ParametersAreNonnullByDefault;
 import benchmarks.ants.colonies.colony.AntsColony;
 import benchmarks.ants.colonies.colony.ColonyRunResult;
 import benchmarks.ants.colonies.colony.IAntsColony;
+import benchmarks.ants.colonies.colony.PheromoneSharing;
+import benchmarks.ants.colonies.colony.SharedTrails;
 import benchmarks.ants.colonies.parallelisation.ParallelBarrierExecutor;
 import util.Restrictions;
 
@@ -41,6 +50,8 @@ import static benchmarks.ants.colonies.ColonyResultsCompiler.compileOverallResul
 @ParametersAreNonnullByDefault
 public final class AntsColonies {
 
+    private static final Logger log = LoggerFactory.getLogger(AntsColonies.class);
+
     private AntsColonies() { /* utility class */ }
 
     public static ColonyRunResult runCalculations(AntsExperimentData data) {
@@ -51,25 +62,47 @@ public final class AntsColonies {
     }
 
     private static Collection<ColonyRunResult> generateSolutions(AntsExperimentData data) {
-        final List<ColonyRunResult> solutions = new ArrayList<>(data.getColonies());
+        // the colonies add their results concurrently
+        final List<ColonyRunResult> solutions =
+                Collections.synchronizedList(new ArrayList<>(data.getColonies()));
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        final long threadsStartedBefore = threads.getTotalStartedThreadCount();
+        threads.resetPeakThreadCount();
         ParallelBarrierExecutor.runOnce(
                 generateAgents(data).stream()
-                        .map(colony -> (Runnable) () ->
-                                solutions.add(colony.run(data.getSettings().getRunPeriodNanos())))
+                        .map(colony -> (Runnable) () -> solutions.add(colony
+                                .run(data.getSettings().getRunPeriodNanos())
+                                .withColonies(data.getColonies())))
                         .collect(Collectors.toList()), "start", "colony");
+        log.info("{} colonies x {} ants on {}: {} threads started, {} threads live at peak.",
+                data.getColonies(), data.getAnts(), data.getSettings().getExecutionBackend(),
+                threads.getTotalStartedThreadCount() - threadsStartedBefore,
+                threads.getPeakThreadCount());
         return solutions;
     }
 
     private static Collection<IAntsColony> generateAgents(AntsExperimentData data) {
+        final AntsSettings settings = data.getSettings();
         final int coloniesAmount = data.getColonies();
         final List<IAntsColony> colonies = new ArrayList<>(coloniesAmount);
+        final SharedTrails shared =
+                (settings.getPheromoneSharing() == PheromoneSharing.SHARED_GLOBAL) ?
+                        new SharedTrails(settings, coloniesAmount) : null;
         for (int i = 0; i < coloniesAmount; i++) {
             //noinspection ObjectAllocationInLoop, by design
-            final IAntsColony colony = new AntsColony(String.valueOf(i + 1), data.getAnts(),
-                    data.getSettings(), data.getQualities());
+            final AntsColony colony = new AntsColony(String.valueOf(i + 1), data.getAnts(),
+                    settings, data.getQualities());
+            if (shared != null) {
+                colony.shareTrails(shared);
+            }
             colonies.add(colony);
         }
-        colonies.forEach(colony -> colony.addNeighbours(colonies));
+        final int[][] neighbours = settings.getMigrationTopology().neighbours(coloniesAmount,
+                settings.getMigrationDegree(), settings.getRandomSeed());
+        for (int i = 0; i < coloniesAmount; i++) {
+            colonies.get(i).addNeighbours(Arrays.stream(neighbours[i])
+                    .mapToObj(colonies::get).collect(Collectors.toList()));
+        }
         return colonies;
     }
 }
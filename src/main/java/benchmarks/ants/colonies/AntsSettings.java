@@ -20,18 +20,29 @@ package benchmarks.ants.colonies;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.Optional;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
 
+import benchmarks.ants.colonies.colony.AntSystemVariant;
+import benchmarks.ants.colonies.colony.ColonyEngine;
+import benchmarks.ants.colonies.colony.PheromoneSharing;
+import benchmarks.ants.colonies.colony.PheromoneUpdateStrategy;
+import benchmarks.ants.colonies.colony.RandomStreams;
+import benchmarks.ants.colonies.parallelisation.ExecutionBackend;
+import benchmarks.ants.data.DistancesStorage;
+import benchmarks.ants.data.EdgeMatrix;
 import benchmarks.ants.data.IDistancesData;
+import benchmarks.ants.data.InstanceCacheFile;
+import benchmarks.ants.data.RandomInstance;
 import benchmarks.ants.data.TSPDistanceData;
-import javafx.util.Pair;
+import benchmarks.ants.data.TSPTask;
+import benchmarks.ants.localsearch.LocalSearch;
+import util.Restrictions;
 import util.TimeUtil;
 
-import static util.Constants.FS;
-
 /**
  * Package-local constants and ACO settings holder.
  *
@@ -52,12 +63,65 @@ public final class AntsSettings implements Serializable {
     private final float evaporationCoefficient;
     @Nonnegative
     private final float initialTrail;
+    @Nonnegative
+    private final int candidatesAmount;
+    @Nonnegative
+    private final float alpha;
+    @Nonnegative
+    private final float beta;
+    @Nonnull
+    private final EdgeMatrix.Backing matricesBacking;
+    @Nonnull
+    private final PheromoneUpdateStrategy pheromoneUpdateStrategy;
+    @Nonnull
+    private final ExecutionBackend executionBackend;
+    @Nonnull
+    private final ColonyEngine colonyEngine;
+    @Nonnull
+    private final AntSystemVariant antSystemVariant;
+    @Nonnegative
+    private final int globalBestDepositPeriod;
+    @Nonnegative
+    private final int stagnationIterations;
+    @Nonnegative
+    private final float trailSmoothing;
+    @Nonnegative
+    private final float bestTourProbability;
+    @Nonnegative
+    private final float exploitationProbability;
+    @Nonnegative
+    private final float localEvaporation;
+    @Nonnull
+    private final LocalSearch localSearch;
+    @Nonnull
+    private final LocalSearch bestTourLocalSearch;
+    @Nonnegative
+    private final int localSearchDepth;
+    @Nonnull
+    private final RandomStreams randomStreams;
+    private final long randomSeed;
+    @Nonnull
+    private final MigrationTopology migrationTopology;
+    @Nonnegative
+    private final int migrationDegree;
+    @Nonnull
+    private final PheromoneSharing pheromoneSharing;
+    @Nonnegative
+    private final float pheromoneSharingWeight;
+    @Nonnegative
+    private final int pheromoneSharingTopEdges;
+    @Nonnull
+    private final String file;
+    private final boolean instanceCache;
     @Nonnull
     private final IDistancesData graph;
+    @Nonnull
+    private final AntsSettingsBuilder source; // a copy, for the other processes
 
-    public AntsSettings(Pair<Integer, String> data, float evaporation, int secondsToRun) throws IOException {
-        this(data.getKey(), data.getValue(), TimeUtil.secToNano(secondsToRun),
-                TimeUtil.mlsToNano(1000), evaporation, 1.0F);
+    public AntsSettings(TSPTask data, float evaporation, int secondsToRun) throws IOException {
+        this(new AntsSettingsBuilder().setData(data)
+                .setRunPeriodNanos(TimeUtil.secToNano(secondsToRun))
+                .setEvaporationCoefficient(evaporation));
     }
 
     @SuppressWarnings({"SameParameterValue", "WeakerAccess"})
@@ -66,13 +130,96 @@ public final class AntsSettings implements Serializable {
                         @Nonnegative long exchangeNanos,
                         @Nonnegative float evaporationCoefficient,
                         @Nonnegative float initialTrail) throws IOException {
-        this.optimum = optimum;
-        this.runPeriodNanos = runPeriodNanos;
-        this.exchangeNanos = exchangeNanos;
-        this.evaporationCoefficient = evaporationCoefficient;
-        this.initialTrail = initialTrail;
-        graph = new TSPDistanceData(FS + "build" + FS + "resources" + FS + "main"
-                + FS + "tsp_data" + FS + file + ".tsp");
+        this(new AntsSettingsBuilder().setOptimum(optimum).setFile(file)
+                .setRunPeriodNanos(runPeriodNanos)
+                .setExchangeNanos(exchangeNanos)
+                .setEvaporationCoefficient(evaporationCoefficient)
+                .setInitialTrail(initialTrail));
+    }
+
+    AntsSettings(AntsSettingsBuilder builder) throws IOException {
+        Restrictions.ifContainsNullFastFail(builder.getFile(), builder.getMatricesBacking(),
+                builder.getPheromoneUpdateStrategy(), builder.getExecutionBackend(),
+                builder.getColonyEngine(), builder.getAntSystemVariant(),
+                builder.getLocalSearch(), builder.getBestTourLocalSearch(),
+                builder.getDistancesStorage(), builder.getRandomStreams(),
+                builder.getMigrationTopology(), builder.getPheromoneSharing());
+        Restrictions.ifNotOnlyPositivesFastFail(builder.getOptimum(),
+                builder.getRunPeriodNanos(), builder.getExchangeNanos(),
+                builder.getEvaporationCoefficient(), builder.getInitialTrail(),
+                builder.getCandidatesAmount(), builder.getAlpha(), builder.getBeta(),
+                builder.getGlobalBestDepositPeriod(), builder.getStagnationIterations(),
+                builder.getTrailSmoothing(), builder.getBestTourProbability(),
+                builder.getExploitationProbability(), builder.getLocalEvaporation(),
+                builder.getLocalSearchDepth(), builder.getDistanceRowsCache(),
+                builder.getMigrationDegree(), builder.getPheromoneSharingWeight(),
+                builder.getPheromoneSharingTopEdges());
+        if ((builder.getTrailSmoothing() > 1.0F) || (builder.getBestTourProbability() <= 0.0F)
+                || (builder.getBestTourProbability() >= 1.0F)
+                || (builder.getExploitationProbability() > 1.0F)
+                || (builder.getLocalEvaporation() > 1.0F)
+                || (builder.getPheromoneSharingWeight() > 1.0F)) {
+            throw new IllegalArgumentException("The trail smoothing, the exploitation probability,"
+                    + " the local evaporation and the pheromone sharing weight must be in [0, 1],"
+                    + " the best tour probability in (0, 1)!");
+        }
+        if (builder.getMigrationDegree() < 2) {
+            throw new IllegalArgumentException("The migration degree must be at least 2 to"
+                    + " connect the colonies!");
+        }
+        optimum = builder.getOptimum();
+        runPeriodNanos = builder.getRunPeriodNanos();
+        exchangeNanos = builder.getExchangeNanos();
+        evaporationCoefficient = builder.getEvaporationCoefficient();
+        initialTrail = builder.getInitialTrail();
+        candidatesAmount = builder.getCandidatesAmount();
+        alpha = builder.getAlpha();
+        beta = builder.getBeta();
+        matricesBacking = builder.getMatricesBacking();
+        pheromoneUpdateStrategy = builder.getPheromoneUpdateStrategy();
+        executionBackend = builder.getExecutionBackend();
+        colonyEngine = builder.getColonyEngine();
+        antSystemVariant = builder.getAntSystemVariant();
+        globalBestDepositPeriod = builder.getGlobalBestDepositPeriod();
+        stagnationIterations = builder.getStagnationIterations();
+        trailSmoothing = builder.getTrailSmoothing();
+        bestTourProbability = builder.getBestTourProbability();
+        exploitationProbability = builder.getExploitationProbability();
+        localEvaporation = builder.getLocalEvaporation();
+        localSearch = builder.getLocalSearch();
+        bestTourLocalSearch = builder.getBestTourLocalSearch();
+        localSearchDepth = builder.getLocalSearchDepth();
+        randomStreams = builder.getRandomStreams();
+        randomSeed = builder.getRandomSeed();
+        migrationTopology = builder.getMigrationTopology();
+        migrationDegree = builder.getMigrationDegree();
+        pheromoneSharing = builder.getPheromoneSharing();
+        pheromoneSharingWeight = builder.getPheromoneSharingWeight();
+        pheromoneSharingTopEdges = builder.getPheromoneSharingTopEdges();
+        file = builder.getFile();
+        instanceCache = builder.isInstanceCache() && (builder.getRandomInstance() == null)
+                && (builder.getDistancesStorage() == DistancesStorage.MATRIX);
+        graph = instanceCache ? loadCachedGraph(builder) : loadGraph(builder);
+        source = builder.copy();
+    }
+
+    private static IDistancesData loadGraph(AntsSettingsBuilder builder) throws IOException {
+        final RandomInstance randomInstance = builder.getRandomInstance();
+        if (randomInstance != null) {
+            return randomInstance.generate(builder.getRandomInstanceSize(),
+                    builder.getRandomInstanceSeed(), builder.getDistancesStorage(),
+                    builder.getMatricesBacking(), builder.getDistanceRowsCache());
+        }
+        return TSPDistanceData.load(TSPDistanceData.taskLocation(builder.getFile()),
+                builder.getDistancesStorage(), builder.getMatricesBacking(),
+                builder.getDistanceRowsCache());
+    }
+
+    private static IDistancesData loadCachedGraph(AntsSettingsBuilder builder)
+            throws IOException {
+        final Optional<InstanceCacheFile> cache = InstanceCacheFile.open(builder.getFile(),
+                builder.getBeta(), builder.getCandidatesAmount());
+        return cache.isPresent() ? cache.get().getDistances() : loadGraph(builder);
     }
 
     @Nonnegative
@@ -81,7 +228,7 @@ public final class AntsSettings implements Serializable {
     }
 
     @Nonnegative
-    long getRunPeriodNanos() {
+    public long getRunPeriodNanos() {
         return runPeriodNanos;
     }
 
@@ -100,6 +247,162 @@ public final class AntsSettings implements Serializable {
         return initialTrail;
     }
 
+    /**
+     * @return the nearest neighbours lists size, 0 if the lists are off.
+     */
+    @Nonnegative
+    public int getCandidatesAmount() {
+        return candidatesAmount;
+    }
+
+    /**
+     * @return the trail exponent of the edge choice weight.
+     */
+    @Nonnegative
+    public float getAlpha() {
+        return alpha;
+    }
+
+    /**
+     * @return the heuristic exponent of the edge choice weight.
+     */
+    @Nonnegative
+    public float getBeta() {
+        return beta;
+    }
+
+    /**
+     * @return the storage of the distances, edges qualities and trails matrices.
+     */
+    @Nonnull
+    public EdgeMatrix.Backing getMatricesBacking() {
+        return matricesBacking;
+    }
+
+    @Nonnull
+    public PheromoneUpdateStrategy getPheromoneUpdateStrategy() {
+        return pheromoneUpdateStrategy;
+    }
+
+    @Nonnull
+    public ExecutionBackend getExecutionBackend() {
+        return executionBackend;
+    }
+
+    @Nonnull
+    public ColonyEngine getColonyEngine() {
+        return colonyEngine;
+    }
+
+    @Nonnull
+    public AntSystemVariant getAntSystemVariant() {
+        return antSystemVariant;
+    }
+
+    @Nonnegative
+    public int getGlobalBestDepositPeriod() {
+        return globalBestDepositPeriod;
+    }
+
+    @Nonnegative
+    public int getStagnationIterations() {
+        return stagnationIterations;
+    }
+
+    @Nonnegative
+    public float getTrailSmoothing() {
+        return trailSmoothing;
+    }
+
+    @Nonnegative
+    public float getBestTourProbability() {
+        return bestTourProbability;
+    }
+
+    @Nonnegative
+    public float getExploitationProbability() {
+        return exploitationProbability;
+    }
+
+    @Nonnegative
+    public float getLocalEvaporation() {
+        return localEvaporation;
+    }
+
+    @Nonnull
+    public LocalSearch getLocalSearch() {
+        return localSearch;
+    }
+
+    @Nonnull
+    public LocalSearch getBestTourLocalSearch() {
+        return bestTourLocalSearch;
+    }
+
+    @Nonnegative
+    public int getLocalSearchDepth() {
+        return localSearchDepth;
+    }
+
+    /**
+     * @return the bundled task name.
+     */
+    @Nonnull
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * @return true if the task instance is kept in the memory mapped cache.
+     * @see InstanceCacheFile
+     */
+    public boolean isInstanceCache() {
+        return instanceCache;
+    }
+
+    @Nonnull
+    public RandomStreams getRandomStreams() {
+        return randomStreams;
+    }
+
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    @Nonnull
+    public MigrationTopology getMigrationTopology() {
+        return migrationTopology;
+    }
+
+    @Nonnegative
+    public int getMigrationDegree() {
+        return migrationDegree;
+    }
+
+    @Nonnull
+    public PheromoneSharing getPheromoneSharing() {
+        return pheromoneSharing;
+    }
+
+    @Nonnegative
+    public float getPheromoneSharingWeight() {
+        return pheromoneSharingWeight;
+    }
+
+    @Nonnegative
+    public int getPheromoneSharingTopEdges() {
+        return pheromoneSharingTopEdges;
+    }
+
+    /**
+     * @return the new builder of the same settings, to change some of them or to pass them to
+     * the other processes.
+     */
+    @Nonnull
+    public AntsSettingsBuilder toBuilder() {
+        return source.copy();
+    }
+
     @Nonnull
     public IDistancesData getGraph() {
         return graph;
@@ -0,0 +1,557 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Locale;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+import benchmarks.ants.colonies.colony.AntSystemVariant;
+import benchmarks.ants.colonies.colony.ColonyEngine;
+import benchmarks.ants.colonies.colony.PheromoneSharing;
+import benchmarks.ants.colonies.colony.PheromoneUpdateStrategy;
+import benchmarks.ants.colonies.colony.RandomStreams;
+import benchmarks.ants.colonies.parallelisation.ExecutionBackend;
+import benchmarks.ants.data.DistancesStorage;
+import benchmarks.ants.data.EdgeMatrix;
+import benchmarks.ants.data.RandomInstance;
+import benchmarks.ants.data.TSPTask;
+import benchmarks.ants.localsearch.LocalSearch;
+import util.TimeUtil;
+
+/**
+ * Step by step {@link AntsSettings} construction, all the not set values have defaults.
+ */
+@SuppressWarnings("ReturnOfThis") // builder pattern
+public final class AntsSettingsBuilder implements Serializable {
+
+    private static final long serialVersionUID = 7093817640293510447L;
+
+    private static final float DEFAULT_EVAPORATION = 0.1F;
+    private static final float DEFAULT_INITIAL_TRAIL = 1.0F;
+    private static final int DEFAULT_STAGNATION_ITERATIONS = 250;
+    private static final float DEFAULT_BEST_TOUR_PROBABILITY = 0.05F;
+    private static final float DEFAULT_EXPLOITATION_PROBABILITY = 0.9F;
+    private static final float DEFAULT_LOCAL_EVAPORATION = 0.1F;
+    private static final int DEFAULT_LOCAL_SEARCH_DEPTH = 5;
+    private static final int DEFAULT_MIGRATION_DEGREE = 4;
+    private static final float DEFAULT_PHEROMONE_SHARING_WEIGHT = 0.1F;
+    private static final int DEFAULT_PHEROMONE_SHARING_TOP_EDGES = 5;
+
+    private int optimum = 0;
+    private String file = null;
+    private long runPeriodNanos = 0L;
+    private long exchangeNanos = TimeUtil.mlsToNano(1000);
+    private float evaporationCoefficient = DEFAULT_EVAPORATION;
+    private float initialTrail = DEFAULT_INITIAL_TRAIL;
+    private int candidatesAmount = 0;
+    private float alpha = 1.0F;
+    private float beta = 1.0F;
+    private EdgeMatrix.Backing matricesBacking = EdgeMatrix.Backing.HEAP;
+    private PheromoneUpdateStrategy pheromoneUpdateStrategy = PheromoneUpdateStrategy.STRIPED_LOCKS;
+    private ExecutionBackend executionBackend = ExecutionBackend.DEDICATED_THREADS;
+    private ColonyEngine colonyEngine = ColonyEngine.CONTINUOUS;
+    private AntSystemVariant antSystemVariant = AntSystemVariant.ANT_SYSTEM;
+    private int globalBestDepositPeriod = 0;
+    private int stagnationIterations = DEFAULT_STAGNATION_ITERATIONS;
+    private float trailSmoothing = 1.0F;
+    private float bestTourProbability = DEFAULT_BEST_TOUR_PROBABILITY;
+    private float exploitationProbability = DEFAULT_EXPLOITATION_PROBABILITY;
+    private float localEvaporation = DEFAULT_LOCAL_EVAPORATION;
+    private LocalSearch localSearch = LocalSearch.NONE;
+    private LocalSearch bestTourLocalSearch = LocalSearch.NONE;
+    private int localSearchDepth = DEFAULT_LOCAL_SEARCH_DEPTH;
+    private DistancesStorage distancesStorage = DistancesStorage.MATRIX;
+    private int distanceRowsCache = 0;
+    private boolean instanceCache = true;
+    private RandomInstance randomInstance = null;
+    private int randomInstanceSize = 0;
+    private long randomInstanceSeed = 0L;
+    private RandomStreams randomStreams = RandomStreams.THREAD_LOCAL;
+    private long randomSeed = 0L;
+    private MigrationTopology migrationTopology = MigrationTopology.FULL;
+    private int migrationDegree = DEFAULT_MIGRATION_DEGREE;
+    private PheromoneSharing pheromoneSharing = PheromoneSharing.NONE;
+    private float pheromoneSharingWeight = DEFAULT_PHEROMONE_SHARING_WEIGHT;
+    private int pheromoneSharingTopEdges = DEFAULT_PHEROMONE_SHARING_TOP_EDGES;
+
+    /**
+     * @param data - the best known solution and the task name.
+     */
+    public AntsSettingsBuilder setData(TSPTask data) {
+        optimum = data.getOptimum();
+        file = data.getName();
+        return this;
+    }
+
+    public AntsSettingsBuilder setOptimum(@Nonnegative int optimum) {
+        this.optimum = optimum;
+        return this;
+    }
+
+    public AntsSettingsBuilder setFile(@Nonnull String file) {
+        this.file = file;
+        return this;
+    }
+
+    public AntsSettingsBuilder setRunPeriodNanos(@Nonnegative long runPeriodNanos) {
+        this.runPeriodNanos = runPeriodNanos;
+        return this;
+    }
+
+    public AntsSettingsBuilder setExchangeNanos(@Nonnegative long exchangeNanos) {
+        this.exchangeNanos = exchangeNanos;
+        return this;
+    }
+
+    public AntsSettingsBuilder setEvaporationCoefficient(@Nonnegative float evaporation) {
+        evaporationCoefficient = evaporation;
+        return this;
+    }
+
+    public AntsSettingsBuilder setInitialTrail(@Nonnegative float initialTrail) {
+        this.initialTrail = initialTrail;
+        return this;
+    }
+
+    /**
+     * @param candidatesAmount - the nearest neighbours amount an ant looks through before the full
+     *                         graph row scan, 0 means no candidates lists at all.
+     */
+    public AntsSettingsBuilder setCandidatesAmount(@Nonnegative int candidatesAmount) {
+        this.candidatesAmount = candidatesAmount;
+        return this;
+    }
+
+    /**
+     * @param alpha - the trail exponent of the edge choice weight.
+     */
+    public AntsSettingsBuilder setAlpha(@Nonnegative float alpha) {
+        this.alpha = alpha;
+        return this;
+    }
+
+    /**
+     * @param beta - the heuristic (inverse distance) exponent of the edge choice weight.
+     */
+    public AntsSettingsBuilder setBeta(@Nonnegative float beta) {
+        this.beta = beta;
+        return this;
+    }
+
+    /**
+     * @param matricesBacking - the storage of the distances, edges qualities and trails matrices,
+     *                        the colonies choice info stays on the heap.
+     */
+    public AntsSettingsBuilder setMatricesBacking(@Nonnull EdgeMatrix.Backing matricesBacking) {
+        this.matricesBacking = matricesBacking;
+        return this;
+    }
+
+    /**
+     * @param strategy - the way the concurrent ants update the colony trails.
+     */
+    public AntsSettingsBuilder setPheromoneUpdateStrategy(
+            @Nonnull PheromoneUpdateStrategy strategy) {
+        pheromoneUpdateStrategy = strategy;
+        return this;
+    }
+
+    /**
+     * @param executionBackend - the threads the colonies and their ants run on.
+     */
+    public AntsSettingsBuilder setExecutionBackend(@Nonnull ExecutionBackend executionBackend) {
+        this.executionBackend = executionBackend;
+        return this;
+    }
+
+    /**
+     * @param colonyEngine - the ants runs and the trails updates order inside a colony.
+     */
+    public AntsSettingsBuilder setColonyEngine(@Nonnull ColonyEngine colonyEngine) {
+        this.colonyEngine = colonyEngine;
+        return this;
+    }
+
+    /**
+     * @param antSystemVariant - the colony pheromones update rules.
+     */
+    public AntsSettingsBuilder setAntSystemVariant(@Nonnull AntSystemVariant antSystemVariant) {
+        this.antSystemVariant = antSystemVariant;
+        return this;
+    }
+
+    /**
+     * @param globalBestDepositPeriod - MAX-MIN: each such iteration the global best deposits
+     *                                instead of the iteration best, 0 means never.
+     */
+    public AntsSettingsBuilder setGlobalBestDepositPeriod(
+            @Nonnegative int globalBestDepositPeriod) {
+        this.globalBestDepositPeriod = globalBestDepositPeriod;
+        return this;
+    }
+
+    /**
+     * @param stagnationIterations - MAX-MIN: the iterations without the best tour improvement
+     *                             before the trails smoothing, 0 means never.
+     */
+    public AntsSettingsBuilder setStagnationIterations(@Nonnegative int stagnationIterations) {
+        this.stagnationIterations = stagnationIterations;
+        return this;
+    }
+
+    /**
+     * @param trailSmoothing - MAX-MIN: the part of the distance to the max trail each trail
+     *                       covers on the stagnation, 1 is the full reinitialisation.
+     */
+    public AntsSettingsBuilder setTrailSmoothing(@Nonnegative float trailSmoothing) {
+        this.trailSmoothing = trailSmoothing;
+        return this;
+    }
+
+    /**
+     * @param bestTourProbability - MAX-MIN: the probability to build the best tour on the
+     *                            converged trails, defines the min to max trail ratio.
+     */
+    public AntsSettingsBuilder setBestTourProbability(@Nonnegative float bestTourProbability) {
+        this.bestTourProbability = bestTourProbability;
+        return this;
+    }
+
+    /**
+     * @param exploitationProbability - Ant Colony System: the probability to go the best weighted
+     *                                edge instead of the random proportional choice, the q0.
+     */
+    public AntsSettingsBuilder setExploitationProbability(
+            @Nonnegative float exploitationProbability) {
+        this.exploitationProbability = exploitationProbability;
+        return this;
+    }
+
+    /**
+     * @param localEvaporation - Ant Colony System: the part each ant step moves the edge trail
+     *                         back to the initial one.
+     */
+    public AntsSettingsBuilder setLocalEvaporation(@Nonnegative float localEvaporation) {
+        this.localEvaporation = localEvaporation;
+        return this;
+    }
+
+    /**
+     * @param localSearch - the moves improving each ant tour before it's pheromones update.
+     */
+    public AntsSettingsBuilder setLocalSearch(@Nonnull LocalSearch localSearch) {
+        this.localSearch = localSearch;
+        return this;
+    }
+
+    /**
+     * @param bestTourLocalSearch - the moves improving the colony new best tours in the
+     *                            background, the ants are not waiting for it.
+     */
+    public AntsSettingsBuilder setBestTourLocalSearch(@Nonnull LocalSearch bestTourLocalSearch) {
+        this.bestTourLocalSearch = bestTourLocalSearch;
+        return this;
+    }
+
+    /**
+     * @param localSearchDepth - the max moves in a Lin-Kernighan chain.
+     */
+    public AntsSettingsBuilder setLocalSearchDepth(@Nonnegative int localSearchDepth) {
+        this.localSearchDepth = localSearchDepth;
+        return this;
+    }
+
+    /**
+     * @param distancesStorage - the task distances matrix or it's coordinates only.
+     */
+    public AntsSettingsBuilder setDistancesStorage(@Nonnull DistancesStorage distancesStorage) {
+        this.distancesStorage = distancesStorage;
+        return this;
+    }
+
+    /**
+     * @param distanceRowsCache - the coordinates storage hot distance rows cache size, 0 means no
+     *                          cache.
+     */
+    public AntsSettingsBuilder setDistanceRowsCache(@Nonnegative int distanceRowsCache) {
+        this.distanceRowsCache = distanceRowsCache;
+        return this;
+    }
+
+    /**
+     * @param instanceCache - keep the distances, the edges qualities and the neighbours lists in
+     *                      the memory mapped file next to the task one, the matrix storage only.
+     */
+    public AntsSettingsBuilder setInstanceCache(boolean instanceCache) {
+        this.instanceCache = instanceCache;
+        return this;
+    }
+
+    /**
+     * The generated instance instead of the file one, the task name is set to the generated one.
+     * No optimum is known and no instance cache is used.
+     * @param size - the vertexes amount.
+     * @param seed - the same one gives the same instance.
+     */
+    public AntsSettingsBuilder setRandomInstance(@Nonnull RandomInstance randomInstance,
+                                                 @Nonnegative int size, long seed) {
+        this.randomInstance = randomInstance;
+        randomInstanceSize = size;
+        randomInstanceSeed = seed;
+        file = randomInstance.name().toLowerCase(Locale.ROOT) + '_' + size + "_s" + seed;
+        return this;
+    }
+
+    /**
+     * @param randomStreams - where the ants random choices come from.
+     */
+    public AntsSettingsBuilder setRandomStreams(@Nonnull RandomStreams randomStreams) {
+        this.randomStreams = randomStreams;
+        return this;
+    }
+
+    /**
+     * @param randomSeed - the {@link RandomStreams#SEEDED} streams root and the random
+     *                   {@link MigrationTopology} seed.
+     */
+    public AntsSettingsBuilder setRandomSeed(long randomSeed) {
+        this.randomSeed = randomSeed;
+        return this;
+    }
+
+    /**
+     * @param migrationTopology - which colonies send their best solutions to which.
+     */
+    public AntsSettingsBuilder setMigrationTopology(@Nonnull MigrationTopology migrationTopology) {
+        this.migrationTopology = migrationTopology;
+        return this;
+    }
+
+    /**
+     * @param migrationDegree - the {@link MigrationTopology#RANDOM_REGULAR} neighbours amount,
+     *                        at least 2.
+     */
+    public AntsSettingsBuilder setMigrationDegree(@Nonnegative int migrationDegree) {
+        this.migrationDegree = migrationDegree;
+        return this;
+    }
+
+    /**
+     * @param pheromoneSharing - how the colonies share their trails besides the best tours.
+     */
+    public AntsSettingsBuilder setPheromoneSharing(@Nonnull PheromoneSharing pheromoneSharing) {
+        this.pheromoneSharing = pheromoneSharing;
+        return this;
+    }
+
+    /**
+     * @param pheromoneSharingWeight - the part of the distance to the shared trails a colony
+     *                               trail moves by at an exchange, in (0, 1].
+     */
+    public AntsSettingsBuilder setPheromoneSharingWeight(
+            @Nonnegative float pheromoneSharingWeight) {
+        this.pheromoneSharingWeight = pheromoneSharingWeight;
+        return this;
+    }
+
+    /**
+     * @param pheromoneSharingTopEdges - the strongest trails of a row shared by the
+     *                                 {@link PheromoneSharing#TOP_K_EDGES}.
+     */
+    public AntsSettingsBuilder setPheromoneSharingTopEdges(
+            @Nonnegative int pheromoneSharingTopEdges) {
+        this.pheromoneSharingTopEdges = pheromoneSharingTopEdges;
+        return this;
+    }
+
+    public AntsSettings createAntsSettings() throws IOException {
+        return new AntsSettings(this);
+    }
+
+    /**
+     * @return the independent copy, all the builder values are serializable.
+     */
+    @Nonnull
+    AntsSettingsBuilder copy() {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(this);
+            }
+            try (ObjectInputStream in = new ObjectInputStream(
+                    new ByteArrayInputStream(bytes.toByteArray()))) {
+                return (AntsSettingsBuilder) in.readObject();
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("The settings builder is not copied!", e);
+        }
+    }
+
+    int getOptimum() {
+        return optimum;
+    }
+
+    String getFile() {
+        return file;
+    }
+
+    long getRunPeriodNanos() {
+        return runPeriodNanos;
+    }
+
+    long getExchangeNanos() {
+        return exchangeNanos;
+    }
+
+    float getEvaporationCoefficient() {
+        return evaporationCoefficient;
+    }
+
+    float getInitialTrail() {
+        return initialTrail;
+    }
+
+    int getCandidatesAmount() {
+        return candidatesAmount;
+    }
+
+    float getAlpha() {
+        return alpha;
+    }
+
+    float getBeta() {
+        return beta;
+    }
+
+    EdgeMatrix.Backing getMatricesBacking() {
+        return matricesBacking;
+    }
+
+    PheromoneUpdateStrategy getPheromoneUpdateStrategy() {
+        return pheromoneUpdateStrategy;
+    }
+
+    ExecutionBackend getExecutionBackend() {
+        return executionBackend;
+    }
+
+    ColonyEngine getColonyEngine() {
+        return colonyEngine;
+    }
+
+    AntSystemVariant getAntSystemVariant() {
+        return antSystemVariant;
+    }
+
+    int getGlobalBestDepositPeriod() {
+        return globalBestDepositPeriod;
+    }
+
+    int getStagnationIterations() {
+        return stagnationIterations;
+    }
+
+    float getTrailSmoothing() {
+        return trailSmoothing;
+    }
+
+    float getBestTourProbability() {
+        return bestTourProbability;
+    }
+
+    float getExploitationProbability() {
+        return exploitationProbability;
+    }
+
+    float getLocalEvaporation() {
+        return localEvaporation;
+    }
+
+    LocalSearch getLocalSearch() {
+        return localSearch;
+    }
+
+    LocalSearch getBestTourLocalSearch() {
+        return bestTourLocalSearch;
+    }
+
+    int getLocalSearchDepth() {
+        return localSearchDepth;
+    }
+
+    DistancesStorage getDistancesStorage() {
+        return distancesStorage;
+    }
+
+    int getDistanceRowsCache() {
+        return distanceRowsCache;
+    }
+
+    boolean isInstanceCache() {
+        return instanceCache;
+    }
+
+    RandomInstance getRandomInstance() {
+        return randomInstance;
+    }
+
+    int getRandomInstanceSize() {
+        return randomInstanceSize;
+    }
+
+    long getRandomInstanceSeed() {
+        return randomInstanceSeed;
+    }
+
+    RandomStreams getRandomStreams() {
+        return randomStreams;
+    }
+
+    long getRandomSeed() {
+        return randomSeed;
+    }
+
+    MigrationTopology getMigrationTopology() {
+        return migrationTopology;
+    }
+
+    int getMigrationDegree() {
+        return migrationDegree;
+    }
+
+    PheromoneSharing getPheromoneSharing() {
+        return pheromoneSharing;
+    }
+
+    float getPheromoneSharingWeight() {
+        return pheromoneSharingWeight;
+    }
+
+    int getPheromoneSharingTopEdges() {
+        return pheromoneSharingTopEdges;
+    }
+}
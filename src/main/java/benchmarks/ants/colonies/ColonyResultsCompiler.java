@@ -36,8 +36,8 @@ public final class ColonyResultsCompiler {
     private ColonyResultsCompiler() { /* utility class */ }
 
     @SuppressWarnings({"NumericCastThatLosesPrecision", "FeatureEnvy"})
-    static ColonyRunResult compileOverallResult(Collection<ColonyRunResult>
-                                                        colonyRunResults, int colonies, int ants) {
+    public static ColonyRunResult compileOverallResult(
+            Collection<ColonyRunResult> colonyRunResults, int colonies, int ants) {
         return compileResults(colonyRunResults, CompileStrategy.SUM, colonies, ants);
     }
 
@@ -58,6 +58,7 @@ public final class ColonyResultsCompiler {
         double avgInitialTrailNs = 0L;
         double avgAntsRunNs = 0L;
         double avgExchangeNs = 0L;
+        double exchangedBytes = 0L;
 
         final int size = colonyRunResults.size();
         if (size > 0) {
@@ -73,13 +74,16 @@ public final class ColonyResultsCompiler {
                     avgInitialTrailNs = avg(avgInitialTrailNs, runResult.getAvgInitialTrailNs(), i);
                     avgAntsRunNs = avg(avgAntsRunNs, runResult.getAvgAntsRunNs(), i);
                     avgExchangeNs = avg(avgExchangeNs, runResult.getAvgExchangeNs(), i);
+                    exchangedBytes = compile(exchangedBytes, runResult.getExchangedBytes(), i,
+                            strategy);
                     i++;
                 }
             }
         }
 
         return new ColonyRunResult(id.toString(), result, colonies, ants, (long) antRuns, (long)
-                exchanges, (long) avgInitialTrailNs, (long) avgAntsRunNs, (long) avgExchangeNs);
+                exchanges, (long) avgInitialTrailNs, (long) avgAntsRunNs, (long) avgExchangeNs,
+                (long) exchangedBytes);
     }
 
     private static double compile(double oldValue, long valueToAdd, int alreadyCompiledValues,
@@ -0,0 +1,244 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package benchmarks.ants.colonies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Which colonies send their best solutions to which, each receive is a pheromones update of the
+ * receiver, so the exchange costs O(colonies x degree). All but the {@link #FULL} one are sparse,
+ * all are undirected and connected.
+ */
+@ParametersAreNonnullByDefault
+public enum MigrationTopology {
+    /** Each colony to each other one. */
+    FULL,
+    /** Each colony to the previous and the next ones. */
+    RING,
+    /** The wrapped 2D grid of the most square shape, up to 4 neighbours. */
+    TORUS,
+    /** The first colony is the hub of all the others, they send to the hub only. */
+    STAR,
+    /**
+     * The connected random graph of the given degree, at least 2, all the colonies have the same.
+     */
+    RANDOM_REGULAR,
+    /**
+     * The colonies differing by one bit of the seeded random labels, the log2 degree, less for
+     * the missing corners if the colonies amount is not a power of two.
+     */
+    HYPERCUBE;
+
+    private static final int REGULAR_ATTEMPTS = 100;
+    private static final int MIN_REGULAR_DEGREE = 2;
+
+    /**
+     * @param degree - the {@link #RANDOM_REGULAR} neighbours amount, raised to 2 and cut to the
+     *               colonies - 1 and to an even total.
+     * @param seed - the random topologies one.
+     * @return the neighbours indexes of each colony, ascending.
+     */
+    @Nonnull
+    public int[][] neighbours(@Nonnegative int colonies, @Nonnegative int degree, long seed) {
+        if (colonies <= 0) {
+            throw new IllegalArgumentException("No colonies " + colonies + '!');
+        }
+        final BitSet[] edges = new BitSet[colonies];
+        for (int i = 0; i < colonies; i++) {
+            edges[i] = new BitSet(colonies);
+        }
+        switch (this) {
+            case FULL:
+                for (int i = 0; i < colonies; i++) {
+                    edges[i].set(0, colonies);
+                }
+                break;
+            case RING:
+                for (int i = 0; i < colonies; i++) {
+                    link(edges, i, (i + 1) % colonies);
+                }
+                break;
+            case TORUS:
+                torus(edges);
+                break;
+            case STAR:
+                for (int i = 1; i < colonies; i++) {
+                    link(edges, 0, i);
+                }
+                break;
+            case RANDOM_REGULAR:
+                randomRegular(edges, degree, new SplittableRandom(seed));
+                break;
+            default:
+                hypercube(edges, new SplittableRandom(seed));
+        }
+        final int[][] neighbours = new int[colonies][];
+        for (int i = 0; i < colonies; i++) {
+            edges[i].clear(i);
+            neighbours[i] = edges[i].stream().toArray();
+        }
+        return neighbours;
+    }
+
+    private static void torus(BitSet[] edges) {
+        final int colonies = edges.length;
+        int rows = (int) Math.sqrt(colonies);
+        while ((colonies % rows) != 0) {
+            rows--;
+        }
+        final int columns = colonies / rows;
+        for (int i = 0; i < colonies; i++) {
+            final int row = i / columns;
+            final int column = i % columns;
+            link(edges, i, (row * columns) + ((column + 1) % columns));
+            link(edges, i, (((row + 1) % rows) * columns) + column);
+        }
+    }
+
+    /**
+     * The pairing model, retried while it gives the loops, the multiple edges or a not connected
+     * graph, then the circle of the shuffled colonies with the nearest ones linked. A degree less
+     * than 2 can't connect all the colonies, so it is raised to 2.
+     */
+    private static void randomRegular(BitSet[] edges, int degree, SplittableRandom random) {
+        final int colonies = edges.length;
+        int regular = Math.min(Math.max(degree, MIN_REGULAR_DEGREE), colonies - 1);
+        if (((regular * colonies) % 2) != 0) {
+            regular--;
+        }
+        if (regular <= 0) {
+            return;
+        }
+        final int[] points = new int[regular * colonies];
+        for (int attempt = 0; attempt < REGULAR_ATTEMPTS; attempt++) {
+            for (int i = 0; i < points.length; i++) {
+                points[i] = i / regular;
+            }
+            shuffle(points, random);
+            if (pairsSimple(points, colonies) && pairsConnected(points, colonies)) {
+                for (int i = 0; i < points.length; i += 2) {
+                    link(edges, points[i], points[i + 1]);
+                }
+                return;
+            }
+        }
+        final int[] order = identity(colonies);
+        shuffle(order, random);
+        for (int i = 0; i < colonies; i++) {
+            for (int offset = 1; offset <= (regular / 2); offset++) {
+                link(edges, order[i], order[(i + offset) % colonies]);
+            }
+            if ((regular % 2) != 0) {
+                link(edges, order[i], order[(i + (colonies / 2)) % colonies]);
+            }
+        }
+    }
+
+    private static boolean pairsSimple(int[] points, int colonies) {
+        final List<BitSet> seen = new ArrayList<>(colonies);
+        for (int i = 0; i < colonies; i++) {
+            seen.add(new BitSet(colonies));
+        }
+        for (int i = 0; i < points.length; i += 2) {
+            final int from = points[i];
+            final int to = points[i + 1];
+            if ((from == to) || seen.get(from).get(to)) {
+                return false;
+            }
+            seen.get(from).set(to);
+            seen.get(to).set(from);
+        }
+        return true;
+    }
+
+    /**
+     * The breadth first search from the first colony over the pairs.
+     */
+    private static boolean pairsConnected(int[] points, int colonies) {
+        final BitSet[] pairs = new BitSet[colonies];
+        for (int i = 0; i < colonies; i++) {
+            pairs[i] = new BitSet(colonies);
+        }
+        for (int i = 0; i < points.length; i += 2) {
+            link(pairs, points[i], points[i + 1]);
+        }
+        final BitSet reached = new BitSet(colonies);
+        final int[] queue = new int[colonies];
+        reached.set(0);
+        int tail = 1;
+        for (int head = 0; head < tail; head++) {
+            final BitSet next = pairs[queue[head]];
+            for (int j = next.nextSetBit(0); j >= 0; j = next.nextSetBit(j + 1)) {
+                if (!reached.get(j)) {
+                    reached.set(j);
+                    queue[tail++] = j;
+                }
+            }
+        }
+        return tail == colonies;
+    }
+
+    private static void hypercube(BitSet[] edges, SplittableRandom random) {
+        final int colonies = edges.length;
+        final int[] labels = identity(colonies);
+        shuffle(labels, random);
+        final int[] byLabel = new int[colonies];
+        for (int i = 0; i < colonies; i++) {
+            byLabel[labels[i]] = i;
+        }
+        for (int i = 0; i < colonies; i++) {
+            for (int bit = 1; bit < colonies; bit <<= 1) {
+                final int other = labels[i] ^ bit;
+                // a not full cube stays connected, each label reaches 0 clearing it's bits
+                if (other < colonies) {
+                    link(edges, i, byLabel[other]);
+                }
+            }
+        }
+    }
+
+    private static void link(BitSet[] edges, int from, int to) {
+        edges[from].set(to);
+        edges[to].set(from);
+    }
+
+    private static int[] identity(int size) {
+        final int[] identity = new int[size];
+        Arrays.setAll(identity, i -> i);
+        return identity;
+    }
+
+    private static void shuffle(int[] values, SplittableRandom random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+}
@@ -23,11 +23,17 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.colony.ant.AntRandom;
 import benchmarks.ants.colonies.colony.ant.AntRunResult;
+import benchmarks.ants.colonies.colony.ant.AntWorkspace;
 import benchmarks.ants.colonies.colony.ant.RunningAnt;
+import benchmarks.ants.localsearch.TourLocalSearch;
 
 /**
  * This is an AntColony's method for running ant and register it results delegate.
@@ -43,9 +49,15 @@ final class AntColonyInteractions {
     private AntColonyInteractions() { /* package-local utility class*/ }
 
     static Callable<Long> antRunProcedure(AntsColony antsColony) {
+        final AtomicInteger workers = new AtomicInteger();
+        final ThreadLocal<AntWorkspace> workspaces = ThreadLocal.withInitial(() ->
+                createWorkspace(antsColony, AntRandom.split(antsColony.getRandomStream(),
+                        workers.getAndIncrement())));
+        final RandomStreams streams = antsColony.getSettings().getRandomStreams();
         return () -> {
-            final Optional<AntRunResult> runResult = new RunningAnt(antsColony.getDistanceData(),
-                    antsColony.getQualities(), antsColony.getTrails()).getRunResult();
+            final AntWorkspace workspace = workspaces.get();
+            workspace.seedNextRun(streams);
+            final Optional<AntRunResult> runResult = runAnt(workspace, antsColony);
 
             if (runResult.isPresent()) {
                 return processResult(runResult.get(), antsColony);
@@ -56,37 +68,99 @@ final class AntColonyInteractions {
         };
     }
 
+    /**
+     * @param stream - the seed of the workspace runs stream.
+     */
+    @Nonnull
+    static AntWorkspace createWorkspace(AntsColony antsColony, long stream) {
+        final AntsSettings settings = antsColony.getSettings();
+        final float exploitation =
+                (settings.getAntSystemVariant() == AntSystemVariant.ANT_COLONY_SYSTEM) ?
+                        settings.getExploitationProbability() : 0.0F;
+        final TourLocalSearch localSearch = antsColony.getLocalSearchNeighbours()
+                .map(neighbours -> settings.getLocalSearch().create(antsColony.getDistanceData(),
+                        neighbours, settings.getLocalSearchDepth()))
+                .orElse(null);
+        return new AntWorkspace(antsColony.getDistanceData(), antsColony.getQualities(),
+                exploitation, localSearch, stream);
+    }
+
+    @Nonnull
+    static Optional<AntRunResult> runAnt(AntWorkspace workspace, AntsColony antsColony) {
+        return new RunningAnt(workspace, antsColony.getChoiceInfo(),
+                antsColony.getColonySystem().orElse(null)).getRunResult();
+    }
+
     private static long processResult(AntRunResult runResult, AntsColony antsColony) {
-        final String runJournal = runResult.getJournal();
-        final long runLength = runResult.getLength();
-        final AntsStatistics statistics = antsColony.getStatistics();
-        // log.debug("Colony {}, ant run {} {}.",
-        //        antsColony.getId(), runJournal, statistics.getBestRunLength());
+        registerRun(runResult, antsColony);
+        takeActionsIfSolutionTheBest(antsColony, runResult, false);
+        return runResult.getLength();
+    }
 
-        statistics.addFinishedRun(runLength);
+    static void registerRun(AntRunResult runResult, AntsColony antsColony) {
+        // log.debug("Colony {}, ant run {} {}.", antsColony.getId(), runResult.getJournal(),
+        //        antsColony.getStatistics().getBestRunLength());
+        antsColony.getStatistics().addFinishedRun(runResult.getLength());
         antsColony.getAntsPerformanceMeasurers().add(runResult.getPerformanceMeasurer());
-        takeActionsIfSolutionTheBest(antsColony, runResult, false);
-        return runLength;
     }
 
     static void takeActionsIfSolutionTheBest(AntsColony antsColony, AntRunResult runResult,
                                              boolean gotOutside) {
         if (runResult.isSuccess()) {
-            if (runResult.getLength() < antsColony.getStatistics().getBestRunLength()) {
-                changeTheBestSolution(antsColony, runResult, gotOutside);
-            }
-            PheromonesApplier.applyPheromones(runResult, antsColony.getSettings(),
-                    antsColony.getTrails());
+            offerIfTheBest(antsColony, runResult, gotOutside);
+            applyPheromones(antsColony, runResult);
+        }
+    }
+
+    /**
+     * The colony own best tour improved by the local search, not offered to it again.
+     * @param improved - owns it's arrays.
+     */
+    static void takeImprovedSolution(AntsColony antsColony, AntRunResult improved) {
+        if ((improved.getLength() < antsColony.getStatistics().getBestRunLength())
+                && antsColony.getStatistics().offerBestRun(improved, getRunJournal())) {
+            antsColony.gotNewSolution();
+        }
+        applyPheromones(antsColony, improved);
+    }
+
+    private static void applyPheromones(AntsColony antsColony, AntRunResult runResult) {
+        switch (antsColony.getSettings().getAntSystemVariant()) {
+            case ANT_SYSTEM:
+                PheromonesApplier.applyPheromones(runResult, antsColony.getTrails());
+                break;
+            case ANT_COLONY_SYSTEM:
+                applyToTheBest(antsColony);
+                break;
+            default: // the MAX-MIN trails get only the deposits of it's iteration update
         }
     }
 
+    static void offerIfTheBest(AntsColony antsColony, AntRunResult runResult,
+                               boolean gotOutside) {
+        if (runResult.getLength() < antsColony.getStatistics().getBestRunLength()) {
+            changeTheBestSolution(antsColony, runResult, gotOutside);
+        }
+    }
+
+    /**
+     * The Ant Colony System global update with the colony best tour.
+     */
+    static void applyToTheBest(AntsColony antsColony) {
+        antsColony.getColonySystem().ifPresent(colonySystem -> antsColony.getStatistics()
+                .getBestRun().ifPresent(colonySystem::globalUpdate));
+    }
+
     private static void changeTheBestSolution(AntsColony antsColony, AntRunResult runResult,
                                               boolean gotOutside) {
-        antsColony.replaceBestRunVertexes(runResult.getTour());
-        if (!gotOutside) {
+        // the ant's result arrays are reused by it's thread next run
+        final AntRunResult snapshot = runResult.snapshot();
+        final boolean replaced = antsColony.getStatistics()
+                .offerBestRun(snapshot, getRunJournal());
+        if (replaced && !gotOutside) {
             antsColony.gotNewSolution();
+            antsColony.getBestTourImprover().ifPresent(improver -> improver.offer(snapshot));
         }
-        antsColony.getStatistics().setNewBestRun(runResult, getRunJournal());
     }
 
     private static String getRunJournal() {
@@ -0,0 +1,41 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+/**
+ * The colony pheromones update rules.
+ */
+public enum AntSystemVariant {
+    /** Each successful ant deposits, the trails are not bounded. */
+    ANT_SYSTEM,
+    /**
+     * MAX-MIN Ant System: only the iteration or the global best ant deposits, the trails are
+     * clamped into the [min, max] bounds derived from the best tour, the stagnated trails are
+     * smoothed back to the max. Always runs on the {@link ColonyEngine#ITERATIONS} engine.
+     * @see MaxMinPheromones
+     */
+    MAX_MIN,
+    /**
+     * Ant Colony System: the ants go the best weighted edge with the exploitation probability,
+     * decay each edge they go towards the initial trail, and only the global best tour gets the
+     * deposit, no other trail evaporates.
+     * @see ColonySystemPheromones
+     */
+    ANT_COLONY_SYSTEM
+}
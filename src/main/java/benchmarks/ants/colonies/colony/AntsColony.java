@@ -23,17 +23,22 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.colony.ant.AntRandom;
 import benchmarks.ants.colonies.colony.ant.AntRunResult;
 import benchmarks.ants.colonies.colony.ant.RunningAnt;
 import benchmarks.ants.colonies.parallelisation.ContinuousParallelExecutor;
+import benchmarks.ants.colonies.parallelisation.IterationsParallelExecutor;
 import benchmarks.ants.data.IDistancesData;
+import benchmarks.ants.localsearch.LocalSearch;
 import benchmarks.metrics.PerformanceMeasurer;
 import benchmarks.metrics.PerformanceMeasuresCompiler;
 import util.Restrictions;
@@ -57,15 +62,22 @@ public final class AntsColony implements IAntsColony {
     private final AntsSettings settings;
     @Nonnegative
     private final int parallelAnts;
+    private final long randomStream; // the colony own, split off the settings seed by the id
     @Nonnull
     private final ColonyCalculationData data;
     @Nonnull
     private final SolutionsExchangeModule solutionsExchangeModule;
     @Nonnull
+    private final PheromonesExchangeModule pheromonesExchangeModule;
+    @Nonnull
+    private final SolutionsInbox inbox = new SolutionsInbox();
+    @Nullable
+    private final BestTourImprover bestTourImprover;
+    @Nonnull
     private final PerformanceMeasurer colonyPerformanceMeasurer = new PerformanceMeasurer();
     @Nonnull
     private final Collection<PerformanceMeasurer> antsPerformanceMeasurers =
-            new CopyOnWriteArrayList<>();
+            new ConcurrentLinkedQueue<>();
 
     public AntsColony(String id, int parallelAnts, AntsSettings settings,
                       CachedRawEdgeQualities qualities) {
@@ -74,8 +86,13 @@ public final class AntsColony implements IAntsColony {
         this.id = id;
         this.settings = settings;
         this.parallelAnts = parallelAnts;
+        randomStream = AntRandom.split(settings.getRandomSeed(), id.hashCode());
         data = new ColonyCalculationData(settings, qualities);
         solutionsExchangeModule = new SolutionsExchangeModule();
+        pheromonesExchangeModule = new PheromonesExchangeModule(settings);
+        bestTourImprover = ((settings.getBestTourLocalSearch() != LocalSearch.NONE)
+                && data.getLocalSearchNeighbours().isPresent()) ?
+                new BestTourImprover(this) : null;
     }
 
     @Override
@@ -83,12 +100,15 @@ public final class AntsColony implements IAntsColony {
         Restrictions.ifNotOnlyPositivesFastFail(periodNanos);
         log.debug("Colony {} start!", id);
         runAnts(System.nanoTime() + periodNanos);
+        getBestTourImprover().ifPresent(BestTourImprover::close);
         logResult();
         return new ColonyRunResult(id,
                 getStatistics().getBestRunLength(),
                 solutionsExchangeModule.neighboursAmount() + 1,
                 parallelAnts, colonyPerformanceMeasurer,
-                PerformanceMeasuresCompiler.compileOverall(antsPerformanceMeasurers));
+                PerformanceMeasuresCompiler.compileOverall(antsPerformanceMeasurers),
+                solutionsExchangeModule.getSentBytes()
+                        + pheromonesExchangeModule.getExchangedBytes());
     }
 
     @Override
@@ -98,28 +118,44 @@ public final class AntsColony implements IAntsColony {
     }
 
     @Override
-    public void addNeighbours(List<IAntsColony> neighboursToAdd) {
+    public void addNeighbours(List<? extends ISolutionsReceiver> neighboursToAdd) {
         if (neighboursToAdd != null) {
             solutionsExchangeModule.setNeighbours(this, neighboursToAdd);
+            pheromonesExchangeModule.setNeighbours(this, neighboursToAdd);
         } else {
             log.warn("Neighbours must not be null!");
         }
     }
 
+    /**
+     * @param shared - the trails of the {@link PheromoneSharing#SHARED_GLOBAL}, common for all
+     *               the run colonies.
+     */
+    public void shareTrails(SharedTrails shared) {
+        pheromonesExchangeModule.setShared(shared);
+    }
+
+    @Override
+    public int addSender() {
+        return inbox.addSender();
+    }
+
     @Override
-    public void receiveSolution(AntRunResult antRunResult) {
+    public void receiveSolution(AntRunResult antRunResult, int senderSlot) {
         colonyPerformanceMeasurer.measurePerformance(() -> {
             if (antRunResult != null) {
-                AntColonyInteractions.takeActionsIfSolutionTheBest(this, antRunResult, true);
-                log.debug("Colony {} received a solution {}.", id, antRunResult.getLength());
+                inbox.offer(senderSlot, antRunResult);
             } else {
                 log.warn("Sent AntRunResult must not be null!");
             }
         }, "exchange");
     }
 
-    void replaceBestRunVertexes(int... currentRunTour) {
-        data.replaceBestRunVertexes(currentRunTour);
+    private void applyReceived(AntRunResult antRunResult) {
+        colonyPerformanceMeasurer.measurePerformance(() -> {
+            AntColonyInteractions.takeActionsIfSolutionTheBest(this, antRunResult, true);
+            log.debug("Colony {} received a solution {}.", id, antRunResult.getLength());
+        }, "inbox");
     }
 
     private void logResult() {
@@ -131,14 +167,30 @@ public final class AntsColony implements IAntsColony {
     }
 
     private void runAnts(@Nonnegative long stopNanos) {
+        if ((settings.getColonyEngine() == ColonyEngine.ITERATIONS)
+                || (settings.getAntSystemVariant() == AntSystemVariant.MAX_MIN)) {
+            final ColonyIteration iteration = new ColonyIteration(this, parallelAnts, stopNanos);
+            IterationsParallelExecutor.run(iteration::runAnt, parallelAnts,
+                    iteration::finishIteration, this::sendSolutionIfNeed, getExchangeNanos(),
+                    "colony" + id, "ant");
+            log.debug("Colony {} made {} iterations.", id, iteration.getIterations());
+            return;
+        }
         //noinspection MethodCallInLoopCondition - the nanoTime need be called each time
         ContinuousParallelExecutor.run(AntColonyInteractions.antRunProcedure(this), parallelAnts,
                 () -> System.nanoTime() >= stopNanos,
-                this::sendSolutionIfNeed, "colony" + id, "ant");
+                this::sendSolutionIfNeed, getExchangeNanos(), "colony" + id, "ant",
+                settings.getExecutionBackend());
     }
 
+    // the colony own periodic operation, so the received ones are applied at it's pace
     private void sendSolutionIfNeed() {
-        solutionsExchangeModule.sendSolutionsIfNeed(getStatistics(), settings);
+        inbox.drain(this::applyReceived);
+        solutionsExchangeModule.sendSolutionsIfNeed(getStatistics());
+        if (settings.getPheromoneSharing() != PheromoneSharing.NONE) {
+            colonyPerformanceMeasurer.measurePerformance(
+                    () -> pheromonesExchangeModule.exchange(getTrails()), "pheromones");
+        }
     }
 
     @Nonnull
@@ -146,16 +198,45 @@ public final class AntsColony implements IAntsColony {
         return id;
     }
 
+    long getRandomStream() {
+        return randomStream;
+    }
+
     @Nonnull
     AntsSettings getSettings() {
         return settings;
     }
 
     @Nonnull
-    float[][] getTrails() {
+    PheromoneTrails getTrails() {
         return data.getTrails();
     }
 
+    @Nonnull
+    PheromonesExchangeModule getPheromonesExchange() {
+        return pheromonesExchangeModule;
+    }
+
+    @Nonnull
+    Optional<ColonySystemPheromones> getColonySystem() {
+        return data.getColonySystem();
+    }
+
+    @Nonnull
+    Optional<NeighboursLists> getLocalSearchNeighbours() {
+        return data.getLocalSearchNeighbours();
+    }
+
+    @Nonnull
+    Optional<BestTourImprover> getBestTourImprover() {
+        return Optional.ofNullable(bestTourImprover);
+    }
+
+    @Nonnull
+    ChoiceInfoMatrix getChoiceInfo() {
+        return data.getChoiceInfo();
+    }
+
     @Nonnull
     CachedRawEdgeQualities getQualities() {
         return data.getQualities();
@@ -176,7 +257,6 @@ public final class AntsColony implements IAntsColony {
         return settings.getGraph();
     }
 
-    @SuppressWarnings("unused")
     @Nonnegative
     private long getExchangeNanos() {
         return settings.getExchangeNanos();
@@ -71,17 +71,31 @@ final class AntsStatistics implements Serializable {
                 + runLength) / (antsRuns.get() + 1));
     }
 
-    void setNewBestRun(AntRunResult runResult, String runJournal) {
-        bestRun.set(runResult);
-        bestRunLength.set(runResult.getLength());
+    /**
+     * Replaces the best run if the offered one is shorter, atomically against the concurrent
+     * offers.
+     * @return true if the offered run became the best one.
+     */
+    boolean offerBestRun(AntRunResult runResult, String runJournal) {
+        AntRunResult current;
+        do {
+            current = bestRun.get();
+            if ((current != null) && (current.getLength() <= runResult.getLength())) {
+                return false;
+            }
+        } while (!bestRun.compareAndSet(current, runResult));
+        bestRunLength.accumulateAndGet(runResult.getLength(), Math::min);
         if (log.isDebugEnabled()) {
-            journal.append(runJournal);
+            synchronized (journal) {
+                journal.append(runJournal);
+            }
             log.debug("ant find better: {}/{} avg:|{}|, solution:{}",
                     antsGoodRuns.incrementAndGet(),
                     antsRuns.get(),
                     avgRunLength.get(),
                     runJournal);
         }
+        return true;
     }
 
     @Nonnegative
@@ -91,7 +105,9 @@ final class AntsStatistics implements Serializable {
 
     @Nonnull
     String getJournal() {
-        return journal.toString();
+        synchronized (journal) {
+            return journal.toString();
+        }
     }
 
 }
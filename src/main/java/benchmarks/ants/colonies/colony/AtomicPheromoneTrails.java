@@ -0,0 +1,145 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.colony.ant.TourTrailDelta;
+import benchmarks.ants.data.AtomicEdgeMatrix;
+import benchmarks.ants.data.EdgeMatrix;
+
+/**
+ * The trails cells are updated by the compare and set loops over the float bits, the depositing
+ * ants never block each other. Only the rare rescaling is exclusive: the deposits share the read
+ * side of a lock, one acquisition per tour.
+ * <p>
+ * The choice cell is refreshed until it matches the trail read after the write, so the last
+ * depositor of a cell always leaves the up to date choice.
+ * @see PheromoneUpdateStrategy#CAS
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+final class AtomicPheromoneTrails extends PheromoneTrails {
+
+    private static final long serialVersionUID = 1390530651624990287L;
+
+    @Nonnull
+    private final AtomicEdgeMatrix stored;
+    @Nonnull
+    private final ReadWriteLock rescaleLock = new ReentrantReadWriteLock();
+
+    AtomicPheromoneTrails(AntsSettings settings, CachedRawEdgeQualities qualities) {
+        this(settings, qualities, EdgeMatrix.atomic(settings.getGraph().getSize(),
+                layoutOf(settings.getGraph())));
+    }
+
+    private AtomicPheromoneTrails(AntsSettings settings, CachedRawEdgeQualities qualities,
+                                  AtomicEdgeMatrix stored) {
+        super(settings, qualities, stored);
+        this.stored = stored;
+    }
+
+    @Override
+    void update(TourTrailDelta delta, boolean evaporateFirst) {
+        if (evaporateFirst && evaporate()) {
+            rescaleExclusively();
+        }
+        final Lock deposit = rescaleLock.readLock();
+        deposit.lock();
+        try {
+            final int size = stored.getSize();
+            for (int i = 0; i < size; i++) {
+                final int column = delta.getDeltaColumnIdx(i);
+                refreshChoice(i, column, stored.addAndGet(i, column, toStored(delta.getDelta(i))));
+            }
+        } finally {
+            deposit.unlock();
+        }
+    }
+
+    @Override
+    void blend(int row, int column, float weight, float target) {
+        final Lock update = rescaleLock.readLock();
+        update.lock();
+        try {
+            refreshChoice(row, column,
+                    stored.blendAndGet(row, column, weight, toStored(target)));
+        } finally {
+            update.unlock();
+        }
+    }
+
+    @Override
+    void transformAll(TrailTransformation transformation) {
+        final Lock exclusive = rescaleLock.writeLock();
+        exclusive.lock();
+        try {
+            transformAll(stored, transformation);
+        } finally {
+            exclusive.unlock();
+        }
+    }
+
+    @Override
+    float getTrail(int row, int column) {
+        final Lock read = rescaleLock.readLock();
+        read.lock();
+        try {
+            return toReal(stored.get(row, column));
+        } finally {
+            read.unlock();
+        }
+    }
+
+    @Nonnegative
+    @Override
+    int getSize() {
+        return stored.getSize();
+    }
+
+    private void refreshChoice(int row, int column, float depositedTrail) {
+        float refreshed;
+        float current = depositedTrail;
+        do {
+            refreshed = current;
+            getChoiceInfo().refreshCell(row, column, refreshed);
+            current = stored.get(row, column);
+        } while (Float.floatToRawIntBits(current) != Float.floatToRawIntBits(refreshed));
+    }
+
+    private void rescaleExclusively() {
+        final Lock exclusive = rescaleLock.writeLock();
+        exclusive.lock();
+        try {
+            if (isRescaleNeeded()) {
+                rescale(stored);
+            }
+        } finally {
+            exclusive.unlock();
+        }
+    }
+}
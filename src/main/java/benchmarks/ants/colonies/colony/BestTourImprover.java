@@ -0,0 +1,120 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+import benchmarks.ants.colonies.parallelisation.BackgroundExecutor;
+import benchmarks.ants.localsearch.TourLocalSearch;
+import benchmarks.metrics.PerformanceMeasurer;
+
+/**
+ * Improves the colony new best tours on the {@link BackgroundExecutor}, so the ants go on
+ * building meanwhile. At most one improvement of a colony runs at a time, the best tours found
+ * during it replace each other and only the last one waits. A shorter tour comes back to the
+ * colony as it's own new best. Nothing is delivered after the colony is closed.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+final class BestTourImprover {
+
+    @Nonnull
+    private final AntsColony colony;
+    @Nonnull
+    private final AtomicReference<AntRunResult> pending = new AtomicReference<>();
+    @Nonnull
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    @Nullable
+    private TourLocalSearch search; // created and used by the one scheduled drain at a time
+    private volatile boolean closed = false;
+
+    BestTourImprover(AntsColony colony) {
+        this.colony = colony;
+    }
+
+    /**
+     * @param best - the snapshot of the colony new best run.
+     */
+    void offer(AntRunResult best) {
+        if (!closed) {
+            pending.set(best);
+            scheduleIfIdle();
+        }
+    }
+
+    void close() {
+        closed = true;
+        pending.set(null);
+    }
+
+    private void scheduleIfIdle() {
+        if (scheduled.compareAndSet(false, true)) {
+            BackgroundExecutor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            AntRunResult best = pending.getAndSet(null);
+            while (!closed && (best != null)) {
+                improve(best);
+                best = pending.getAndSet(null);
+            }
+        } finally {
+            scheduled.set(false);
+        }
+        // an offer between the last check and the flag reset found it still scheduled
+        if (!closed && (pending.get() != null)) {
+            scheduleIfIdle();
+        }
+    }
+
+    private void improve(AntRunResult best) {
+        final int[] tour = best.getTour().clone();
+        final long[] improved = {best.getLength()};
+        final PerformanceMeasurer measurer = new PerformanceMeasurer();
+        measurer.measurePerformance(() -> improved[0] = getSearch().improve(tour, improved[0]),
+                "bestTourSearch");
+        colony.getAntsPerformanceMeasurers().add(measurer);
+        if (!closed && (improved[0] < best.getLength())) {
+            AntColonyInteractions.takeImprovedSolution(colony,
+                    AntRunResult.ofTour(tour, improved[0], measurer));
+        }
+    }
+
+    @Nonnull
+    private TourLocalSearch getSearch() {
+        if (search == null) {
+            final AntsSettings settings = colony.getSettings();
+            //noinspection ConstantConditions - the neighbours are on for the best tour search
+            search = settings.getBestTourLocalSearch().create(colony.getDistanceData(),
+                    colony.getLocalSearchNeighbours().get(), settings.getLocalSearchDepth());
+        }
+        //noinspection ConstantConditions - not NONE, checked by the colony
+        return search;
+    }
+}
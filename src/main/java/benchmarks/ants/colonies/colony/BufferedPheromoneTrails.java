@@ -0,0 +1,233 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.colony.ant.TourTrailDelta;
+import benchmarks.ants.data.EdgeMatrix;
+
+/**
+ * Each thread copies it's tours deltas into it's own buffer, the thread which gets the updater
+ * lock merges all the buffers into the trails, the others go on without waiting. The updater
+ * checks the pending deltas again after the unlock, so no delta is left behind while any thread
+ * deposits. A full buffer makes it's owner wait for the merge.
+ * <p>
+ * The trails are written by a single thread at a time only, the ants read the choice info
+ * lagging at most by the not merged buffers.
+ * @see PheromoneUpdateStrategy#DELTA_BUFFERS
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+final class BufferedPheromoneTrails extends PheromoneTrails {
+
+    private static final long serialVersionUID = -7046187938768426152L;
+    private static final int BUFFERED_TOURS = 8;
+
+    @GuardedBy("updater")
+    @Nonnull
+    private final EdgeMatrix stored;
+    @Nonnull
+    private final ReentrantLock updater = new ReentrantLock();
+    @Nonnull
+    private final Queue<DeltaBuffer> buffers = new ConcurrentLinkedQueue<>();
+    @Nonnull
+    private final AtomicInteger pending = new AtomicInteger(0);
+    @Nonnull
+    private transient ThreadLocal<DeltaBuffer> ownBuffer = ThreadLocal.withInitial(this::register);
+
+    BufferedPheromoneTrails(AntsSettings settings, CachedRawEdgeQualities qualities) {
+        this(settings, qualities, EdgeMatrix.create(settings.getGraph().getSize(),
+                layoutOf(settings.getGraph()), settings.getMatricesBacking()));
+    }
+
+    private BufferedPheromoneTrails(AntsSettings settings, CachedRawEdgeQualities qualities,
+                                    EdgeMatrix stored) {
+        super(settings, qualities, stored);
+        this.stored = stored;
+    }
+
+    @Override
+    void update(TourTrailDelta delta, boolean evaporateFirst) {
+        final DeltaBuffer buffer = ownBuffer.get();
+        while (!buffer.tryAppend(delta, evaporateFirst)) {
+            flush();
+        }
+        pending.incrementAndGet();
+        while ((pending.get() > 0) && updater.tryLock()) {
+            try {
+                mergeAll();
+            } finally {
+                updater.unlock();
+            }
+        }
+    }
+
+    /**
+     * Not buffered, the updater lock is taken for the one cell.
+     */
+    @Override
+    void blend(int row, int column, float weight, float target) {
+        updater.lock();
+        try {
+            final float current = stored.get(row, column);
+            final float updated = current + (weight * (toStored(target) - current));
+            stored.set(row, column, updated);
+            getChoiceInfo().refreshCell(row, column, updated);
+        } finally {
+            updater.unlock();
+        }
+    }
+
+    /**
+     * Merges all the buffered deltas first.
+     */
+    @Override
+    void transformAll(TrailTransformation transformation) {
+        updater.lock();
+        try {
+            mergeAll();
+            transformAll(stored, transformation);
+        } finally {
+            updater.unlock();
+        }
+    }
+
+    @Override
+    float getTrail(int row, int column) {
+        updater.lock();
+        try {
+            return toReal(stored.get(row, column));
+        } finally {
+            updater.unlock();
+        }
+    }
+
+    @Override
+    void flush() {
+        updater.lock();
+        try {
+            mergeAll();
+        } finally {
+            updater.unlock();
+        }
+    }
+
+    @Nonnegative
+    @Override
+    int getSize() {
+        return stored.getSize();
+    }
+
+    @GuardedBy("updater")
+    private void mergeAll() {
+        for (final DeltaBuffer buffer : buffers) {
+            pending.addAndGet(-buffer.drainTo(this));
+        }
+    }
+
+    @GuardedBy("updater")
+    private void apply(float[] deltas, int[] columns, int offset, boolean evaporateFirst) {
+        if (evaporateFirst && evaporate()) {
+            rescale(stored);
+        }
+        final int size = stored.getSize();
+        for (int i = 0; i < size; i++) {
+            final int column = columns[offset + i];
+            stored.add(i, column, toStored(deltas[offset + i]));
+            getChoiceInfo().refreshCell(i, column, stored.get(i, column));
+        }
+    }
+
+    @Nonnull
+    private DeltaBuffer register() {
+        final DeltaBuffer buffer = new DeltaBuffer(stored.getSize());
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        ownBuffer = ThreadLocal.withInitial(this::register);
+    }
+
+    /**
+     * The tours deltas of one thread, appended by it and drained by the updater.
+     */
+    @ThreadSafe
+    private static final class DeltaBuffer implements Serializable {
+
+        private static final long serialVersionUID = 4925093318186716384L;
+
+        private final int size;
+        @GuardedBy("this")
+        private final float[] deltas;
+        @GuardedBy("this")
+        private final int[] columns;
+        @GuardedBy("this")
+        private final boolean[] evaporations = new boolean[BUFFERED_TOURS];
+        @GuardedBy("this")
+        private int tours = 0;
+
+        DeltaBuffer(int size) {
+            this.size = size;
+            deltas = new float[BUFFERED_TOURS * size];
+            columns = new int[BUFFERED_TOURS * size];
+        }
+
+        synchronized boolean tryAppend(TourTrailDelta delta, boolean evaporateFirst) {
+            if (tours == BUFFERED_TOURS) {
+                return false;
+            }
+            final int offset = tours * size;
+            for (int i = 0; i < size; i++) {
+                deltas[offset + i] = delta.getDelta(i);
+                columns[offset + i] = delta.getDeltaColumnIdx(i);
+            }
+            evaporations[tours] = evaporateFirst;
+            tours++;
+            return true;
+        }
+
+        /**
+         * @return the drained tours amount.
+         */
+        synchronized int drainTo(BufferedPheromoneTrails trails) {
+            final int drained = tours;
+            for (int tour = 0; tour < drained; tour++) {
+                trails.apply(deltas, columns, tour * size, evaporations[tour]);
+            }
+            tours = 0;
+            return drained;
+        }
+    }
+}
@@ -19,36 +19,99 @@
 package benchmarks.ants.colonies.colony;
 
 import java.io.Serializable;
+import java.util.Optional;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.data.EdgeMatrix;
 import benchmarks.ants.data.IDistancesData;
+import benchmarks.ants.data.InstanceCacheFile;
+import benchmarks.ants.data.TSPDistanceData;
 
 /**
  * Precalculated (in assumption that the graph while ants colony runs immutable)
- * part of the trail equation. Performance issue.
+ * part of the trail equation, the heuristic {@code (1 / distance) ^ beta}. Performance issue.
  * @author Sergey Pomelov on 11/05/2016.
  */
 public final class CachedRawEdgeQualities implements Serializable {
 
     private static final long serialVersionUID = 3487732853804434640L;
     @Nonnull
-    private final float[][] edgesQualities;
+    private final EdgeMatrix edgesQualities;
+    @Nullable
+    private final NeighboursLists neighboursLists;
 
     public CachedRawEdgeQualities(IDistancesData data) {
+        this(data, 0, 1.0F, EdgeMatrix.Backing.HEAP);
+    }
+
+    /**
+     * @param candidatesAmount - the size of each vertex nearest neighbours list, 0 turns the
+     *                         candidates lists off.
+     * @param beta - the heuristic exponent.
+     * @param backing - the qualities storage, symmetric if the data is.
+     */
+    public CachedRawEdgeQualities(IDistancesData data, @Nonnegative int candidatesAmount,
+                                  @Nonnegative float beta, EdgeMatrix.Backing backing) {
+        neighboursLists = (candidatesAmount > 0) ?
+                new NeighboursLists(data, candidatesAmount) : null;
         final int size = data.getSize();
-        edgesQualities = new float[size][size];
+        final boolean symmetric = data.isSymmetric();
+        edgesQualities = EdgeMatrix.create(size, symmetric ?
+                EdgeMatrix.Layout.SYMMETRIC : EdgeMatrix.Layout.SQUARE, backing);
+        final int[] row = new int[size];
         for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
+            data.fillRow(i, row);
+            final int columns = symmetric ? (i + 1) : size;
+            for (int j = 0; j < columns; j++) {
                 //noinspection NumericCastThatLosesPrecision, used like pow(float, float)
-                edgesQualities[i][j] = (float) StrictMath.pow(data.getDist(i, j), -1.0D);
+                edgesQualities.set(i, j, (float) StrictMath.pow(row[j], -beta));
             }
         }
     }
 
-    @SuppressWarnings("ReturnOfCollectionOrArrayField") // performance issue
+    private CachedRawEdgeQualities(EdgeMatrix edgesQualities,
+                                   @Nullable NeighboursLists neighboursLists) {
+        this.edgesQualities = edgesQualities;
+        this.neighboursLists = neighboursLists;
+    }
+
+    /**
+     * @return the qualities of the settings graph, from the instance cache if it's on, the cache
+     * is written on the first use.
+     * @see AntsSettings#isInstanceCache()
+     */
+    @Nonnull
+    public static CachedRawEdgeQualities of(AntsSettings settings) {
+        final IDistancesData graph = settings.getGraph();
+        if (!settings.isInstanceCache() || !(graph instanceof TSPDistanceData)) {
+            return new CachedRawEdgeQualities(graph, settings.getCandidatesAmount(),
+                    settings.getBeta(), settings.getMatricesBacking());
+        }
+        final Optional<InstanceCacheFile> cache = InstanceCacheFile.open(settings.getFile(),
+                settings.getBeta(), settings.getCandidatesAmount());
+        if (cache.isPresent()) {
+            return new CachedRawEdgeQualities(cache.get().getQualities(),
+                    cache.get().getNeighbours().map(NeighboursLists::new).orElse(null));
+        }
+        final CachedRawEdgeQualities qualities = new CachedRawEdgeQualities(graph,
+                settings.getCandidatesAmount(), settings.getBeta(), settings.getMatricesBacking());
+        InstanceCacheFile.write(settings.getFile(), settings.getBeta(),
+                settings.getCandidatesAmount(), (TSPDistanceData) graph, qualities.edgesQualities,
+                qualities.getNeighboursLists().map(NeighboursLists::getLists).orElse(null));
+        return qualities;
+    }
+
     @Nonnull
-    public float[][] getEdgesQualities() {
+    public EdgeMatrix getEdgesQualities() {
         return edgesQualities;
     }
+
+    @Nonnull
+    public Optional<NeighboursLists> getNeighboursLists() {
+        return Optional.ofNullable(neighboursLists);
+    }
 }
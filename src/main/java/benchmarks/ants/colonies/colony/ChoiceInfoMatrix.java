@@ -0,0 +1,130 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import java.io.Serializable;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import benchmarks.ants.data.EdgeMatrix;
+
+/**
+ * Colony level cache of the combined edge weights {@code max(trail^alpha * quality, min)}, where
+ * the quality is already powered by beta. Ants read only this matrix on each step, the pheromones
+ * updaters refresh the cells they touch.
+ * <p>
+ * Kept as one flat square row-major heap array, the row of the vertex i starts at the
+ * {@code i * size}: the hottest read path has no rows indirection and no symmetric index math.
+ * It stays on the heap whatever the matrices backing is, the square or the triangle
+ * {@link EdgeMatrix} costs about a quarter of the ants steps. So a colony holds 4 * n^2 heap bytes
+ * of the choices besides it's trails, about 270 MB for the ei8246: the heap is to be sized for the
+ * colonies amount.
+ * @see CachedRawEdgeQualities
+ * @see PheromonesApplier
+ */
+@NotThreadSafe
+@ParametersAreNonnullByDefault
+public final class ChoiceInfoMatrix implements Serializable {
+
+    private static final long serialVersionUID = 6176826734606470379L;
+    private static final float MIN_VERTEX_QUALITY = Float.MIN_VALUE * 10.0E2F;
+
+    @Nonnull
+    private final float[] choices;
+    @Nonnull
+    private final EdgeMatrix edgesQualities;
+    @Nonnegative
+    private final int size;
+    @Nonnegative
+    private final float alpha;
+
+    /**
+     * @param alpha - the trail exponent.
+     * @param trails - the initial trails, the whole matrix is calculated from.
+     */
+    public ChoiceInfoMatrix(CachedRawEdgeQualities qualities, @Nonnegative float alpha,
+                            EdgeMatrix trails) {
+        edgesQualities = qualities.getEdgesQualities();
+        size = edgesQualities.getSize();
+        this.alpha = alpha;
+        choices = new float[cells(size)];
+        refreshAll(trails);
+    }
+
+    void refreshAll(EdgeMatrix trails) {
+        for (int i = 0; i < size; i++) {
+            refreshRow(i, trails);
+        }
+    }
+
+    void refreshRow(int row, EdgeMatrix trails) {
+        final int offset = row * size;
+        for (int j = 0; j < size; j++) {
+            choices[offset + j] = choice(trails.get(row, j), edgesQualities.get(row, j));
+        }
+    }
+
+    /**
+     * Refreshes the (column, row) cell too if the graph is symmetric.
+     * @param trail - the current (row, column) trail.
+     */
+    void refreshCell(int row, int column, float trail) {
+        final float value = choice(trail, edgesQualities.get(row, column));
+        choices[(row * size) + column] = value;
+        if (edgesQualities.isSymmetric()) {
+            choices[(column * size) + row] = value;
+        }
+    }
+
+    /**
+     * @return the flat square matrix, the row of the vertex i starts at the {@code i * size}.
+     */
+    // coping or immutable wrapping affects performance
+    @SuppressWarnings("ReturnOfCollectionOrArrayField")
+    @Nonnull
+    public float[] getChoices() {
+        return choices;
+    }
+
+    @Nonnegative
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the square cells amount, the int row offsets and indexes are safe then.
+     */
+    @SuppressWarnings("NumericCastThatLosesPrecision") // checked
+    private static int cells(@Nonnegative int size) {
+        final long cells = (long) size * size;
+        if (cells > (Integer.MAX_VALUE - 8)) {
+            throw new IllegalArgumentException("Too big choices matrix " + size + '!');
+        }
+        return (int) cells;
+    }
+
+    @SuppressWarnings({"FloatingPointEquality", "NumericCastThatLosesPrecision"})
+    private float choice(float trail, float quality) {
+        final float poweredTrail = (alpha == 1.0F) ? trail : (float) Math.pow(trail, alpha);
+        return Math.max(poweredTrail * quality, MIN_VERTEX_QUALITY);
+    }
+}
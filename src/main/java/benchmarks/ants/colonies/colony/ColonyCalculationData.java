@@ -18,18 +18,18 @@
 
 package benchmarks.ants.colonies.colony;
 
-import com.google.common.collect.ImmutableList;
-
 import java.io.Serializable;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Collections;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.localsearch.LocalSearch;
 
 /**
  * @author Sergey Pomelov on 17/05/2016.
@@ -38,42 +38,57 @@ import benchmarks.ants.colonies.AntsSettings;
 final class ColonyCalculationData implements Serializable {
 
     private static final long serialVersionUID = -1491221017205795015L;
+    private static final int LOCAL_SEARCH_NEIGHBOURS = 10;
 
     @Nonnull
-    private final float[][] trails;
+    private final PheromoneTrails trails;
+    @Nullable
+    private final ColonySystemPheromones colonySystem;
+    @Nullable
+    private final NeighboursLists localSearchNeighbours;
     @Nonnull
     private final CachedRawEdgeQualities qualities;
     @Nonnull
-    private final Collection<Integer> bestRunVertexes = new CopyOnWriteArrayList<>();
-    @Nonnull
     private final AntsStatistics statistics = new AntsStatistics();
 
     ColonyCalculationData(AntsSettings settings, CachedRawEdgeQualities qualities) {
-        final int size = settings.getGraph().getSize();
         this.qualities = qualities;
-        trails = new float[size][size];
-        initialTrail(size, settings);
+        trails = PheromoneTrails.create(settings, qualities);
+        colonySystem = (settings.getAntSystemVariant() == AntSystemVariant.ANT_COLONY_SYSTEM) ?
+                new ColonySystemPheromones(settings, trails) : null;
+        if (settings.getAntSystemVariant() == AntSystemVariant.MAX_MIN) {
+            MaxMinPheromones.initialise(settings, trails);
+        }
+        // the moves reverse the tour parts, only the symmetric graphs keep the lengths
+        localSearchNeighbours = (((settings.getLocalSearch() == LocalSearch.NONE)
+                && (settings.getBestTourLocalSearch() == LocalSearch.NONE))
+                || !settings.getGraph().isSymmetric()) ? null :
+                qualities.getNeighboursLists().orElseGet(() ->
+                        new NeighboursLists(settings.getGraph(), LOCAL_SEARCH_NEIGHBOURS));
     }
 
-    @SuppressWarnings("MethodCanBeVariableArityMethod")
-    void replaceBestRunVertexes(int[] currentRunTour) {
-        bestRunVertexes.clear();
-        bestRunVertexes.addAll(Arrays.stream(currentRunTour).boxed().collect(Collectors.toList()));
+    @Nonnull
+    PheromoneTrails getTrails() {
+        return trails;
     }
 
-    private void initialTrail(int size, AntsSettings settings) {
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                trails[i][j] = settings.getInitialTrail();
-            }
-        }
+    @Nonnull
+    Optional<ColonySystemPheromones> getColonySystem() {
+        return Optional.ofNullable(colonySystem);
     }
 
-    // coping or immutable wrapping affects performance
-    @SuppressWarnings("ReturnOfCollectionOrArrayField")
+    /**
+     * @return the candidates lists if any, or the own lists, present if any local search is on
+     * and the graph is symmetric.
+     */
     @Nonnull
-    float[][] getTrails() {
-        return trails;
+    Optional<NeighboursLists> getLocalSearchNeighbours() {
+        return Optional.ofNullable(localSearchNeighbours);
+    }
+
+    @Nonnull
+    ChoiceInfoMatrix getChoiceInfo() {
+        return trails.getChoiceInfo();
     }
 
     @Nonnull
@@ -83,7 +98,11 @@ final class ColonyCalculationData implements Serializable {
 
     @Nonnull
     Iterable<Integer> getBestRunVertexes() {
-        return ImmutableList.copyOf(bestRunVertexes);
+        // derived from the best run, so the tour and it's length are always consistent
+        return statistics.getBestRun()
+                .map(bestRun -> Arrays.stream(bestRun.getTour()).boxed()
+                        .collect(Collectors.toList()))
+                .orElseGet(Collections::emptyList);
     }
 
     @Nonnull
@@ -0,0 +1,32 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+/**
+ * How the colony ants runs are organised in time.
+ */
+public enum ColonyEngine {
+    /** Each ant deposits as soon as it finishes and starts again at once. */
+    CONTINUOUS,
+    /**
+     * All the colony ants build a tour each, then the trails evaporate once and get all the ants
+     * deposits in the ants order, then the next iteration starts.
+     */
+    ITERATIONS
+}
@@ -0,0 +1,119 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import benchmarks.ants.colonies.colony.ant.AntRandom;
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+import benchmarks.ants.colonies.colony.ant.AntWorkspace;
+import benchmarks.ants.colonies.colony.ant.TourTrailDelta;
+
+/**
+ * The iteration-synchronous colony step: each ant fills it's own result slot, then the single
+ * iteration end takes the slots in the ants order, offers the iteration best and applies one
+ * evaporation with all the deposits, the MAX-MIN or the Ant Colony System update. The slots are
+ * published by the barrier between the two.
+ * @see ColonyEngine#ITERATIONS
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+final class ColonyIteration {
+
+    @Nonnull
+    private final AntsColony colony;
+    @Nonnull
+    private final ThreadLocal<AntWorkspace> workspaces;
+    @Nonnull
+    private final AntRunResult[] results;
+    @Nonnull
+    private final List<TourTrailDelta> deltas; // reused by the iteration end
+    @Nullable
+    private final MaxMinPheromones maxMin;
+    @Nonnegative
+    private final long stopNanos;
+    @Nonnull
+    private final RandomStreams streams;
+    @Nonnegative
+    private long iterations = 0L; // the iteration end only
+
+    ColonyIteration(AntsColony colony, @Nonnegative int ants, @Nonnegative long stopNanos) {
+        this.colony = colony;
+        this.stopNanos = stopNanos;
+        // the runs are seeded by the iteration and the ant, not by the workspace stream
+        workspaces = ThreadLocal.withInitial(() ->
+                AntColonyInteractions.createWorkspace(colony, 0L));
+        streams = colony.getSettings().getRandomStreams();
+        results = new AntRunResult[ants];
+        deltas = new ArrayList<>(ants);
+        maxMin = (colony.getSettings().getAntSystemVariant() == AntSystemVariant.MAX_MIN) ?
+                new MaxMinPheromones(colony) : null;
+    }
+
+    void runAnt(int ant) {
+        final AntWorkspace workspace = workspaces.get();
+        workspace.seedRun(streams.runSeed(
+                AntRandom.split(colony.getRandomStream(), iterations), ant));
+        final Optional<AntRunResult> runResult = AntColonyInteractions.runAnt(workspace, colony);
+        results[ant] = runResult.orElse(null);
+        runResult.ifPresent(result -> AntColonyInteractions.registerRun(result, colony));
+    }
+
+    /**
+     * @return true if the run time is over.
+     */
+    boolean finishIteration() {
+        deltas.clear();
+        @Nullable AntRunResult iterationBest = null;
+        for (final AntRunResult result : results) {
+            if ((result != null) && result.isSuccess()) {
+                deltas.add(result.getPheromonesDelta());
+                if ((iterationBest == null) || (result.getLength() < iterationBest.getLength())) {
+                    iterationBest = result;
+                }
+            }
+        }
+        if (iterationBest != null) {
+            AntColonyInteractions.offerIfTheBest(colony, iterationBest, false);
+            if (maxMin != null) {
+                maxMin.update(iterationBest);
+            }
+        }
+        if (colony.getColonySystem().isPresent()) {
+            AntColonyInteractions.applyToTheBest(colony);
+        } else if (maxMin == null) {
+            PheromonesApplier.applyIterationPheromones(deltas, colony.getTrails());
+        }
+        iterations++;
+        return System.nanoTime() >= stopNanos;
+    }
+
+    @Nonnegative
+    long getIterations() {
+        return iterations;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.AntsSettingsBuilder;
+import util.GNUCopyright;
+
+import static org.openjdk.jmh.annotations.Mode.Throughput;
+
+/**
+ * JMH benchmarks of the colony ant cycle: the tour construction together with the result
+ * processing and the pheromones update, the score is ant runs per second.
+ * This class can't be final or not public because runtime instrumentation reasons.
+ */
+@SuppressWarnings("WeakerAccess")
+@Fork(1)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Throughput)
+@ParametersAreNonnullByDefault
+public class ColonyJMHBenchmarks {
+
+    @Param({"qa194", "xit1083", "mu1979"})
+    private String task;
+    @Param({"20"})
+    private int candidates;
+    @Param({"GLOBAL_LOCK", "STRIPED_LOCKS", "CAS", "DELTA_BUFFERS"})
+    private PheromoneUpdateStrategy strategy;
+
+    private Callable<Long> antRunProcedure;
+
+    public static void main(String... args) throws RunnerException {
+        GNUCopyright.printLicence();
+        final Options options = new OptionsBuilder()
+                .include(ColonyJMHBenchmarks.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        final AntsSettings settings = new AntsSettingsBuilder().setFile(task)
+                .setCandidatesAmount(candidates)
+                .setPheromoneUpdateStrategy(strategy).createAntsSettings();
+        final CachedRawEdgeQualities qualities = CachedRawEdgeQualities.of(settings);
+        antRunProcedure = AntColonyInteractions.antRunProcedure(
+                new AntsColony(task, 1, settings, qualities));
+    }
+
+    @SuppressWarnings("ProhibitedExceptionDeclared") // the agent contract
+    @Benchmark
+    public long antCycle() throws Exception {
+        return antRunProcedure.call();
+    }
+}
@@ -60,10 +60,15 @@ public final class ColonyRunResult {
     private final long avgAntsRunNs;
     @Nonnegative
     private final long avgExchangeNs;
+    @Nonnegative
+    private final long exchangedBytes;
 
+    /**
+     * @param exchangedBytes - the best tours and the trails exchanged, as if sent by value.
+     */
     public ColonyRunResult(String id, long result, int colonies, int ants, long antRuns,
                            long exchanges, long avgInitialTrailNs,
-                           long avgAntsRunNs, long avgExchangeNs) {
+                           long avgAntsRunNs, long avgExchangeNs, long exchangedBytes) {
         this.id = id;
         this.result = result;
         this.colonies = colonies;
@@ -73,6 +78,7 @@ public final class ColonyRunResult {
         this.avgInitialTrailNs = avgInitialTrailNs;
         this.avgAntsRunNs = avgAntsRunNs;
         this.avgExchangeNs = avgExchangeNs;
+        this.exchangedBytes = exchangedBytes;
         if (!isValid()) {
             log.warn("Not valid result {}.", toString());
         }
@@ -80,12 +86,12 @@ public final class ColonyRunResult {
 
     ColonyRunResult(String id, @Nonnegative long result, @Nonnegative int colonies,
                     @Nonnegative int ants, PerformanceMeasurer colonyRecorder,
-                    PerformanceMeasurer antsRecorder) {
+                    PerformanceMeasurer antsRecorder, @Nonnegative long exchangedBytes) {
         this(id, result, colonies, ants, antsRecorder.getCalls("runAnt"),
                 colonyRecorder.getCalls("exchange"),
                 getElapsedTimeOrZero(colonyRecorder, "initialTrail"),
                 getElapsedTimeOrZero(antsRecorder, "runAnt"),
-                getElapsedTimeOrZero(colonyRecorder, "exchange"));
+                getElapsedTimeOrZero(colonyRecorder, "exchange"), exchangedBytes);
     }
 
     @Nonnull
@@ -94,7 +100,8 @@ public final class ColonyRunResult {
                 ", runs: " + antRuns +
                 ", exch: " + exchanges +
                 ", avgRun: " + avgAntsRunNs +
-                "ns, avgExch: " + avgExchangeNs + "ns";
+                "ns, avgExch: " + avgExchangeNs +
+                "ns, exchBytes: " + exchangedBytes;
     }
 
     @Nonnegative
@@ -120,6 +127,17 @@ public final class ColonyRunResult {
         return optional.isPresent() ? optional.get().getTime() : 0L;
     }
 
+    /**
+     * @param colonies - the colonies amount of the whole run, a colony knows only it's
+     *                 neighbours.
+     * @return the same result of the given colonies amount.
+     */
+    @Nonnull
+    public ColonyRunResult withColonies(@Nonnegative int colonies) {
+        return new ColonyRunResult(id, result, colonies, ants, antRuns, exchanges,
+                avgInitialTrailNs, avgAntsRunNs, avgExchangeNs, exchangedBytes);
+    }
+
     @Nonnegative
     public long getAntRuns() {
         return antRuns;
@@ -155,6 +173,11 @@ public final class ColonyRunResult {
         return avgExchangeNs;
     }
 
+    @Nonnegative
+    public long getExchangedBytes() {
+        return exchangedBytes;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
@@ -167,6 +190,7 @@ public final class ColonyRunResult {
                 .add("avgInitialTrailNs", avgInitialTrailNs)
                 .add("avgAntsRunNs", avgAntsRunNs)
                 .add("avgExchangeNs", avgExchangeNs)
+                .add("exchangedBytes", exchangedBytes)
                 .toString();
     }
 }
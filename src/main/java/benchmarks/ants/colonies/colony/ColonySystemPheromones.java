@@ -0,0 +1,106 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import java.io.Serializable;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+import benchmarks.ants.colonies.colony.ant.StepTrailUpdate;
+import benchmarks.ants.data.IDistancesData;
+
+/**
+ * The Ant Colony System trails rules. All the trails start from the {@code 1 / (n * L)}, where the
+ * L is the nearest neighbour tour length. Each ant step moves the edge trail towards it by the
+ * local evaporation part, the global update moves the best tour edges towards the
+ * {@code 1 / best length} by the evaporation part. Both are O(1) per edge, so a tour costs O(n)
+ * trails updates.
+ * @see AntSystemVariant#ANT_COLONY_SYSTEM
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+final class ColonySystemPheromones implements StepTrailUpdate, Serializable {
+
+    private static final long serialVersionUID = -2262766981932786014L;
+
+    @Nonnull
+    private final PheromoneTrails trails;
+    @Nonnegative
+    private final float initialTrail;
+    @Nonnegative
+    private final float localEvaporation;
+    @Nonnegative
+    private final float evaporation;
+
+    @SuppressWarnings("NumericCastThatLosesPrecision")
+    ColonySystemPheromones(AntsSettings settings, PheromoneTrails trails) {
+        this.trails = trails;
+        final IDistancesData graph = settings.getGraph();
+        initialTrail = (float) (1.0D / (graph.getSize() * (double) nearestNeighbourTour(graph)));
+        localEvaporation = settings.getLocalEvaporation();
+        evaporation = settings.getEvaporationCoefficient();
+        trails.transformAll(trail -> initialTrail);
+    }
+
+    @Override
+    public void onStep(int from, int to) {
+        trails.blend(from, to, localEvaporation, initialTrail);
+    }
+
+    void globalUpdate(AntRunResult best) {
+        final int[] tour = best.getTour();
+        final float deposit = 1.0F / best.getLength();
+        int from = tour[tour.length - 1];
+        for (final int to : tour) {
+            trails.blend(from, to, evaporation, deposit);
+            from = to;
+        }
+    }
+
+    /**
+     * @return the greedy tour length from the vertex 0, at least 1.
+     */
+    @Nonnegative
+    static long nearestNeighbourTour(IDistancesData graph) {
+        final int size = graph.getSize();
+        final boolean[] visited = new boolean[size];
+        final int[] row = new int[size];
+        final int[] tour = new int[size];
+        visited[0] = true;
+        int current = 0;
+        for (int step = 1; step < size; step++) {
+            graph.fillRow(current, row);
+            int next = -1;
+            for (int j = 0; j < size; j++) {
+                if (!visited[j] && ((next < 0) || (row[j] < row[next]))) {
+                    next = j;
+                }
+            }
+            tour[step] = next;
+            visited[next] = true;
+            current = next;
+        }
+        return Math.max(graph.tourLength(tour), 1L);
+    }
+}
@@ -24,15 +24,13 @@ import java.util.List;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 
-import benchmarks.ants.colonies.colony.ant.AntRunResult;
-
 /**
  * The interface for Ant's optimization.
  *
  * @author Sergey Pomelov 20.01.15.
  */
 @SuppressWarnings("InterfaceWithOnlyOneDirectInheritor")
-public interface IAntsColony extends Serializable {
+public interface IAntsColony extends ISolutionsReceiver, Serializable {
     /**
      * @param periodNanos - The time stop criteria.
      * @return the best solution length
@@ -45,13 +43,7 @@ public interface IAntsColony extends Serializable {
      *                   inside the
      *                   {@code benchmarks.tasks.ants.AntsColoniesSettings#EXCHANGE_NANOS}.
      */
-    void addNeighbours(List<IAntsColony> neighboursToAdd);
-
-    /**
-     * @param antRunResult - method implementing obtaining the information about other colony's best
-     *                     solution.
-     */
-    void receiveSolution(AntRunResult antRunResult);
+    void addNeighbours(List<? extends ISolutionsReceiver> neighboursToAdd);
 
     /**
      * @return the additional computation logs
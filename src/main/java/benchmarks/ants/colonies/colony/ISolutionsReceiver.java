@@ -0,0 +1,46 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import javax.annotation.Nonnegative;
+
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+
+/**
+ * Whom a colony sends it's best solutions to: an other colony, or a transport to the colonies
+ * outside of the process.
+ * @see SolutionsExchangeModule
+ */
+public interface ISolutionsReceiver {
+
+    /**
+     * @return the new sender slot in this receiver inbox, to pass with it's solutions.
+     */
+    @Nonnegative
+    int addSender();
+
+    /**
+     * Puts the sender's best solution to the inbox and returns at once, the receiver applies it
+     * on it's own schedule.
+     * @param antRunResult - owns it's arrays.
+     * @param senderSlot - the {@link #addSender()} one, the sender's previous pending solution is
+     *                   kept if it is not worse.
+     */
+    void receiveSolution(AntRunResult antRunResult, @Nonnegative int senderSlot);
+}
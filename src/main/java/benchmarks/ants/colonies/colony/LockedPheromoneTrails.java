@@ -0,0 +1,90 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.colony.ant.TourTrailDelta;
+import benchmarks.ants.data.EdgeMatrix;
+
+/**
+ * The trails under the one monitor, each tour update is exclusive.
+ * @see PheromoneUpdateStrategy#GLOBAL_LOCK
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+final class LockedPheromoneTrails extends PheromoneTrails {
+
+    private static final long serialVersionUID = 8177204585040524946L;
+
+    @Nonnull
+    private final EdgeMatrix stored;
+
+    LockedPheromoneTrails(AntsSettings settings, CachedRawEdgeQualities qualities) {
+        this(settings, qualities, EdgeMatrix.create(settings.getGraph().getSize(),
+                layoutOf(settings.getGraph()), settings.getMatricesBacking()));
+    }
+
+    private LockedPheromoneTrails(AntsSettings settings, CachedRawEdgeQualities qualities,
+                                  EdgeMatrix stored) {
+        super(settings, qualities, stored);
+        this.stored = stored;
+    }
+
+    @Override
+    synchronized void update(TourTrailDelta delta, boolean evaporateFirst) {
+        if (evaporateFirst && evaporate()) {
+            rescale(stored);
+        }
+        final int size = stored.getSize();
+        for (int i = 0; i < size; i++) {
+            final int column = delta.getDeltaColumnIdx(i);
+            stored.add(i, column, toStored(delta.getDelta(i)));
+            getChoiceInfo().refreshCell(i, column, stored.get(i, column));
+        }
+    }
+
+    @Override
+    synchronized void blend(int row, int column, float weight, float target) {
+        final float current = stored.get(row, column);
+        final float updated = current + (weight * (toStored(target) - current));
+        stored.set(row, column, updated);
+        getChoiceInfo().refreshCell(row, column, updated);
+    }
+
+    @Override
+    synchronized void transformAll(TrailTransformation transformation) {
+        transformAll(stored, transformation);
+    }
+
+    @Override
+    synchronized float getTrail(int row, int column) {
+        return toReal(stored.get(row, column));
+    }
+
+    @Nonnegative
+    @Override
+    int getSize() {
+        return stored.getSize();
+    }
+}
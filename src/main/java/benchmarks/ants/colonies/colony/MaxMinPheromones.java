@@ -0,0 +1,141 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+
+/**
+ * The MAX-MIN Ant System iteration update: one evaporation and the best ant deposit, then the
+ * trails are clamped into [min, max], where {@code max = 1 / (evaporation * best length)} and the
+ * min is the one giving the best tour the configured probability to be built once the trails
+ * converged. All the trails start from the max estimate by the nearest neighbour tour length.
+ * When the global best does not improve for the stagnation iterations the trails are smoothed
+ * towards the max, the smoothing 1 is the full reinitialisation.
+ * <p>
+ * The bounds keep the choices far from the float underflow whatever long the colony runs. The
+ * clamping is a whole trails pass, as the classic evaporation is.
+ * @see AntSystemVariant#MAX_MIN
+ */
+@NotThreadSafe // the iteration end only
+@ParametersAreNonnullByDefault
+final class MaxMinPheromones {
+
+    private static final Logger log = LoggerFactory.getLogger(MaxMinPheromones.class);
+
+    @Nonnull
+    private final AntsColony colony;
+    @Nonnegative
+    private final float evaporation;
+    @Nonnegative
+    private final float minToMaxRatio;
+    @Nonnegative
+    private final int globalBestDepositPeriod;
+    @Nonnegative
+    private final int stagnationIterations;
+    @Nonnegative
+    private final float smoothing;
+    @Nonnegative
+    private long iteration = 0L;
+    @Nonnegative
+    private long lastImprovement = 0L;
+    private long lastBestLength = Long.MAX_VALUE;
+
+    MaxMinPheromones(AntsColony colony) {
+        this.colony = colony;
+        final AntsSettings settings = colony.getSettings();
+        evaporation = settings.getEvaporationCoefficient();
+        globalBestDepositPeriod = settings.getGlobalBestDepositPeriod();
+        stagnationIterations = settings.getStagnationIterations();
+        smoothing = settings.getTrailSmoothing();
+        minToMaxRatio = minToMaxRatio(settings.getBestTourProbability(),
+                settings.getGraph().getSize());
+    }
+
+    /**
+     * Sets all the trails to {@code 1 / (evaporation * L)}, where the L is the nearest neighbour
+     * tour length, as no best tour is known yet.
+     */
+    @SuppressWarnings("NumericCastThatLosesPrecision")
+    static void initialise(AntsSettings settings, PheromoneTrails trails) {
+        final float max = (float) (1.0D / (settings.getEvaporationCoefficient()
+                * (double) ColonySystemPheromones.nearestNeighbourTour(settings.getGraph())));
+        trails.transformAll(trail -> max);
+    }
+
+    /**
+     * @param iterationBest - the shortest tour of the iteration, already offered as the colony
+     *                      best.
+     */
+    void update(AntRunResult iterationBest) {
+        iteration++;
+        final long bestLength = colony.getStatistics().getBestRunLength();
+        if (bestLength < lastBestLength) {
+            lastBestLength = bestLength;
+            lastImprovement = iteration;
+        }
+        final PheromoneTrails trails = colony.getTrails();
+        trails.evaporateAndDeposit(depositor(iterationBest).getPheromonesDelta());
+
+        final float max = (float) (1.0D / (evaporation * (double) bestLength));
+        final float min = max * minToMaxRatio;
+        if ((stagnationIterations > 0) && ((iteration - lastImprovement) >= stagnationIterations)) {
+            log.debug("Colony {} stagnated for {} iterations, smoothing the trails.",
+                    colony.getId(), iteration - lastImprovement);
+            trails.transformAll(trail -> Math.max(trail + (smoothing * (max - trail)), min));
+            lastImprovement = iteration;
+        } else {
+            trails.transformAll(trail -> Math.min(Math.max(trail, min), max));
+        }
+    }
+
+    @Nonnull
+    private AntRunResult depositor(AntRunResult iterationBest) {
+        if ((globalBestDepositPeriod > 0) && ((iteration % globalBestDepositPeriod) == 0L)) {
+            final Optional<AntRunResult> globalBest = colony.getStatistics().getBestRun();
+            if (globalBest.isPresent()) {
+                return globalBest.get();
+            }
+        }
+        return iterationBest;
+    }
+
+    /**
+     * The converged trails give the best tour each edge the max trail and the others the min, the
+     * ratio makes such a tour built with the given probability, taking the half of the vertexes as
+     * the average choices amount.
+     */
+    @SuppressWarnings("NumericCastThatLosesPrecision")
+    @Nonnegative
+    static float minToMaxRatio(float bestTourProbability, @Nonnegative int size) {
+        final double root = Math.pow(bestTourProbability, 1.0D / size);
+        final double averageChoices = Math.max(size / 2.0D, 2.0D);
+        return (float) ((1.0D - root) / ((averageChoices - 1.0D) * root));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import benchmarks.ants.data.IDistancesData;
+
+/**
+ * Precalculated lists of the k nearest vertexes for every vertex, ordered from the closest one.
+ * Lets an ant look through a few promising candidates instead of the whole graph row.
+ * @see CachedRawEdgeQualities
+ */
+@Immutable
+public final class NeighboursLists implements Serializable {
+
+    private static final long serialVersionUID = -2786093377125064219L;
+
+    @Nonnull
+    private final int[][] neighbours;
+    @Nonnegative
+    private final int listSize;
+
+    NeighboursLists(IDistancesData data, @Nonnegative int desiredListSize) {
+        final int size = data.getSize();
+        listSize = Math.min(desiredListSize, size - 1);
+        neighbours = new int[size][];
+        final int[] distances = new int[listSize];
+        final int[] row = new int[size];
+        for (int i = 0; i < size; i++) {
+            data.fillRow(i, row);
+            neighbours[i] = nearestTo(row, i, distances);
+        }
+    }
+
+    /**
+     * @param neighbours - the ready lists of the same size, the closest first, kept as is.
+     */
+    NeighboursLists(int[][] neighbours) {
+        this.neighbours = neighbours;
+        listSize = (neighbours.length == 0) ? 0 : neighbours[0].length;
+    }
+
+    /**
+     * @param vertex the vertex to look around.
+     * @return the nearest vertexes, the closest first. Must not be changed outside.
+     */
+    @SuppressWarnings("ReturnOfCollectionOrArrayField") // performance issue
+    @Nonnull
+    public int[] getNeighbours(int vertex) {
+        return neighbours[vertex];
+    }
+
+    @Nonnegative
+    public int getListSize() {
+        return listSize;
+    }
+
+    @SuppressWarnings("ReturnOfCollectionOrArrayField") // the cache writing only
+    @Nonnull
+    int[][] getLists() {
+        return neighbours;
+    }
+
+    // bounded insertion sort, O(size * listSize) per row without any boxing
+    private int[] nearestTo(int[] row, int vertex, int[] distances) {
+        final int size = row.length;
+        final int[] nearest = new int[listSize];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        int found = 0;
+        for (int j = 0; j < size; j++) {
+            if (j != vertex) {
+                final int dist = row[j];
+                int position = listSize;
+                if (found < listSize) {
+                    position = found++;
+                } else if ((listSize > 0) && (dist < distances[listSize - 1])) {
+                    position = listSize - 1;
+                }
+                if (position < listSize) {
+                    while ((position > 0) && (distances[position - 1] > dist)) {
+                        distances[position] = distances[position - 1];
+                        nearest[position] = nearest[position - 1];
+                        position--;
+                    }
+                    distances[position] = dist;
+                    nearest[position] = j;
+                }
+            }
+        }
+        return nearest;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+/**
+ * How the colonies share their trails, on their exchange schedule besides the best tours. The
+ * exchanged bytes are counted for each way, the tours ones too.
+ * @see ColonyRunResult#getExchangedBytes()
+ */
+public enum PheromoneSharing {
+    /** Only the best tours, the baseline. */
+    NONE,
+    /** The colony trails move towards the neighbours ones mean by the weight, O(n^2). */
+    WEIGHTED_MERGE,
+    /**
+     * The colonies common trails, read by each colony and written only where it's trails have
+     * moved away from them, the colony trails move towards the common ones by the weight.
+     * @see SharedTrails
+     */
+    SHARED_GLOBAL,
+    /**
+     * Each colony publishes it's strongest trails of each row, the colony trails of the
+     * neighbours published edges move towards them by the weight.
+     */
+    TOP_K_EDGES
+}
@@ -0,0 +1,233 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.colony.ant.TourTrailDelta;
+import benchmarks.ants.data.EdgeMatrix;
+import benchmarks.ants.data.IDistancesData;
+
+/**
+ * The colony pheromones trails with the lazy evaporation. The real trail is the stored value
+ * multiplied by the common scale, so the evaporation is a scale multiplication and a tour deposit
+ * is O(n) instead of the whole matrix pass. The stored values are rescaled back by the O(n^2) pass
+ * only when the scale becomes too small: the stored values powered by alpha stay 1e30 times the
+ * real ones at most, so for the alpha 1 and the evaporation 0.1 it is once per about 650
+ * evaporations.
+ * <p>
+ * The choice info is calculated from the stored values: the common scale does not change the ants
+ * choice proportions. The trails of a symmetric graph are kept in the symmetric layout, so a
+ * deposit on the (i, j) edge is the (j, i) one too.
+ * <p>
+ * Implementations differ in the way the concurrent updates are serialized, no deposit is lost by
+ * any of them. A deposit racing with an evaporation may be applied before or after it.
+ * @see PheromoneUpdateStrategy
+ * @see ChoiceInfoMatrix
+ * @see PheromonesApplier
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+abstract class PheromoneTrails implements Serializable {
+
+    private static final long serialVersionUID = -5406047839262981413L;
+    // the powered stored values to the real ones ratio, far enough from the float overflow
+    private static final double MAX_POWERED_RATIO = 1.0E30D;
+
+    @Nonnull
+    private final ChoiceInfoMatrix choiceInfo;
+    @Nonnegative
+    private final double evaporationMultiplier;
+    @Nonnegative
+    private final double minScale;
+    @Nonnull
+    private final AtomicLong scaleBits = new AtomicLong(Double.doubleToLongBits(1.0D));
+
+    /**
+     * @param stored - the empty trails matrix, filled with the initial trail here.
+     */
+    PheromoneTrails(AntsSettings settings, CachedRawEdgeQualities qualities, EdgeMatrix stored) {
+        stored.fill(settings.getInitialTrail());
+        evaporationMultiplier = 1.0D - settings.getEvaporationCoefficient();
+        minScale = Math.pow(MAX_POWERED_RATIO, -1.0D / Math.max(settings.getAlpha(), 1.0D));
+        choiceInfo = new ChoiceInfoMatrix(qualities, settings.getAlpha(), stored);
+    }
+
+    @Nonnull
+    static PheromoneTrails create(AntsSettings settings, CachedRawEdgeQualities qualities) {
+        switch (settings.getPheromoneUpdateStrategy()) {
+            case STRIPED_LOCKS:
+                return new StripedPheromoneTrails(settings, qualities);
+            case CAS:
+                return new AtomicPheromoneTrails(settings, qualities);
+            case DELTA_BUFFERS:
+                return new BufferedPheromoneTrails(settings, qualities);
+            case GLOBAL_LOCK:
+            default:
+                return new LockedPheromoneTrails(settings, qualities);
+        }
+    }
+
+    /**
+     * Evaporates all the trails, then sprays the tour delta, O(n) besides the rare rescaling.
+     */
+    final void evaporateAndDeposit(TourTrailDelta delta) {
+        update(delta, true);
+    }
+
+    /**
+     * Evaporates all the trails once, then sprays all the deltas, an iteration update. Nothing
+     * happens for no deltas.
+     */
+    final void evaporateAndDeposit(List<TourTrailDelta> deltas) {
+        for (int i = 0; i < deltas.size(); i++) {
+            update(deltas.get(i), i == 0);
+        }
+    }
+
+    /**
+     * Sprays the tour delta, after the one more evaporation if asked.
+     */
+    abstract void update(TourTrailDelta delta, boolean evaporateFirst);
+
+    /**
+     * Moves the real (row, column) trail towards the target by the weight part of the distance,
+     * O(1).
+     */
+    abstract void blend(int row, int column, float weight, float target);
+
+    /**
+     * Replaces each real trail value by the transformed one, exclusively of all the other updates.
+     * A whole matrix pass, O(n^2).
+     */
+    abstract void transformAll(TrailTransformation transformation);
+
+    /**
+     * @return the real trail value, including the deposits made before the last {@link #flush()}.
+     */
+    abstract float getTrail(int row, int column);
+
+    /**
+     * Applies all the deposits accepted so far, if the implementation defers them.
+     */
+    void flush() {
+        // applied immediately by default
+    }
+
+    @Nonnegative
+    abstract int getSize();
+
+    @Nonnull
+    ChoiceInfoMatrix getChoiceInfo() {
+        return choiceInfo;
+    }
+
+    @Nonnull
+    static EdgeMatrix.Layout layoutOf(IDistancesData graph) {
+        return graph.isSymmetric() ? EdgeMatrix.Layout.SYMMETRIC : EdgeMatrix.Layout.SQUARE;
+    }
+
+    @Nonnegative
+    final double getScale() {
+        return Double.longBitsToDouble(scaleBits.get());
+    }
+
+    /**
+     * @return true if the scale became too small and the stored values should be rescaled.
+     */
+    final boolean evaporate() {
+        long expected;
+        double updated;
+        do {
+            expected = scaleBits.get();
+            updated = Double.longBitsToDouble(expected) * evaporationMultiplier;
+        } while (!scaleBits.compareAndSet(expected, Double.doubleToLongBits(updated)));
+        return updated < minScale;
+    }
+
+    final boolean isRescaleNeeded() {
+        return getScale() < minScale;
+    }
+
+    /**
+     * Moves the scale into the stored values, the caller must exclude all the deposits.
+     */
+    @SuppressWarnings("NumericCastThatLosesPrecision")
+    final void rescale(EdgeMatrix stored) {
+        final float applied = (float) getScale();
+        stored.multiplyAll(applied);
+        // concurrent evaporations are kept, only the applied part is removed
+        long expected;
+        double updated;
+        do {
+            expected = scaleBits.get();
+            updated = Double.longBitsToDouble(expected) / applied;
+        } while (!scaleBits.compareAndSet(expected, Double.doubleToLongBits(updated)));
+        choiceInfo.refreshAll(stored);
+    }
+
+    /**
+     * The {@link #transformAll(TrailTransformation)} pass, the caller must exclude all the other
+     * updates. Only the changed cells choices are refreshed.
+     */
+    @SuppressWarnings({"FloatingPointEquality", "NumericCastThatLosesPrecision"})
+    final void transformAll(EdgeMatrix stored, TrailTransformation transformation) {
+        final double scale = getScale();
+        final int size = stored.getSize();
+        for (int i = 0; i < size; i++) {
+            final int columns = stored.isSymmetric() ? (i + 1) : size;
+            for (int j = 0; j < columns; j++) {
+                final float real = (float) (stored.get(i, j) * scale);
+                final float transformed = transformation.apply(real);
+                if (transformed != real) {
+                    final float updated = (float) (transformed / scale);
+                    stored.set(i, j, updated);
+                    choiceInfo.refreshCell(i, j, updated);
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("NumericCastThatLosesPrecision")
+    final float toStored(float delta) {
+        return (float) (delta / getScale());
+    }
+
+    @SuppressWarnings("NumericCastThatLosesPrecision")
+    final float toReal(float stored) {
+        return (float) (stored * getScale());
+    }
+
+    /**
+     * The real trail value rule of a whole matrix pass.
+     */
+    @FunctionalInterface
+    interface TrailTransformation {
+
+        float apply(float trail);
+    }
+}
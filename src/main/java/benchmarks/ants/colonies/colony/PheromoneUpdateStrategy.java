@@ -0,0 +1,37 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+/**
+ * How the concurrent ants deposits and the evaporation are applied to the colony trails.
+ * @see PheromoneTrails
+ */
+public enum PheromoneUpdateStrategy {
+    /** One colony monitor for the whole update, the baseline. */
+    GLOBAL_LOCK,
+    /** Each cell is updated under the lock of it's row stripe. */
+    STRIPED_LOCKS,
+    /** Each cell is updated by the compare and set loop over the float bits. */
+    CAS,
+    /**
+     * Each thread appends it's deltas to it's own buffer, a single updater at a time merges all
+     * the buffers into the trails.
+     */
+    DELTA_BUFFERS
+}
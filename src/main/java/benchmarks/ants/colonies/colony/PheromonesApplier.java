@@ -18,35 +18,32 @@
 
 package benchmarks.ants.colonies.colony;
 
+import java.util.List;
+
 import javax.annotation.ParametersAreNonnullByDefault;
 
-import benchmarks.ants.colonies.AntsSettings;
 import benchmarks.ants.colonies.colony.ant.AntRunResult;
+import benchmarks.ants.colonies.colony.ant.TourTrailDelta;
 
 /**
  * Class apply pheromone trails changes according to the ant's run results.
+ * The evaporation is lazy, so one ant's deposit costs O(n).
  * @author Sergey Pomelov on 04/05/2016.
  */
-@SuppressWarnings("StaticMethodOnlyUsedInOneClass")
 @ParametersAreNonnullByDefault
 final class PheromonesApplier {
 
     private PheromonesApplier() { /* package local utility class*/ }
 
-    static void applyPheromones(AntRunResult runResult, AntsSettings settings,
-                                float[][] trailsToChange) {
-        final int trailLength = trailsToChange.length;
-        final float evaporationMultiplier = (1.0F - settings.getEvaporationCoefficient());
-        for (int i = 0; i < trailLength; i++) {
-            final float passedVertexPheromonesDelta = runResult.getPheromonesDelta().getDelta(i);
-            final int passedVertexPheromonesRowIdx =
-                    runResult.getPheromonesDelta().getDeltaColumnIdx(i);
-            for (int j = 0; j < trailLength; j++) {
-                trailsToChange[i][j] *= evaporationMultiplier;
-                if (passedVertexPheromonesRowIdx == j) {
-                    trailsToChange[i][j] += passedVertexPheromonesDelta;
-                }
-            }
-        }
+    static void applyPheromones(AntRunResult runResult, PheromoneTrails trailsToChange) {
+        trailsToChange.evaporateAndDeposit(runResult.getPheromonesDelta());
+    }
+
+    /**
+     * One evaporation for the whole iteration, then all the ants deposits.
+     */
+    static void applyIterationPheromones(List<TourTrailDelta> deltas,
+                                         PheromoneTrails trailsToChange) {
+        trailsToChange.evaporateAndDeposit(deltas);
     }
 }
@@ -0,0 +1,225 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import benchmarks.ants.colonies.AntsSettings;
+import util.ConversionUtil;
+
+/**
+ * The colony trails sharing of the {@link PheromoneSharing} mode, on the colony exchange
+ * schedule. The neighbours trails are read directly, only the in process colonies share them.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+final class PheromonesExchangeModule implements Serializable {
+
+    private static final long serialVersionUID = 3620486913702425166L;
+
+    @Nonnull
+    private final PheromoneSharing sharing;
+    @Nonnegative
+    private final float weight;
+    @Nonnegative
+    private final int topEdges;
+    private final boolean symmetric;
+    @Nonnull
+    private final AtomicLong exchangedBytes = new AtomicLong();
+    @Nonnull
+    private List<AntsColony> neighbours = Collections.emptyList();
+    @Nullable
+    private volatile SharedTrails shared;
+    @Nullable
+    private volatile TopEdges published; // the own strongest trails for the neighbours
+
+    PheromonesExchangeModule(AntsSettings settings) {
+        sharing = settings.getPheromoneSharing();
+        weight = settings.getPheromoneSharingWeight();
+        topEdges = settings.getPheromoneSharingTopEdges();
+        symmetric = settings.getGraph().isSymmetric();
+    }
+
+    void setNeighbours(IAntsColony owner,
+                       Collection<? extends ISolutionsReceiver> neighboursToAdd) {
+        neighbours = ConversionUtil.nullFilter(neighboursToAdd).stream()
+                .filter(colony -> !Objects.equals(colony, owner))
+                .filter(AntsColony.class::isInstance)
+                .map(AntsColony.class::cast)
+                .collect(Collectors.toList());
+    }
+
+    void setShared(SharedTrails shared) {
+        this.shared = shared;
+    }
+
+    /**
+     * The colony own periodic operation, one at a time.
+     */
+    void exchange(PheromoneTrails own) {
+        switch (sharing) {
+            case WEIGHTED_MERGE:
+                merge(own);
+                break;
+            case SHARED_GLOBAL:
+                final SharedTrails common = shared;
+                if (common != null) {
+                    exchangedBytes.addAndGet(common.synchronize(own, weight));
+                }
+                break;
+            case TOP_K_EDGES:
+                published = TopEdges.of(own, topEdges, symmetric);
+                for (final AntsColony neighbour : neighbours) {
+                    final TopEdges edges = neighbour.getPheromonesExchange().published;
+                    if (edges != null) {
+                        edges.blendInto(own, weight);
+                        exchangedBytes.addAndGet(edges.bytes());
+                    }
+                }
+                break;
+            case NONE:
+            default:
+        }
+    }
+
+    @Nonnegative
+    long getExchangedBytes() {
+        return exchangedBytes.get();
+    }
+
+    private void merge(PheromoneTrails own) {
+        if (neighbours.isEmpty()) {
+            return;
+        }
+        final int size = own.getSize();
+        for (int i = 0; i < size; i++) {
+            final int columns = symmetric ? i : size;
+            for (int j = 0; j < columns; j++) {
+                if (i != j) {
+                    float sum = 0.0F;
+                    for (int n = 0; n < neighbours.size(); n++) {
+                        sum += neighbours.get(n).getTrails().getTrail(i, j);
+                    }
+                    own.blend(i, j, weight, sum / neighbours.size());
+                }
+            }
+        }
+        final long cells = symmetric ? (((long) size * (size - 1)) / 2L)
+                : ((long) size * (size - 1));
+        exchangedBytes.addAndGet(cells * neighbours.size() * Float.BYTES);
+    }
+
+    /**
+     * The strongest trails of each row, the columns and the real values.
+     */
+    @Immutable
+    private static final class TopEdges {
+
+        @Nonnull
+        private final int[] columns; // [row * k + i], -1 for no edge
+        @Nonnull
+        private final float[] trails;
+        @Nonnegative
+        private final int k;
+        private final boolean symmetric; // the (i, j) edge is the (j, i) one
+
+        private TopEdges(int[] columns, float[] trails, @Nonnegative int k, boolean symmetric) {
+            this.columns = columns;
+            this.trails = trails;
+            this.k = k;
+            this.symmetric = symmetric;
+        }
+
+        /**
+         * A row pass keeps the k strongest by the insertion, O(n^2 k) at most.
+         */
+        @Nonnull
+        static TopEdges of(PheromoneTrails own, @Nonnegative int k, boolean symmetric) {
+            final int size = own.getSize();
+            final int[] columns = new int[size * k];
+            final float[] trails = new float[size * k];
+            Arrays.fill(columns, -1);
+            for (int i = 0; i < size; i++) {
+                final int from = i * k;
+                for (int j = 0; j < size; j++) {
+                    if (i == j) {
+                        continue;
+                    }
+                    final float trail = own.getTrail(i, j);
+                    int position = from + k;
+                    while ((position > from) && ((columns[position - 1] < 0)
+                            || (trails[position - 1] < trail))) {
+                        position--;
+                    }
+                    if (position < (from + k)) {
+                        System.arraycopy(columns, position, columns, position + 1,
+                                (from + k) - position - 1);
+                        System.arraycopy(trails, position, trails, position + 1,
+                                (from + k) - position - 1);
+                        columns[position] = j;
+                        trails[position] = trail;
+                    }
+                }
+            }
+            return new TopEdges(columns, trails, k, symmetric);
+        }
+
+        void blendInto(PheromoneTrails own, float weight) {
+            for (int cell = 0; cell < columns.length; cell++) {
+                final int row = cell / k;
+                final int column = columns[cell];
+                // a symmetric edge strong for both it's ends is blended once
+                if ((column >= 0) && !(symmetric && (column < row) && isTop(column, row))) {
+                    own.blend(row, column, weight, trails[cell]);
+                }
+            }
+        }
+
+        private boolean isTop(int row, int column) {
+            for (int cell = row * k; cell < ((row + 1) * k); cell++) {
+                if (columns[cell] == column) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return the column and the trail of each edge.
+         */
+        @Nonnegative
+        long bytes() {
+            return (long) columns.length * (Integer.BYTES + Float.BYTES);
+        }
+    }
+}
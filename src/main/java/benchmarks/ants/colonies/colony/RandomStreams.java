@@ -0,0 +1,51 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package benchmarks.ants.colonies.colony;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import benchmarks.ants.colonies.colony.ant.AntRandom;
+
+/**
+ * Where the ants random choices come from. Each ant run takes it's own stream: of the colony
+ * iteration and the ant index in the {@link ColonyEngine#ITERATIONS} engine, of the colony
+ * worker thread and it's run index in the {@link ColonyEngine#CONTINUOUS} one.
+ */
+public enum RandomStreams {
+    /** The runs are seeded by the {@link ThreadLocalRandom}, not reproducible. */
+    THREAD_LOCAL,
+    /**
+     * The runs streams are split off the settings seed, so the same seed gives the same tours.
+     * Fully in the iterations engine with the steps trail update off, the ant threads amount
+     * aside. The continuous one gives the same streams for the same threads amount, the
+     * pheromones they read depend on the threads timings still.
+     */
+    SEEDED;
+
+    /**
+     * @param stream - the seed of the runs stream.
+     * @param run - the run index in the stream.
+     * @return the run random seed.
+     */
+    public long runSeed(long stream, long run) {
+        return (this == SEEDED) ? AntRandom.split(stream, run) :
+                ThreadLocalRandom.current().nextLong();
+    }
+}
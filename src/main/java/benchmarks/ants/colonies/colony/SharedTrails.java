@@ -0,0 +1,109 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import java.io.Serializable;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.data.EdgeMatrix;
+import util.Restrictions;
+
+/**
+ * The colonies common trails of the {@link PheromoneSharing#SHARED_GLOBAL}, the mean of their
+ * trails. Read whole by each colony at it's exchange, written only where the colony trails moved
+ * away from them by more than a tenth, by the colony share of the difference. The rows are locked
+ * one by one, so the colonies exchanges run concurrently on the different rows.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public final class SharedTrails implements Serializable {
+
+    private static final long serialVersionUID = -2620935236184211046L;
+    private static final float WRITE_THRESHOLD = 0.1F;
+    private static final int STRIPES_PER_PROCESSOR = 4;
+
+    @Nonnull
+    private final EdgeMatrix trails;
+    @Nonnull
+    private final Lock[] stripes;
+    private final int stripesMask;
+    @Nonnegative
+    private final int colonies;
+
+    /**
+     * @param colonies - the colonies sharing the trails.
+     */
+    public SharedTrails(AntsSettings settings, @Nonnegative int colonies) {
+        Restrictions.ifNotOnlyPositivesFastFail(colonies);
+        trails = EdgeMatrix.create(settings.getGraph().getSize(),
+                PheromoneTrails.layoutOf(settings.getGraph()), settings.getMatricesBacking());
+        trails.fill(settings.getInitialTrail());
+        this.colonies = Math.max(colonies, 1);
+        final int desired = Math.min(trails.getSize(),
+                STRIPES_PER_PROCESSOR * Runtime.getRuntime().availableProcessors());
+        final int stripesAmount = Integer.highestOneBit(Math.max(desired, 1));
+        stripesMask = stripesAmount - 1;
+        stripes = new Lock[stripesAmount];
+        for (int i = 0; i < stripesAmount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Writes the colony trails differences, then moves the colony trails towards the common ones
+     * by the weight, O(n^2).
+     * @return the bytes exchanged: the read values and the written ones with their indexes.
+     */
+    @Nonnegative
+    long synchronize(PheromoneTrails own, float weight) {
+        final int size = trails.getSize();
+        long read = 0L;
+        long written = 0L;
+        for (int i = 0; i < size; i++) {
+            final int columns = trails.isSymmetric() ? i : size;
+            final Lock stripe = stripes[i & stripesMask];
+            stripe.lock();
+            try {
+                for (int j = 0; j < columns; j++) {
+                    if (i != j) {
+                        float common = trails.get(i, j);
+                        final float difference = own.getTrail(i, j) - common;
+                        if (Math.abs(difference) > (WRITE_THRESHOLD * common)) {
+                            common += difference / colonies;
+                            trails.set(i, j, common);
+                            written++;
+                        }
+                        read++;
+                        own.blend(i, j, weight, common);
+                    }
+                }
+            } finally {
+                stripe.unlock();
+            }
+        }
+        return (read * Float.BYTES) + (written * (Integer.BYTES + Float.BYTES));
+    }
+}
@@ -33,7 +33,6 @@ import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.annotation.concurrent.ThreadSafe;
 
-import benchmarks.ants.colonies.AntsSettings;
 import benchmarks.ants.colonies.colony.ant.AntRunResult;
 import util.ConversionUtil;
 
@@ -48,16 +47,23 @@ final class SolutionsExchangeModule implements Serializable {
 
     @Nonnull
     private final AtomicBoolean gotNewSolution = new AtomicBoolean(true);
-    @Nonnegative
-    private final AtomicLong lastSendDataNanos = new AtomicLong(System.nanoTime());
     @Nonnull
-    private List<IAntsColony> neighbours = Collections.emptyList();
+    private final AtomicLong sentBytes = new AtomicLong();
+    @Nonnull
+    private List<ISolutionsReceiver> neighbours = Collections.emptyList();
+    @Nonnull
+    private int[] senderSlots = new int[0]; // the own slot in each neighbour inbox
 
     SolutionsExchangeModule() {
     }
 
-    void sendSolutionsIfNeed(AntsStatistics statistics, AntsSettings settings) {
-        if (isTimeToSendSolution(settings)) {
+    /**
+     * Sends the best solution if it has changed since the last sending, the caller schedules the
+     * calls with the exchange period.
+     */
+    void sendSolutionsIfNeed(AntsStatistics statistics) {
+        // the flag is reset before the best run read, so a newer best is sent next time
+        if (gotNewSolution.compareAndSet(true, false)) {
             final Optional<AntRunResult> bestRun = statistics.getBestRun();
             if (bestRun.isPresent()) {
                 sendSolutions(bestRun.get());
@@ -65,30 +71,33 @@ final class SolutionsExchangeModule implements Serializable {
         }
     }
 
-    private boolean isTimeToSendSolution(AntsSettings settings) {
-        return gotNewSolution.get() &&
-                ((lastSendDataNanos.longValue() + settings.getExchangeNanos()) <
-                        System.nanoTime());
-    }
-
     private void sendSolutions(AntRunResult antRunResult) {
-        if (gotNewSolution.compareAndSet(true, false)) {
-            neighbours.forEach(neighbour -> neighbour.receiveSolution(antRunResult));
-            lastSendDataNanos.set(System.nanoTime());
+        for (int i = 0; i < neighbours.size(); i++) {
+            neighbours.get(i).receiveSolution(antRunResult, senderSlots[i]);
         }
+        // the length and the vertexes, as if sent by value
+        sentBytes.addAndGet(neighbours.size()
+                * (Long.BYTES + ((long) antRunResult.getTour().length * Integer.BYTES)));
     }
 
     void gotNewSolution() {
         gotNewSolution.set(true);
     }
 
-    void setNeighbours(@Nonnull IAntsColony owner, Collection<IAntsColony> neighboursToAdd) {
+    void setNeighbours(@Nonnull IAntsColony owner,
+                       Collection<? extends ISolutionsReceiver> neighboursToAdd) {
         neighbours = ConversionUtil.nullFilter(neighboursToAdd).stream()
                 .filter(colony -> !Objects.equals(colony, owner))
                 .collect(Collectors.toList());
+        senderSlots = neighbours.stream().mapToInt(ISolutionsReceiver::addSender).toArray();
     }
 
     int neighboursAmount() {
         return neighbours.size();
     }
+
+    @Nonnegative
+    long getSentBytes() {
+        return sentBytes.get();
+    }
 }
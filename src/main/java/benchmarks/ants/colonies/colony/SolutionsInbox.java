@@ -0,0 +1,96 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package benchmarks.ants.colonies.colony;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+
+/**
+ * The colony bounded inbox of the neighbours solutions: a slot per sender keeping only it's best
+ * pending solution, so the newer and the worse ones are coalesced by the sender CAS. The offer is
+ * lock free and never waits for the receiver, the owner drains at it's own pace.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+final class SolutionsInbox implements Serializable {
+
+    private static final long serialVersionUID = -2291452263683796335L;
+
+    @Nonnull
+    private volatile AtomicReferenceArray<AntRunResult> slots = new AtomicReferenceArray<>(0);
+    @Nonnull
+    private final AtomicBoolean pending = new AtomicBoolean(false);
+
+    /**
+     * Called while the colonies are wired, before they run.
+     * @return the new sender slot.
+     */
+    @Nonnegative
+    synchronized int addSender() {
+        final AtomicReferenceArray<AntRunResult> current = slots;
+        final AtomicReferenceArray<AntRunResult> grown =
+                new AtomicReferenceArray<>(current.length() + 1);
+        for (int i = 0; i < current.length(); i++) {
+            grown.set(i, current.get(i));
+        }
+        slots = grown;
+        return current.length();
+    }
+
+    /**
+     * @param solution - owns it's arrays, the slot keeps the shorter of it and the pending one.
+     */
+    void offer(@Nonnegative int slot, AntRunResult solution) {
+        final AtomicReferenceArray<AntRunResult> current = slots;
+        AntRunResult pendingOne;
+        do {
+            pendingOne = current.get(slot);
+            if ((pendingOne != null) && (pendingOne.getLength() <= solution.getLength())) {
+                return;
+            }
+        } while (!current.compareAndSet(slot, pendingOne, solution));
+        pending.set(true);
+    }
+
+    /**
+     * The owner colony only, takes each pending solution once.
+     */
+    void drain(Consumer<AntRunResult> receiver) {
+        // cleared first, so an offer racing with the drain is taken by the next one
+        if (pending.getAndSet(false)) {
+            final AtomicReferenceArray<AntRunResult> current = slots;
+            for (int i = 0; i < current.length(); i++) {
+                final AntRunResult solution = current.getAndSet(i, null);
+                if (solution != null) {
+                    receiver.accept(solution);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.colony.ant.TourTrailDelta;
+import benchmarks.ants.data.EdgeMatrix;
+
+/**
+ * The trails rows are spread over a fixed set of locks, the ants depositing on different rows do
+ * not wait for each other. The rare rescaling takes all the stripes in order.
+ * @see PheromoneUpdateStrategy#STRIPED_LOCKS
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+final class StripedPheromoneTrails extends PheromoneTrails {
+
+    private static final long serialVersionUID = -3357312318427468407L;
+    private static final int STRIPES_PER_PROCESSOR = 4;
+
+    @Nonnull
+    private final EdgeMatrix stored;
+    @Nonnull
+    private final Lock[] stripes;
+    private final int stripesMask;
+
+    StripedPheromoneTrails(AntsSettings settings, CachedRawEdgeQualities qualities) {
+        this(settings, qualities, EdgeMatrix.create(settings.getGraph().getSize(),
+                layoutOf(settings.getGraph()), settings.getMatricesBacking()));
+    }
+
+    private StripedPheromoneTrails(AntsSettings settings, CachedRawEdgeQualities qualities,
+                                   EdgeMatrix stored) {
+        super(settings, qualities, stored);
+        this.stored = stored;
+        final int desired = Math.min(stored.getSize(),
+                STRIPES_PER_PROCESSOR * Runtime.getRuntime().availableProcessors());
+        final int stripesAmount = Integer.highestOneBit(Math.max(desired, 1));
+        stripesMask = stripesAmount - 1;
+        stripes = new Lock[stripesAmount];
+        for (int i = 0; i < stripesAmount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    void update(TourTrailDelta delta, boolean evaporateFirst) {
+        if (evaporateFirst && evaporate()) {
+            rescaleExclusively();
+        }
+        final int size = stored.getSize();
+        for (int i = 0; i < size; i++) {
+            final int column = delta.getDeltaColumnIdx(i);
+            final Lock stripe = stripeOf(i, column);
+            stripe.lock();
+            try {
+                // read under the stripe, the rescaling can't change it meanwhile
+                stored.add(i, column, toStored(delta.getDelta(i)));
+                getChoiceInfo().refreshCell(i, column, stored.get(i, column));
+            } finally {
+                stripe.unlock();
+            }
+        }
+    }
+
+    @Override
+    void blend(int row, int column, float weight, float target) {
+        final Lock stripe = stripeOf(row, column);
+        stripe.lock();
+        try {
+            final float current = stored.get(row, column);
+            final float updated = current + (weight * (toStored(target) - current));
+            stored.set(row, column, updated);
+            getChoiceInfo().refreshCell(row, column, updated);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    @Override
+    void transformAll(TrailTransformation transformation) {
+        runExclusively(() -> transformAll(stored, transformation));
+    }
+
+    @Override
+    float getTrail(int row, int column) {
+        final Lock stripe = stripeOf(row, column);
+        stripe.lock();
+        try {
+            return toReal(stored.get(row, column));
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    @Nonnegative
+    @Override
+    int getSize() {
+        return stored.getSize();
+    }
+
+    private void rescaleExclusively() {
+        runExclusively(() -> {
+            if (isRescaleNeeded()) {
+                rescale(stored);
+            }
+        });
+    }
+
+    private void runExclusively(Runnable operation) {
+        for (final Lock stripe : stripes) {
+            stripe.lock();
+        }
+        try {
+            operation.run();
+        } finally {
+            for (final Lock stripe : stripes) {
+                stripe.unlock();
+            }
+        }
+    }
+
+    // the symmetric (i, j) and (j, i) is the one cell, so the one stripe
+    @Nonnull
+    private Lock stripeOf(int row, int column) {
+        final int cellRow = stored.isSymmetric() ? Math.max(row, column) : row;
+        return stripes[cellRow & stripesMask];
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package benchmarks.ants.colonies.colony.ant;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * The SplitMix64 generator of the {@link java.util.SplittableRandom}, but reseeded in place, so
+ * an ant run takes it's own stream with no allocation. Owned by one thread, no contention.
+ * @see benchmarks.ants.colonies.colony.RandomStreams
+ */
+@NotThreadSafe
+public final class AntRandom {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final float FLOAT_UNIT = 0x1.0p-24F;
+
+    private long state;
+
+    AntRandom(long seed) {
+        state = seed;
+    }
+
+    /**
+     * @return the seed of the index stream of the seed one, the streams of the distinct indexes
+     * are independent.
+     */
+    public static long split(long seed, long index) {
+        return mix64(seed + ((index + 1L) * GOLDEN_GAMMA));
+    }
+
+    void reseed(long seed) {
+        state = seed;
+    }
+
+    /**
+     * @return in [0, 1).
+     */
+    float nextFloat() {
+        return (nextLong() >>> 40) * FLOAT_UNIT;
+    }
+
+    /**
+     * The multiply shift range reduction, the bias is below the bound / 2^32.
+     * @return in [0, bound).
+     */
+    @Nonnegative
+    int nextInt(@Nonnegative int bound) {
+        //noinspection NumericCastThatLosesPrecision - below the bound
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    private long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+
+    private static long mix64(long seed) {
+        long z = (seed ^ (seed >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
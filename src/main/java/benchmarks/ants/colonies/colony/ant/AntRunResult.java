@@ -51,6 +51,19 @@ public final class AntRunResult {
         this.journal = journal;
     }
 
+    /**
+     * @param tour - the successful cycle built outside of an ant, as an improved one, it is kept.
+     * @return the result with the tour pheromones delta.
+     */
+    @Nonnull
+    public static AntRunResult ofTour(int[] tour, @Nonnegative long length,
+                                      PerformanceMeasurer performanceMeasurer) {
+        final PheromonesTrailGenerator trailSpray = new PheromonesTrailGenerator(tour.length);
+        trailSpray.generateTrailPheromonesDelta(tour, 1.0F / length);
+        return new AntRunResult(new TourData(true, tour, length),
+                trailSpray.getTrailsPheromonesDelta(), performanceMeasurer, "");
+    }
+
     public boolean isSuccess() {
         return tourData.isSuccess();
     }
@@ -80,4 +93,16 @@ public final class AntRunResult {
     public PerformanceMeasurer getPerformanceMeasurer() {
         return performanceMeasurer;
     }
+
+    /**
+     * The tour and the delta of a just finished run are the ant workspace arrays, reused by the
+     * next run of the same thread. Any result kept longer than that must be snapshotted.
+     * @return the result with own copies of the arrays.
+     * @see AntWorkspace
+     */
+    @Nonnull
+    public AntRunResult snapshot() {
+        return new AntRunResult(tourData.copy(), pheromonesDelta.copy(), performanceMeasurer,
+                journal);
+    }
 }
@@ -0,0 +1,131 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony.ant;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import benchmarks.ants.colonies.colony.CachedRawEdgeQualities;
+import benchmarks.ants.colonies.colony.ChoiceInfoMatrix;
+import benchmarks.ants.colonies.colony.RandomStreams;
+import benchmarks.ants.data.IDistancesData;
+import benchmarks.ants.localsearch.TourLocalSearch;
+
+/**
+ * Reusable arrays and delegates of one ant, intended to be kept per worker thread and reset
+ * between the tours, so the tour construction allocates nothing.
+ * @see RunningAnt
+ */
+@NotThreadSafe
+@ParametersAreNonnullByDefault
+public final class AntWorkspace {
+
+    @Nonnull
+    private final IDistancesData graph;
+    @Nonnull
+    private final TourBuilder tourBuilder;
+    @Nonnull
+    private final PheromonesTrailGenerator trailSpray;
+    @Nullable
+    private final TourLocalSearch localSearch;
+    @Nonnull
+    private final AntRandom random;
+    private final long stream;
+    @Nonnegative
+    private long runs = 0L;
+
+    public AntWorkspace(IDistancesData graph, CachedRawEdgeQualities cachedRawEdgeQualities) {
+        this(graph, cachedRawEdgeQualities, 0.0F, null,
+                ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * @param exploitation - the Ant Colony System q0, the probability to go the best weighted
+     *                     edge instead of the random proportional choice.
+     * @param localSearch - improves each tour before it's pheromones delta, if any.
+     * @param stream - the seed of this workspace runs stream.
+     */
+    public AntWorkspace(IDistancesData graph, CachedRawEdgeQualities cachedRawEdgeQualities,
+                        @Nonnegative float exploitation,
+                        @Nullable TourLocalSearch localSearch, long stream) {
+        this.graph = graph;
+        this.localSearch = localSearch;
+        this.stream = stream;
+        random = new AntRandom(stream);
+        tourBuilder = new TourBuilder(graph, cachedRawEdgeQualities, exploitation, random);
+        trailSpray = new PheromonesTrailGenerator(graph.getSize());
+    }
+
+    /**
+     * Seeds the next run by it's index in this workspace stream.
+     */
+    public void seedNextRun(RandomStreams streams) {
+        random.reseed(streams.runSeed(stream, runs));
+        runs++;
+    }
+
+    /**
+     * @param seed - the next run own seed, whatever workspace runs it.
+     */
+    public void seedRun(long seed) {
+        random.reseed(seed);
+    }
+
+    /**
+     * Builds a new tour over the workspace arrays, the previous one is overwritten.
+     * @return the cycle length or {@code Long.MAX_VALUE} if no tour had been found.
+     */
+    public long buildTour(ChoiceInfoMatrix choiceInfo) {
+        return tourBuilder.buildTour(choiceInfo.getChoices(), null);
+    }
+
+    /**
+     * @return the last built tour, it is overwritten by the next build.
+     */
+    @SuppressWarnings("ReturnOfCollectionOrArrayField") // reused by design
+    @Nonnull
+    public int[] getTour() {
+        return tourBuilder.getTour();
+    }
+
+    @Nonnull
+    IDistancesData getGraph() {
+        return graph;
+    }
+
+    @Nonnull
+    TourBuilder getTourBuilder() {
+        return tourBuilder;
+    }
+
+    @Nullable
+    TourLocalSearch getLocalSearch() {
+        return localSearch;
+    }
+
+    @Nonnull
+    PheromonesTrailGenerator getTrailSpray() {
+        return trailSpray;
+    }
+}
@@ -36,22 +36,30 @@ import static util.Restrictions.ifNullFail;
 @ParametersAreNonnullByDefault
 final class PheromonesTrailGenerator {
 
+    @Nonnull
+    private final Builder builder; // reused between the tours
     private TourTrailDelta trailsPheromonesDelta = null;
 
-    PheromonesTrailGenerator() { /* package-local utility class */ }
+    PheromonesTrailGenerator(@Nonnegative int size) {
+        builder = new Builder(size);
+    }
+
+    void reset() {
+        trailsPheromonesDelta = null;
+    }
 
-    @Nonnull
     void generateTrailPheromonesDelta(int[] tour, @Nonnegative float amount) {
-        final Builder builder = new Builder(tour.length);
-        int from = tour[0];
+        int previous = tour[tour.length - 1]; // the closing edge first
         for (final int vertex : tour) { // iterates through the tour
-            final int destination = from;
-            from = vertex;
-            builder.add(from, destination, amount); // spraying the trail delta
+            builder.add(previous, vertex, amount); // spraying the trail delta, as it was walked
+            previous = vertex;
         }
         trailsPheromonesDelta = builder.build();
     }
 
+    /**
+     * @return the last generated delta, it's arrays are overwritten by the next generation.
+     */
     @Nonnull
     TourTrailDelta getTrailsPheromonesDelta() {
         //noinspection ReturnOfCollectionOrArrayField, while it used package-local it's ok.
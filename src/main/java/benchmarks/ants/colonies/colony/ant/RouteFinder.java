@@ -18,15 +18,14 @@
 
 package benchmarks.ants.colonies.colony.ant;
 
-import java.util.Optional;
-import java.util.concurrent.ThreadLocalRandom;
-
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import benchmarks.ants.colonies.colony.CachedRawEdgeQualities;
+import benchmarks.ants.colonies.colony.NeighboursLists;
 import benchmarks.ants.data.IDistancesData;
 
 /**
@@ -39,58 +38,144 @@ import benchmarks.ants.data.IDistancesData;
 @ParametersAreNonnullByDefault
 final class RouteFinder {
 
-    private static final float MIN_VERTEX_QUALITY = Float.MIN_VALUE * 10.0E2F;
+    /** The sentinel of no vertex to go found. */
+    static final int NO_VERTEX = -1;
 
     private final int size;
-    private final float[][] edgeQualities;
+    @Nonnegative
+    private final float exploitation;
+    private final float[] weights; // reused between the steps
+    @Nullable
+    private final NeighboursLists neighboursLists;
+    @Nonnull
+    private final AntRandom random;
 
-    RouteFinder(IDistancesData data, CachedRawEdgeQualities cachedRawEdgeQualities) {
+    /**
+     * @param exploitation - the probability to go the best weighted edge instead of the random
+     *                     proportional choice, the Ant Colony System q0, 0 means never.
+     * @param random - the ant's choices source, reseeded for each run.
+     */
+    RouteFinder(IDistancesData data, CachedRawEdgeQualities cachedRawEdgeQualities,
+                @Nonnegative float exploitation, AntRandom random) {
         size = data.getSize();
-        edgeQualities = cachedRawEdgeQualities.getEdgesQualities();
+        this.random = random;
+        this.exploitation = exploitation;
+        weights = new float[size];
+        neighboursLists = cachedRawEdgeQualities.getNeighboursLists().orElse(null);
     }
 
+    /**
+     * Looks through the start vertex nearest neighbours first if the candidates lists are on, the
+     * whole row is scanned only when all of them are already visited.
+     * @param choices - the colony choice info, the flat square matrix of the edges weights.
+     * @return the index in the allowedVertexes or {@link #NO_VERTEX}.
+     */
     @SuppressWarnings("MethodCanBeVariableArityMethod") // by design
-    @Nonnull
-    @Nonnegative
-    Optional<Integer> findNextVertex(@Nonnegative int startVertex, float[][] trail,
-                                     boolean[] visited, int[] allowedVertexes) {
-        final float[] weights = new float[size];
+    int findNextVertex(@Nonnegative int startVertex, float[] choices,
+                       boolean[] visited, int[] allowedVertexes) {
+        final int rowOffset = startVertex * size;
+        if ((exploitation > 0.0F) && (random.nextFloat() < exploitation)) {
+            return findBest(startVertex, choices, rowOffset, visited, allowedVertexes);
+        }
+        if (neighboursLists != null) {
+            final int candidate = findAmongCandidates(startVertex, choices, rowOffset, visited,
+                    allowedVertexes);
+            if (candidate != NO_VERTEX) {
+                return candidate;
+            }
+        }
 
         int possibleVertexesToGo = 0;
         float totalWeight = 0;
         for (int j = 0; j < size; j++) {
             if (!visited[j]) {
-                final float vertexQuality =
-                        Math.max(edgeQualities[startVertex][j] * trail[startVertex][j],
-                                MIN_VERTEX_QUALITY);
-
-                totalWeight += vertexQuality;
+                totalWeight += choices[rowOffset + j];
                 weights[possibleVertexesToGo] = totalWeight;
                 allowedVertexes[possibleVertexesToGo] = j;
                 possibleVertexesToGo++;
             }
         }
+        return destination(totalWeight, possibleVertexesToGo);
+    }
+
+    /**
+     * The best weighted not visited candidate or, if all of them are visited, the best of the
+     * whole row. No cumulative weights are built, the result is the 0 allowed one.
+     */
+    @SuppressWarnings("MethodCanBeVariableArityMethod") // by design
+    private int findBest(int startVertex, float[] choices, int rowOffset, boolean[] visited,
+                         int[] allowedVertexes) {
+        int best = NO_VERTEX;
+        if (neighboursLists != null) {
+            best = findBestIn(neighboursLists.getNeighbours(startVertex), choices, rowOffset,
+                    visited);
+        }
+        if (best == NO_VERTEX) {
+            float bestWeight = -1.0F;
+            for (int j = 0; j < size; j++) {
+                if (!visited[j] && (choices[rowOffset + j] > bestWeight)) {
+                    bestWeight = choices[rowOffset + j];
+                    best = j;
+                }
+            }
+        }
+        if (best == NO_VERTEX) {
+            return NO_VERTEX;
+        }
+        allowedVertexes[0] = best;
+        return 0;
+    }
 
-        if (totalWeight == 0) {
-            totalWeight = 0;
+    @SuppressWarnings("MethodCanBeVariableArityMethod") // by design
+    private static int findBestIn(int[] candidates, float[] choices, int rowOffset,
+                                  boolean[] visited) {
+        int best = NO_VERTEX;
+        float bestWeight = -1.0F;
+        for (final int candidate : candidates) {
+            if (!visited[candidate] && (choices[rowOffset + candidate] > bestWeight)) {
+                bestWeight = choices[rowOffset + candidate];
+                best = candidate;
+            }
         }
-        return Optional.ofNullable((totalWeight == 0) ?
-                null : calculateDestination(totalWeight, possibleVertexesToGo, weights));
+        return best;
+    }
+
+    @SuppressWarnings("MethodCanBeVariableArityMethod") // by design
+    private int findAmongCandidates(int startVertex, float[] choices, int rowOffset,
+                                    boolean[] visited, int[] allowedVertexes) {
+        //noinspection ConstantConditions - checked by the caller
+        final int[] candidates = neighboursLists.getNeighbours(startVertex);
+        int possibleVertexesToGo = 0;
+        float totalWeight = 0;
+        for (final int candidate : candidates) {
+            if (!visited[candidate]) {
+                totalWeight += choices[rowOffset + candidate];
+                weights[possibleVertexesToGo] = totalWeight;
+                allowedVertexes[possibleVertexesToGo] = candidate;
+                possibleVertexesToGo++;
+            }
+        }
+        return destination(totalWeight, possibleVertexesToGo);
+    }
+
+    private int destination(float totalWeight, int possibleVertexesToGo) {
+        return (totalWeight == 0) ?
+                NO_VERTEX : calculateDestination(totalWeight, possibleVertexesToGo, weights);
     }
 
     @SuppressWarnings("MethodCanBeVariableArityMethod") // by design
-    private static int calculateDestination(float totalWeight, int possibleVertexesToGo,
-                                            float[] weights) {
+    private int calculateDestination(float totalWeight, int possibleVertexesToGo,
+                                     float[] weights) {
         final float pointer = generatePointer(totalWeight);
         for (int i = 0; i < possibleVertexesToGo; i++) {
             if (pointer <= weights[i]) {
                 return i;
             }
         }
-        return possibleVertexesToGo;
+        return possibleVertexesToGo - 1; // float sums rounding, the last allowed one
     }
 
-    private static float generatePointer(float totalWeight) {
-        return totalWeight * ThreadLocalRandom.current().nextFloat();
+    private float generatePointer(float totalWeight) {
+        return totalWeight * random.nextFloat();
     }
 }
@@ -25,12 +25,14 @@ import java.util.Optional;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.annotation.concurrent.Immutable;
 
 import benchmarks.ants.colonies.colony.AntsColony;
-import benchmarks.ants.colonies.colony.CachedRawEdgeQualities;
+import benchmarks.ants.colonies.colony.ChoiceInfoMatrix;
 import benchmarks.ants.data.IDistancesData;
+import benchmarks.ants.localsearch.TourLocalSearch;
 import benchmarks.metrics.PerformanceMeasurer;
 
 import static benchmarks.ants.colonies.colony.OutputFormat.printTour;
@@ -54,17 +56,38 @@ public final class RunningAnt {
     @Nonnull
     private final PheromonesTrailGenerator trailSpray;   // trail data and generation delegate
     @Nonnull
+    private final ChoiceInfoMatrix choiceInfo;
+    @Nullable
+    private final StepTrailUpdate stepUpdate;
+    @Nullable
+    private final TourLocalSearch localSearch;
+    @Nonnull
     private final PerformanceMeasurer performanceMeasurer = new PerformanceMeasurer();
     private final AntRunResult runResult;
 
     @Nonnegative
     private final long startMls = System.currentTimeMillis();
 
-    public RunningAnt(IDistancesData graph, CachedRawEdgeQualities cachedRawEdgeQualities,
-                      float[][] trails) {
-        this.graph = graph;
-        trailSpray = new PheromonesTrailGenerator();
-        tourBuilder = new TourBuilder(graph, cachedRawEdgeQualities, trails);
+    /**
+     * @param workspace - the reused arrays of the current thread, the result refers them.
+     * @param choiceInfo - the colony edges weights to choose the path by.
+     * @see AntRunResult#snapshot()
+     */
+    public RunningAnt(AntWorkspace workspace, ChoiceInfoMatrix choiceInfo) {
+        this(workspace, choiceInfo, null);
+    }
+
+    /**
+     * @param stepUpdate - the trail change on each step including the closing one, if any.
+     */
+    public RunningAnt(AntWorkspace workspace, ChoiceInfoMatrix choiceInfo,
+                      @Nullable StepTrailUpdate stepUpdate) {
+        graph = workspace.getGraph();
+        trailSpray = workspace.getTrailSpray();
+        tourBuilder = workspace.getTourBuilder();
+        localSearch = workspace.getLocalSearch();
+        this.choiceInfo = choiceInfo;
+        this.stepUpdate = stepUpdate;
 
         AntRunResult result = null;
         try {
@@ -90,16 +113,17 @@ public final class RunningAnt {
     @SuppressWarnings("FeatureEnvy")
     @Nonnull
     private AntRunResult runAnt() {
-        final TourData tourData = tourBuilder.buildUncycledTour();
-        final int[] tour = tourData.getTour();
+        trailSpray.reset();
+        final long cycleLength = tourBuilder.buildTour(choiceInfo.getChoices(), stepUpdate);
+        final int[] tour = tourBuilder.getTour();
 
         long finalTourLength = Long.MAX_VALUE;
-        boolean finalSuccess = tourData.isSuccess();
+        boolean finalSuccess = cycleLength != TourBuilder.NO_TOUR;
         if (finalSuccess) {
-            finalTourLength = tryToFinishCycle(tour, tourData.getLength());
+            finalTourLength = tryToFinishCycle(tour, cycleLength);
             finalSuccess = checkFinishedTourLength(finalTourLength);
         } else {
-            log.info("Ant not succeed. Result: {}. Tour: {}.", tourData.getLength(), tour);
+            log.info("Ant not succeed. Tour: {}.", tour);
         }
 
         final TourData finalTourData = new TourData(finalSuccess, tour, finalTourLength);
@@ -116,14 +140,23 @@ public final class RunningAnt {
     }
 
     @Nonnegative
-    private long tryToFinishCycle(int[] tour, long tourLength) {
+    private long tryToFinishCycle(int[] tour, long cycleLength) {
         final int start = tour[0];
         final int end = tour[tour.length - 1];
         final int lastPathLength = graph.getDist(end, start);
         if (lastPathLength < Integer.MAX_VALUE) {
-            final float chg = 1.0F / tourLength;
-            trailSpray.generateTrailPheromonesDelta(tour, chg);
-            return tourLength + lastPathLength; // returning to the start point length addition
+            if (stepUpdate != null) {
+                stepUpdate.onStep(end, start);
+            }
+            if (localSearch == null) {
+                trailSpray.generateTrailPheromonesDelta(tour, 1.0F / cycleLength);
+                return cycleLength;
+            }
+            final long[] improved = {cycleLength};
+            performanceMeasurer.measurePerformance(() ->
+                    improved[0] = localSearch.improve(tour, cycleLength), "localSearch");
+            trailSpray.generateTrailPheromonesDelta(tour, 1.0F / improved[0]);
+            return improved[0];
         } else {
             return Integer.MAX_VALUE;
         }
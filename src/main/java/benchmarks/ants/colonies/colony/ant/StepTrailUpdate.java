@@ -0,0 +1,33 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony.ant;
+
+/**
+ * The trail change made by an ant on each step of it's tour, as the Ant Colony System local
+ * update does.
+ * @see RunningAnt
+ */
+@FunctionalInterface
+public interface StepTrailUpdate {
+
+    /**
+     * Called right after the ant went the (from, to) edge.
+     */
+    void onStep(int from, int to);
+}
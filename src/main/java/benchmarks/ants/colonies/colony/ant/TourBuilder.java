@@ -18,11 +18,11 @@
 
 package benchmarks.ants.colonies.colony.ant;
 
-import java.util.Optional;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Arrays;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -37,6 +37,9 @@ import benchmarks.ants.data.IDistancesData;
 @ParametersAreNonnullByDefault
 final class TourBuilder {
 
+    /** The sentinel of a not found tour length. */
+    static final long NO_TOUR = Long.MAX_VALUE;
+
     @Nonnull
     private final IDistancesData graphMatrix;
     @Nonnull
@@ -48,46 +51,58 @@ final class TourBuilder {
     @Nonnull
     private final boolean[] visited;
     @Nonnull
-    private final float[][] trail;
+    private final AntRandom random;
 
     @Nonnegative
     private final int size;
 
+    /**
+     * @param exploitation - the Ant Colony System q0, 0 means the proportional choice only.
+     * @param random - the start vertex and the choices source, reseeded for each run.
+     */
     TourBuilder(IDistancesData graphMatrix, CachedRawEdgeQualities cachedRawEdgeQualities,
-                float[][] trail) {
+                @Nonnegative float exploitation, AntRandom random) {
         this.graphMatrix = graphMatrix;
-        this.trail = trail;
         size = graphMatrix.getSize();
         tour = new int[size];
         allowedVertexes = new int[size];
         visited = new boolean[size];
-        routeFinder = new RouteFinder(graphMatrix, cachedRawEdgeQualities);
-        initPheromones();
-    }
-
-    private void initPheromones() {
-        for (int i = 0; i < size; i++) {
-            visited[i] = false;
-        }
+        this.random = random;
+        routeFinder = new RouteFinder(graphMatrix, cachedRawEdgeQualities, exploitation, random);
     }
 
-    TourData buildUncycledTour() {
+    /**
+     * Builds a tour over the reused arrays, the previous tour is overwritten. The length is
+     * summed once over the built tour, not per step.
+     * @param choices - the colony choice info, the flat square matrix of the edges weights.
+     * @param stepUpdate - called on each step, but the closing one, if any.
+     * @return the cycle length including the closing edge or {@link #NO_TOUR}.
+     */
+    long buildTour(float[] choices, @Nullable StepTrailUpdate stepUpdate) {
+        Arrays.fill(visited, false);
         int currentVertex = selectStartVertex();
-        long tourLength = 0L;
-        boolean success = true;
-        for (int i = 1; (i < size) && success; i++) {
-            final Optional<Integer> destinationIndex = routeFinder.findNextVertex(currentVertex,
-                    trail, visited, allowedVertexes);
-            if (destinationIndex.isPresent()) {
-                final int dst = goToDestination(destinationIndex.get(), i);
-                tourLength += graphMatrix.getDist(currentVertex, dst);
-                currentVertex = dst;
-            } else {
-                tourLength = Integer.MAX_VALUE;
-                success = false;
+        for (int i = 1; i < size; i++) {
+            final int destinationIndex = routeFinder.findNextVertex(currentVertex,
+                    choices, visited, allowedVertexes);
+            if (destinationIndex == RouteFinder.NO_VERTEX) {
+                return NO_TOUR;
             }
+            final int dst = goToDestination(destinationIndex, i);
+            if (stepUpdate != null) {
+                stepUpdate.onStep(currentVertex, dst);
+            }
+            currentVertex = dst;
         }
-        return new TourData(success, tour, tourLength);
+        return graphMatrix.tourLength(tour);
+    }
+
+    /**
+     * @return the last built tour, it is overwritten by the next build.
+     */
+    @SuppressWarnings("ReturnOfCollectionOrArrayField") // reused by design
+    @Nonnull
+    int[] getTour() {
+        return tour;
     }
 
     private int goToDestination(int destinationIdx, int tourStep) {
@@ -98,7 +113,7 @@ final class TourBuilder {
     }
 
     private int selectStartVertex() {
-        final int startVertex = ThreadLocalRandom.current().nextInt(tour.length);
+        final int startVertex = random.nextInt(tour.length);
         tour[0] = startVertex;
         visited[startVertex] = true;
         return startVertex;
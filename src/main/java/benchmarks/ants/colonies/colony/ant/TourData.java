@@ -58,4 +58,9 @@ final class TourData {
     long getLength() {
         return length;
     }
+
+    @Nonnull
+    TourData copy() {
+        return new TourData(success, tour.clone(), length);
+    }
 }
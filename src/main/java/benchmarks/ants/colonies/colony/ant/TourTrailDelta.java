@@ -48,6 +48,17 @@ public final class TourTrailDelta {
         return columnIdx[row];
     }
 
+    /**
+     * @return the detached copy, safe to keep while the original arrays are reused.
+     */
+    @Nonnull
+    TourTrailDelta copy() {
+        return new TourTrailDelta(deltas.clone(), columnIdx.clone());
+    }
+
+    /**
+     * The builder keeps it's arrays, all the built deltas share them.
+     */
     @SuppressWarnings("PackageVisibleInnerClass") // inner builder pattern is ok
     static class Builder {
 
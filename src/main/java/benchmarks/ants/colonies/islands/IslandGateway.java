@@ -0,0 +1,99 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.islands;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import benchmarks.ants.colonies.colony.ISolutionsReceiver;
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+
+/**
+ * The coordinator as a neighbour of the island colonies: keeps the best of the received solutions
+ * and writes it to the socket on it's own daemon thread, only if it is shorter than the last sent
+ * one. The colonies background work does not delay the island tours so.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+final class IslandGateway implements ISolutionsReceiver {
+
+    private static final Logger log = LoggerFactory.getLogger(IslandGateway.class);
+
+    @Nonnull
+    private final DataOutputStream out;
+    @Nonnull
+    private final AtomicReference<AntRunResult> best = new AtomicReference<>();
+    @Nonnull
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(run -> {
+        final Thread thread = new Thread(run, "island-gateway-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long sentLength = Long.MAX_VALUE; // guarded by the out
+
+    /**
+     * @param out - the coordinator stream, the writers synchronize on it.
+     */
+    IslandGateway(DataOutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public int addSender() {
+        return 0;
+    }
+
+    @Override
+    public void receiveSolution(AntRunResult antRunResult, @Nonnegative int senderSlot) {
+        AntRunResult current;
+        do {
+            current = best.get();
+            if ((current != null) && (current.getLength() <= antRunResult.getLength())) {
+                return;
+            }
+        } while (!best.compareAndSet(current, antRunResult));
+        sender.execute(this::flush);
+    }
+
+    private void flush() {
+        synchronized (out) {
+            final AntRunResult solution = best.get();
+            if ((solution != null) && (solution.getLength() < sentLength)) {
+                try {
+                    IslandWire.writeTour(out, solution);
+                    out.flush();
+                    sentLength = solution.getLength();
+                } catch (IOException e) {
+                    log.warn("The best tour is not sent to the coordinator!", e);
+                }
+            }
+        }
+    }
+}
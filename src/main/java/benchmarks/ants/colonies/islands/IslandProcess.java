@@ -0,0 +1,221 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.islands;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.colony.AntsColony;
+import benchmarks.ants.colonies.colony.CachedRawEdgeQualities;
+import benchmarks.ants.colonies.colony.ColonyRunResult;
+import benchmarks.ants.colonies.colony.IAntsColony;
+import benchmarks.ants.colonies.colony.ISolutionsReceiver;
+import benchmarks.ants.colonies.colony.PheromoneSharing;
+import benchmarks.ants.colonies.colony.SharedTrails;
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+import benchmarks.ants.colonies.parallelisation.ParallelBarrierExecutor;
+
+/**
+ * The island JVM entry: runs it's colonies group wired by the settings topology, each of them
+ * sends it's best tours outside too, and the outside tours go to all of them. Outside is the
+ * coordinator or the shared tours board, by the {@link IslandsTransport}. Reports the colonies
+ * results to the coordinator and exits.
+ * @see IslandsCoordinator
+ */
+@ParametersAreNonnullByDefault
+public final class IslandProcess {
+
+    private static final Logger log = LoggerFactory.getLogger(IslandProcess.class);
+
+    private IslandProcess() { /* utility class */ }
+
+    /**
+     * @param args - the {@link #arguments} ones.
+     */
+    public static void main(String... args) throws IOException {
+        int arg = 0;
+        final int port = Integer.parseInt(args[arg++]);
+        final int island = Integer.parseInt(args[arg++]);
+        final int islands = Integer.parseInt(args[arg++]);
+        final int colonies = Integer.parseInt(args[arg++]);
+        final int ants = Integer.parseInt(args[arg++]);
+        final IslandsTransport transport = IslandsTransport.valueOf(args[arg++]);
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            final DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(socket.getOutputStream()));
+            final DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(socket.getInputStream()));
+            synchronized (out) {
+                IslandWire.writeHello(out, island);
+                out.flush();
+            }
+            final byte type = in.readByte();
+            if (type != IslandWire.SETTINGS) {
+                throw new IOException("Unexpected message " + type + '!');
+            }
+            final AntsSettings settings = IslandWire.readSettings(in).createAntsSettings();
+            final List<ColonyRunResult> results;
+            if (transport == IslandsTransport.TCP) {
+                final ISolutionsReceiver gateway = new IslandGateway(out);
+                results = runIsland(settings, island, colonies, ants, colony -> gateway,
+                        islandColonies -> {
+                            final int[] slots = islandColonies.stream()
+                                    .mapToInt(IAntsColony::addSender).toArray();
+                            return () -> receive(in, islandColonies, slots);
+                        });
+            } else {
+                final SharedToursBoard board = SharedToursBoard.open(Paths.get(args[arg]));
+                final int[] watched = watchedSlots(settings, island, islands, colonies);
+                results = runIsland(settings, island, colonies, ants,
+                        colony -> new SharedSlotWriter(board, (island * colonies) + colony),
+                        islandColonies -> new SharedToursPoller(board, watched, islandColonies,
+                                settings.getExchangeNanos()));
+            }
+            synchronized (out) {
+                for (final ColonyRunResult result : results) {
+                    IslandWire.writeResult(out, result.withColonies(islands * colonies));
+                }
+                out.writeByte(IslandWire.BYE);
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * The arguments for the {@link #main} of an island of the experiment, the settings are sent
+     * by the coordinator after the island {@link IslandWire#HELLO}.
+     * @param board - the shared tours board file, for the {@link IslandsTransport#SHARED_MEMORY}.
+     */
+    @Nonnull
+    static List<String> arguments(@Nonnegative int port, @Nonnegative int island,
+                                  @Nonnegative int islands, @Nonnegative int colonies,
+                                  @Nonnegative int ants, IslandsTransport transport,
+                                  String board) {
+        return Arrays.asList(String.valueOf(port), String.valueOf(island),
+                String.valueOf(islands), String.valueOf(colonies), String.valueOf(ants),
+                transport.name(), board);
+    }
+
+    /**
+     * @param outbound - the colony index to it's outside neighbour.
+     * @param inbound - the island colonies to the daemon passing the outside tours to them.
+     */
+    private static List<ColonyRunResult> runIsland(AntsSettings settings, int island,
+                                                   int coloniesAmount, int ants,
+                                                   IntFunction<ISolutionsReceiver> outbound,
+                                                   Function<List<IAntsColony>, Runnable> inbound)
+            throws IOException {
+        final CachedRawEdgeQualities qualities = CachedRawEdgeQualities.of(settings);
+        final List<IAntsColony> colonies = new ArrayList<>(coloniesAmount);
+        // the common trails are the island ones, the other islands get the tours only
+        final SharedTrails shared =
+                (settings.getPheromoneSharing() == PheromoneSharing.SHARED_GLOBAL) ?
+                        new SharedTrails(settings, coloniesAmount) : null;
+        for (int i = 0; i < coloniesAmount; i++) {
+            //noinspection ObjectAllocationInLoop, by design
+            final AntsColony colony = new AntsColony((island + 1) + "." + (i + 1), ants,
+                    settings, qualities);
+            if (shared != null) {
+                colony.shareTrails(shared);
+            }
+            colonies.add(colony);
+        }
+        final int[][] neighbours = settings.getMigrationTopology().neighbours(coloniesAmount,
+                settings.getMigrationDegree(), settings.getRandomSeed() + island);
+        for (int i = 0; i < coloniesAmount; i++) {
+            final List<ISolutionsReceiver> colonyNeighbours = Arrays.stream(neighbours[i])
+                    .<ISolutionsReceiver>mapToObj(colonies::get).collect(Collectors.toList());
+            colonyNeighbours.add(outbound.apply(i));
+            colonies.get(i).addNeighbours(colonyNeighbours);
+        }
+
+        final Thread receiver = new Thread(inbound.apply(colonies),
+                "island-" + island + "-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+        // the colonies add their results concurrently
+        final List<ColonyRunResult> results =
+                Collections.synchronizedList(new ArrayList<>(coloniesAmount));
+        ParallelBarrierExecutor.runOnce(colonies.stream()
+                .map(colony -> (Runnable) () -> results.add(
+                        colony.run(settings.getRunPeriodNanos())))
+                .collect(Collectors.toList()), "island" + island, "colony");
+        receiver.interrupt();
+        return results;
+    }
+
+    /**
+     * @return the board slots of the neighbour islands colonies, by the settings topology.
+     */
+    static int[] watchedSlots(AntsSettings settings, @Nonnegative int island,
+                              @Nonnegative int islands, @Nonnegative int colonies) {
+        return Arrays.stream(settings.getMigrationTopology().neighbours(islands,
+                settings.getMigrationDegree(), settings.getRandomSeed())[island])
+                .flatMap(neighbour -> IntStream.range(neighbour * colonies,
+                        (neighbour + 1) * colonies))
+                .toArray();
+    }
+
+    private static void receive(DataInputStream in, List<IAntsColony> colonies,
+                                int... coordinatorSlots) {
+        try {
+            //noinspection InfiniteLoopStatement, till the coordinator closes the socket
+            while (true) {
+                final byte type = in.readByte();
+                if (type != IslandWire.TOUR) {
+                    throw new IOException("Unexpected message " + type + '!');
+                }
+                final AntRunResult solution = IslandWire.readTour(in);
+                for (int i = 0; i < colonies.size(); i++) {
+                    colonies.get(i).receiveSolution(solution, coordinatorSlots[i]);
+                }
+            }
+        } catch (EOFException | SocketException ignored) {
+            // the coordinator is done or the island has closed the socket
+        } catch (IOException e) {
+            log.warn("The coordinator tours are not received any more!", e);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package benchmarks.ants.colonies.islands;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import benchmarks.ants.colonies.AntsSettingsBuilder;
+import benchmarks.ants.colonies.colony.ColonyRunResult;
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+import benchmarks.metrics.PerformanceMeasurer;
+
+/**
+ * The islands messages: the type byte, then the LEB128 varints. A tour is it's length, the
+ * vertexes amount, the first vertex and the zigzag deltas of the next ones, so the close vertexes
+ * numbers take a byte or two.
+ */
+@ParametersAreNonnullByDefault
+final class IslandWire {
+
+    /** The island number, it's first message. */
+    static final byte HELLO = 1;
+    /** A best tour, both ways. */
+    static final byte TOUR = 2;
+    /** A colony run result, the island ones after the run. */
+    static final byte RESULT = 3;
+    /** The island is done. */
+    static final byte BYE = 4;
+    /** The serialized experiment settings, the coordinator answer to the {@link #HELLO}. */
+    static final byte SETTINGS = 5;
+
+    private static final int VARINT_BITS = 7;
+    private static final int VARINT_MASK = 0x7F;
+    private static final int VARINT_MORE = 0x80;
+
+    private IslandWire() { /* package-local utility class*/ }
+
+    static void writeHello(DataOutput out, @Nonnegative int island) throws IOException {
+        out.writeByte(HELLO);
+        writeVarLong(out, island);
+    }
+
+    static void writeSettings(DataOutput out, AntsSettingsBuilder settings) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream objects = new ObjectOutputStream(bytes)) {
+            objects.writeObject(settings);
+        }
+        out.writeByte(SETTINGS);
+        writeVarLong(out, bytes.size());
+        out.write(bytes.toByteArray());
+    }
+
+    /**
+     * After the {@link #SETTINGS} type.
+     */
+    @Nonnull
+    static AntsSettingsBuilder readSettings(DataInput in) throws IOException {
+        final byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (AntsSettingsBuilder) objects.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Not the settings!", e);
+        }
+    }
+
+    static void writeTour(DataOutput out, AntRunResult solution) throws IOException {
+        final int[] tour = solution.getTour();
+        out.writeByte(TOUR);
+        writeVarLong(out, solution.getLength());
+        writeVarLong(out, tour.length);
+        int previous = 0;
+        for (final int vertex : tour) {
+            final int delta = vertex - previous;
+            writeVarLong(out, ((delta << 1) ^ (delta >> 31)) & 0xFFFFFFFFL); // zigzag
+            previous = vertex;
+        }
+    }
+
+    /**
+     * After the {@link #TOUR} type.
+     */
+    @Nonnull
+    static AntRunResult readTour(DataInput in) throws IOException {
+        final long length = readVarLong(in);
+        final int[] tour = new int[readVarInt(in)];
+        int previous = 0;
+        for (int i = 0; i < tour.length; i++) {
+            final int zigzag = readUnsignedVarInt(in);
+            previous += (zigzag >>> 1) ^ -(zigzag & 1);
+            tour[i] = previous;
+        }
+        return AntRunResult.ofTour(tour, length, new PerformanceMeasurer());
+    }
+
+    static void writeResult(DataOutput out, ColonyRunResult result) throws IOException {
+        out.writeByte(RESULT);
+        out.writeUTF(result.getId());
+        writeVarLong(out, result.getResult());
+        writeVarLong(out, result.getColonies());
+        writeVarLong(out, result.getAnts());
+        writeVarLong(out, result.getAntRuns());
+        writeVarLong(out, result.getExchanges());
+        writeVarLong(out, result.getAvgInitialTrailNs());
+        writeVarLong(out, result.getAvgAntsRunNs());
+        writeVarLong(out, result.getAvgExchangeNs());
+        writeVarLong(out, result.getExchangedBytes());
+    }
+
+    /**
+     * After the {@link #RESULT} type.
+     */
+    @Nonnull
+    static ColonyRunResult readResult(DataInput in) throws IOException {
+        return new ColonyRunResult(in.readUTF(), readVarLong(in), readVarInt(in), readVarInt(in),
+                readVarLong(in), readVarLong(in), readVarLong(in), readVarLong(in),
+                readVarLong(in), readVarLong(in));
+    }
+
+    /**
+     * @param value - taken as unsigned.
+     */
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        long rest = value;
+        while ((rest & ~VARINT_MASK) != 0L) {
+            out.writeByte((int) ((rest & VARINT_MASK) | VARINT_MORE));
+            rest >>>= VARINT_BITS;
+        }
+        out.writeByte((int) rest);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0L;
+        int shift = 0;
+        int next;
+        do {
+            if (shift >= Long.SIZE) {
+                throw new IOException("Too long varint!");
+            }
+            next = in.readUnsignedByte();
+            value |= ((long) (next & VARINT_MASK)) << shift;
+            shift += VARINT_BITS;
+        } while ((next & VARINT_MORE) != 0);
+        return value;
+    }
+
+    /**
+     * @return a not negative int, as the amounts and the ids are.
+     */
+    @Nonnegative
+    @SuppressWarnings("NumericCastThatLosesPrecision") // checked
+    static int readVarInt(DataInput in) throws IOException {
+        final long value = readVarLong(in);
+        if ((value >>> (Integer.SIZE - 1)) != 0L) {
+            throw new IOException("Not a not negative int varint " + value + '!');
+        }
+        return (int) value;
+    }
+
+    /**
+     * @return the 32 bits, as the zigzag deltas are.
+     */
+    @SuppressWarnings("NumericCastThatLosesPrecision") // checked
+    private static int readUnsignedVarInt(DataInput in) throws IOException {
+        final long value = readVarLong(in);
+        if ((value >>> Integer.SIZE) != 0L) {
+            throw new IOException("Not a 32 bits varint " + value + '!');
+        }
+        return (int) value;
+    }
+}
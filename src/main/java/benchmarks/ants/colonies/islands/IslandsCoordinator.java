@@ -0,0 +1,267 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.islands;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import benchmarks.ants.colonies.AntsExperimentData;
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.ColonyResultsCompiler;
+import benchmarks.ants.colonies.colony.ColonyRunResult;
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+import benchmarks.ants.presets.AntsExperimentSeriesPreset;
+import util.Restrictions;
+
+import static util.TimeUtil.nanoToMls;
+
+/**
+ * Runs the colonies groups as the islands in the separate JVMs of this class path. The islands
+ * best tours go to their neighbour islands by the settings migration topology, relayed over the
+ * loopback TCP or through the shared memory board, and their colonies results are compiled as the
+ * one process run ones.
+ * @see IslandProcess
+ */
+@ParametersAreNonnullByDefault
+public final class IslandsCoordinator {
+
+    private static final Logger log = LoggerFactory.getLogger(IslandsCoordinator.class);
+    private static final int CONNECT_TIMEOUT_MS = 60_000;
+    private static final long RESULTS_MARGIN_MS = 60_000L;
+    private static final String SHARED_MEMORY_DIR = "/dev/shm";
+
+    private IslandsCoordinator() { /* utility class */ }
+
+    /**
+     * The experiment colonies split among the preset islands equally.
+     * @return the all islands colonies result, the same as the {@code AntsColonies} one.
+     */
+    @Nonnull
+    public static ColonyRunResult runCalculations(AntsExperimentData data) {
+        final AntsExperimentSeriesPreset preset = data.getPreset();
+        try {
+            return runCalculations(preset.getSettings(), preset.getIslands(),
+                    data.getColonies() / preset.getIslands(), data.getAnts(),
+                    preset.getIslandsTransport());
+        } catch (IOException e) {
+            throw new UncheckedIOException("The islands are not run!", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The islands run is interrupted!", e);
+        }
+    }
+
+    /**
+     * The islands pass their tours over the {@link IslandsTransport#TCP}.
+     * @param colonies - per island.
+     * @return the all islands colonies result, the same as the {@code AntsColonies} one.
+     */
+    @Nonnull
+    public static ColonyRunResult runCalculations(AntsSettings settings, @Nonnegative int islands,
+                                                  @Nonnegative int colonies,
+                                                  @Nonnegative int ants)
+            throws IOException, InterruptedException {
+        return runCalculations(settings, islands, colonies, ants, IslandsTransport.TCP);
+    }
+
+    /**
+     * @param colonies - per island.
+     * @return the all islands colonies result, the same as the {@code AntsColonies} one.
+     */
+    @Nonnull
+    public static ColonyRunResult runCalculations(AntsSettings settings, @Nonnegative int islands,
+                                                  @Nonnegative int colonies,
+                                                  @Nonnegative int ants,
+                                                  IslandsTransport transport)
+            throws IOException, InterruptedException {
+        Restrictions.ifNotOnlyPositivesFastFail(islands, colonies, ants);
+        Restrictions.ifContainsNullFastFail(settings, transport);
+        final Path board = (transport == IslandsTransport.SHARED_MEMORY) ?
+                createBoard(islands * colonies, settings.getGraph().getSize()) : null;
+        try {
+            return runIslands(settings, islands, colonies, ants, transport,
+                    (board == null) ? "" : board.toString());
+        } finally {
+            if (board != null) {
+                Files.deleteIfExists(board);
+            }
+        }
+    }
+
+    private static ColonyRunResult runIslands(AntsSettings settings, int islands, int colonies,
+                                              int ants, IslandsTransport transport, String board)
+            throws IOException, InterruptedException {
+        final List<ColonyRunResult> results = Collections.synchronizedList(new ArrayList<>());
+        final List<Process> processes = new ArrayList<>(islands);
+        final Socket[] sockets = new Socket[islands];
+        final ExecutorService relays = Executors.newFixedThreadPool(islands);
+        try (ServerSocket server = new ServerSocket(0, islands,
+                InetAddress.getLoopbackAddress())) {
+            for (int island = 0; island < islands; island++) {
+                processes.add(launch(IslandProcess.arguments(server.getLocalPort(), island,
+                        islands, colonies, ants, transport, board)));
+            }
+            server.setSoTimeout(CONNECT_TIMEOUT_MS);
+            final DataInputStream[] ins = new DataInputStream[islands];
+            final DataOutputStream[] outs = new DataOutputStream[islands];
+            for (int i = 0; i < islands; i++) {
+                final Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                final DataInputStream in = new DataInputStream(
+                        new BufferedInputStream(socket.getInputStream()));
+                final int island = readHello(in, islands);
+                sockets[island] = socket;
+                ins[island] = in;
+                outs[island] = new DataOutputStream(
+                        new BufferedOutputStream(socket.getOutputStream()));
+                IslandWire.writeSettings(outs[island], settings.toBuilder());
+                outs[island].flush();
+            }
+            final int[][] neighbours = settings.getMigrationTopology().neighbours(islands,
+                    settings.getMigrationDegree(), settings.getRandomSeed());
+            final List<Future<?>> islandsRelays = new ArrayList<>(islands);
+            for (int island = 0; island < islands; island++) {
+                final int from = island;
+                islandsRelays.add(relays.submit(() -> {
+                    relay(ins[from], outs, neighbours[from], results);
+                    return null;
+                }));
+            }
+            awaitIslands(islandsRelays, nanoToMls(settings.getRunPeriodNanos())
+                    + RESULTS_MARGIN_MS);
+        } finally {
+            relays.shutdownNow();
+            for (final Socket socket : sockets) {
+                if (socket != null) {
+                    socket.close();
+                }
+            }
+            for (final Process process : processes) {
+                if (!process.waitFor(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    log.warn("The island {} is killed!", process);
+                    process.destroyForcibly();
+                }
+            }
+        }
+        return ColonyResultsCompiler.compileOverallResult(results, islands * colonies, ants);
+    }
+
+    private static Path createBoard(int slots, int capacity) throws IOException {
+        final Path shm = Paths.get(SHARED_MEMORY_DIR);
+        final Path board = Files.createTempFile(Files.isDirectory(shm) && Files.isWritable(shm) ?
+                shm : Paths.get(System.getProperty("java.io.tmpdir")), "tours", ".board");
+        SharedToursBoard.create(board, slots, capacity);
+        return board;
+    }
+
+    private static Process launch(List<String> arguments) throws IOException {
+        final List<String> command = new ArrayList<>(arguments.size() + 4);
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator
+                + "java");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(IslandProcess.class.getName());
+        command.addAll(arguments);
+        return new ProcessBuilder(command).inheritIO().start();
+    }
+
+    private static int readHello(DataInputStream in, int islands) throws IOException {
+        final byte type = in.readByte();
+        final int island = IslandWire.readVarInt(in);
+        if ((type != IslandWire.HELLO) || (island >= islands)) {
+            throw new IOException("Unexpected island hello " + type + ' ' + island + '!');
+        }
+        return island;
+    }
+
+    /**
+     * Till the island {@link IslandWire#BYE}.
+     */
+    private static void relay(DataInputStream in, DataOutputStream[] outs, int[] neighbours,
+                              List<ColonyRunResult> results) throws IOException {
+        while (true) {
+            final byte type = in.readByte();
+            if (type == IslandWire.TOUR) {
+                final AntRunResult solution = IslandWire.readTour(in);
+                for (final int neighbour : neighbours) {
+                    send(outs[neighbour], solution);
+                }
+            } else if (type == IslandWire.RESULT) {
+                results.add(IslandWire.readResult(in));
+            } else if (type == IslandWire.BYE) {
+                return;
+            } else {
+                throw new IOException("Unexpected message " + type + '!');
+            }
+        }
+    }
+
+    private static void send(DataOutputStream out, AntRunResult solution) {
+        synchronized (out) {
+            try {
+                IslandWire.writeTour(out, solution);
+                out.flush();
+            } catch (IOException e) { // the island may be done already
+                log.debug("The tour is not relayed.", e);
+            }
+        }
+    }
+
+    private static void awaitIslands(List<Future<?>> islandsRelays, long timeoutMs)
+            throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeoutMs;
+        for (final Future<?> relay : islandsRelays) {
+            try {
+                relay.get(Math.max(0L, deadline - System.currentTimeMillis()),
+                        TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                log.error("The island relay failed!", e.getCause());
+            } catch (TimeoutException e) {
+                log.error("The island results are not got in time!", e);
+            }
+        }
+    }
+}
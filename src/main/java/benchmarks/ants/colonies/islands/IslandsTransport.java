@@ -0,0 +1,32 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.islands;
+
+/**
+ * How the islands pass their best tours to each other.
+ */
+public enum IslandsTransport {
+    /** Over the coordinator, it relays the islands tours by the topology. */
+    TCP,
+    /**
+     * Over the memory mapped file in the {@code /dev/shm}, or in the temporary directory if
+     * there is no such one. The islands poll the slots of their neighbour islands colonies.
+     */
+    SHARED_MEMORY
+}
@@ -0,0 +1,77 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.islands;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * The load and store fences of the {@code sun.misc.Unsafe}, the Java 8 API has no other ones for
+ * the memory shared with the other processes. Taken reflectively, the JIT inlines the constant
+ * handles to the fences intrinsics.
+ */
+final class MemoryFences {
+
+    private static final MethodHandle LOAD_FENCE;
+    private static final MethodHandle STORE_FENCE;
+
+    static {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            final Object unsafe = theUnsafe.get(null);
+            final MethodType fence = MethodType.methodType(void.class);
+            LOAD_FENCE = MethodHandles.lookup().findVirtual(unsafeClass, "loadFence", fence)
+                    .bindTo(unsafe);
+            STORE_FENCE = MethodHandles.lookup().findVirtual(unsafeClass, "storeFence", fence)
+                    .bindTo(unsafe);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private MemoryFences() { /* package-local utility class*/ }
+
+    /**
+     * The loads before are not reordered with the loads and the stores after.
+     */
+    @SuppressWarnings("ProhibitedExceptionCaught") // the handle contract
+    static void loadFence() {
+        try {
+            LOAD_FENCE.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The loads and the stores before are not reordered with the stores after.
+     */
+    @SuppressWarnings("ProhibitedExceptionCaught") // the handle contract
+    static void storeFence() {
+        try {
+            STORE_FENCE.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
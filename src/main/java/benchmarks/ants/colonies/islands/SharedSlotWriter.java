@@ -0,0 +1,56 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.islands;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import benchmarks.ants.colonies.colony.ISolutionsReceiver;
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+
+/**
+ * The colony slot of the shared tours board as a neighbour of the colony: the colony best tours
+ * are written to the slot on the colony exchange schedule.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+final class SharedSlotWriter implements ISolutionsReceiver {
+
+    @Nonnull
+    private final SharedToursBoard board;
+    @Nonnegative
+    private final int slot;
+
+    SharedSlotWriter(SharedToursBoard board, @Nonnegative int slot) {
+        this.board = board;
+        this.slot = slot;
+    }
+
+    @Override
+    public int addSender() {
+        return 0;
+    }
+
+    @Override
+    public void receiveSolution(AntRunResult antRunResult, @Nonnegative int senderSlot) {
+        board.publish(slot, antRunResult);
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.islands;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+import benchmarks.metrics.PerformanceMeasurer;
+
+/**
+ * The colonies best tours in a memory mapped file, shared by the islands processes of a host. A
+ * colony slot is the seqlock version, the tour length, the vertexes amount and the tour ints, the
+ * version is odd while the tour is written. One writer per slot, the readers retry a torn read.
+ * The slots are cache lines aligned.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+final class SharedToursBoard {
+
+    private static final int HEADER_BYTES = 64;
+    private static final int SLOT_ALIGNMENT = 64;
+    private static final int VERSION = 0;
+    private static final int LENGTH = Long.BYTES;
+    private static final int COUNT = 2 * Long.BYTES;
+    private static final int TOUR = COUNT + Integer.BYTES;
+    private static final int READ_ATTEMPTS = 16;
+
+    @Nonnull
+    private final ByteBuffer buffer;
+    @Nonnegative
+    private final int slots;
+    @Nonnegative
+    private final int capacity;
+    @Nonnegative
+    private final int slotBytes;
+
+    private SharedToursBoard(MappedByteBuffer buffer, @Nonnegative int slots,
+                             @Nonnegative int capacity) {
+        this.buffer = buffer.order(ByteOrder.nativeOrder());
+        this.slots = slots;
+        this.capacity = capacity;
+        slotBytes = slotBytes(capacity);
+    }
+
+    /**
+     * @param capacity - the max tour vertexes.
+     */
+    @Nonnull
+    static SharedToursBoard create(Path file, @Nonnegative int slots, @Nonnegative int capacity)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0L,
+                    HEADER_BYTES + ((long) slots * slotBytes(capacity)));
+            buffer.order(ByteOrder.nativeOrder()).putInt(0, slots).putInt(Integer.BYTES,
+                    capacity);
+            return new SharedToursBoard(buffer, slots, capacity);
+        }
+    }
+
+    @Nonnull
+    static SharedToursBoard open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            final MappedByteBuffer buffer =
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0L, channel.size());
+            buffer.order(ByteOrder.nativeOrder());
+            return new SharedToursBoard(buffer, buffer.getInt(0), buffer.getInt(Integer.BYTES));
+        }
+    }
+
+    /**
+     * Writes the tour to the slot if it is shorter than the slot one.
+     * @return true if written.
+     */
+    synchronized boolean publish(@Nonnegative int slot, AntRunResult solution) {
+        final int[] tour = solution.getTour();
+        if (tour.length > capacity) {
+            throw new IllegalArgumentException("The tour of " + tour.length
+                    + " vertexes is more than the board capacity " + capacity + '!');
+        }
+        final int offset = offset(slot);
+        final long version = buffer.getLong(offset + VERSION);
+        if ((version != 0L) && (buffer.getLong(offset + LENGTH) <= solution.getLength())) {
+            return false;
+        }
+        buffer.putLong(offset + VERSION, version + 1L);
+        MemoryFences.storeFence();
+        buffer.putLong(offset + LENGTH, solution.getLength());
+        buffer.putInt(offset + COUNT, tour.length);
+        final ByteBuffer tourBytes = buffer.duplicate().order(buffer.order());
+        tourBytes.position(offset + TOUR);
+        tourBytes.asIntBuffer().put(tour);
+        MemoryFences.storeFence();
+        buffer.putLong(offset + VERSION, version + 2L);
+        return true;
+    }
+
+    /**
+     * @param versions - the last read slots versions, updated.
+     * @return the slot tour if it has changed since the last read, null if not or if it is being
+     * written too often to read it now.
+     */
+    @Nullable
+    AntRunResult readNewer(@Nonnegative int slot, long... versions) {
+        final int offset = offset(slot);
+        for (int attempt = 0; attempt < READ_ATTEMPTS; attempt++) {
+            final long version = buffer.getLong(offset + VERSION);
+            if (version == versions[slot]) {
+                return null;
+            }
+            MemoryFences.loadFence();
+            if ((version & 1L) == 0L) {
+                final long length = buffer.getLong(offset + LENGTH);
+                final int count = Math.min(Math.max(buffer.getInt(offset + COUNT), 0), capacity);
+                final int[] tour = new int[count];
+                final ByteBuffer tourBytes = buffer.duplicate().order(buffer.order());
+                tourBytes.position(offset + TOUR);
+                tourBytes.asIntBuffer().get(tour);
+                MemoryFences.loadFence();
+                if (buffer.getLong(offset + VERSION) == version) {
+                    versions[slot] = version;
+                    return AntRunResult.ofTour(tour, length, new PerformanceMeasurer());
+                }
+            }
+            Thread.yield();
+        }
+        return null;
+    }
+
+    @Nonnegative
+    int getSlots() {
+        return slots;
+    }
+
+    private int offset(@Nonnegative int slot) {
+        if (slot >= slots) {
+            throw new IndexOutOfBoundsException("No slot " + slot + " of " + slots + '!');
+        }
+        return HEADER_BYTES + (slot * slotBytes);
+    }
+
+    private static int slotBytes(@Nonnegative int capacity) {
+        final int bytes = TOUR + (capacity * Integer.BYTES);
+        return ((bytes + SLOT_ALIGNMENT) - 1) / SLOT_ALIGNMENT * SLOT_ALIGNMENT;
+    }
+}
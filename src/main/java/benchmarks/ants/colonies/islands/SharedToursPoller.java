@@ -0,0 +1,88 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.islands;
+
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import benchmarks.ants.colonies.colony.IAntsColony;
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+
+/**
+ * Polls the watched slots of the shared tours board with the exchange period and passes their
+ * new tours to the island colonies, each watched slot is a sender of each colony inbox.
+ */
+@ParametersAreNonnullByDefault
+final class SharedToursPoller implements Runnable {
+
+    @Nonnull
+    private final SharedToursBoard board;
+    @Nonnull
+    private final int[] watched;
+    @Nonnull
+    private final List<IAntsColony> colonies;
+    @Nonnull
+    private final int[][] senderSlots; // [colony][watched]
+    @Nonnull
+    private final long[] versions;
+    @Nonnegative
+    private final long periodNanos;
+
+    /**
+     * @param watched - the other islands colonies slots.
+     */
+    SharedToursPoller(SharedToursBoard board, int[] watched, List<IAntsColony> colonies,
+                      @Nonnegative long periodNanos) {
+        this.board = board;
+        this.watched = watched.clone();
+        this.colonies = colonies;
+        this.periodNanos = periodNanos;
+        senderSlots = new int[colonies.size()][watched.length];
+        for (int colony = 0; colony < colonies.size(); colony++) {
+            for (int i = 0; i < watched.length; i++) {
+                senderSlots[colony][i] = colonies.get(colony).addSender();
+            }
+        }
+        versions = new long[board.getSlots()];
+    }
+
+    @Override
+    public void run() {
+        //noinspection MethodCallInLoopCondition, by design
+        while (!Thread.currentThread().isInterrupted()) {
+            poll();
+            LockSupport.parkNanos(periodNanos);
+        }
+    }
+
+    void poll() {
+        for (int i = 0; i < watched.length; i++) {
+            final AntRunResult solution = board.readNewer(watched[i], versions);
+            if (solution != null) {
+                for (int colony = 0; colony < colonies.size(); colony++) {
+                    colonies.get(colony).receiveSolution(solution, senderSlots[colony][i]);
+                }
+            }
+        }
+    }
+}
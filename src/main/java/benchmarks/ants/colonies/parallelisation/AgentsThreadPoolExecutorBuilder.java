@@ -18,6 +18,11 @@
 
 package benchmarks.ants.colonies.parallelisation;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -25,6 +30,8 @@ import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnegative;
 import javax.annotation.ParametersAreNonnullByDefault;
 
+import util.TimeUtil;
+
 /**
  * @author Sergey Pomelov on 28/04/2016.
  * Adds to the standart implementation pool and agents names to the threads names for buisness
@@ -34,6 +41,11 @@ import javax.annotation.ParametersAreNonnullByDefault;
 @ParametersAreNonnullByDefault
 final class AgentsThreadPoolExecutorBuilder {
 
+    private static final Logger log =
+            LoggerFactory.getLogger(AgentsThreadPoolExecutorBuilder.class);
+    /** The periodic operations rate limit. */
+    static final long MIN_PERIOD_NANOS = TimeUtil.mlsToNano(1);
+
     private AgentsThreadPoolExecutorBuilder() { /* package-local utility class */ }
 
     static ThreadPoolExecutor build(@Nonnegative int parallelTasks,
@@ -42,4 +54,27 @@ final class AgentsThreadPoolExecutorBuilder {
                 new SynchronousQueue<>(),
                 new AgentsThreadsFactory(poolName, agentName));
     }
+
+    /**
+     * @return the started single thread fixed rate schedule of the operation, shut it down to stop.
+     * @param periodNanos - the operation rate, at least a millisecond.
+     */
+    static ScheduledExecutorService buildPeriodic(Runnable operation, @Nonnegative long periodNanos,
+                                                  String poolName) {
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+                new AgentsThreadsFactory(poolName, "periodic"));
+        final long period = Math.max(periodNanos, MIN_PERIOD_NANOS);
+        scheduler.scheduleAtFixedRate(() -> runSafely(operation),
+                period, period, TimeUnit.NANOSECONDS);
+        return scheduler;
+    }
+
+    // an exception would cancel all the next runs of the schedule
+    private static void runSafely(Runnable operation) {
+        try {
+            operation.run();
+        } catch (RuntimeException e) {
+            log.error("Periodic operation failed!", e);
+        }
+    }
 }
@@ -0,0 +1,57 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.parallelisation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * The one process wide pool of the daemon threads for the work the agents should not wait for,
+ * as the best tours improvement. A quarter of the cores, at least one thread, the tasks queue is
+ * not bounded.
+ */
+@ParametersAreNonnullByDefault
+public final class BackgroundExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(BackgroundExecutor.class);
+    private static final int THREADS =
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+    private static final ExecutorService pool = new ThreadPoolExecutor(THREADS, THREADS,
+            0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+            new AgentsThreadsFactory("background", "worker"));
+
+    private BackgroundExecutor() { /* utility class */ }
+
+    public static void execute(Runnable task) {
+        pool.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Background task failed!", e);
+            }
+        });
+    }
+}
@@ -21,22 +21,25 @@ package benchmarks.ants.colonies.parallelisation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 /**
  * @author Sergey Pomelov on 04/05/2016.
- * Creates a pool of constant amount of threads and keeps ot beasy with agents tasks.
+ * Creates a pool of constant amount of threads, each of them runs the agent again and again,
+ * checking the termination condition between the runs. So the run overshoots the termination by
+ * one agent run at most and nothing is queued. The periodic operation runs on it's own thread on
+ * a fixed rate schedule, independently of the agents.
  */
 @SuppressWarnings("ClassUnconnectedToPackage") // false claim
 @ParametersAreNonnullByDefault
@@ -44,89 +47,75 @@ public final class ContinuousParallelExecutor {
 
     private static final Logger log = LoggerFactory.getLogger(ContinuousParallelExecutor.class);
     private static final String INTERRUPTED_EX = "Got an interrupted exception!";
-    private static final int BASE_MULTIPLIER = 1000;
-    private static final int TASKS_QUEUE_CHECK_INTERVAL_MLS = 300;
 
     private ContinuousParallelExecutor() { /* utility class*/ }
 
-    @SuppressWarnings("SameParameterValue")
+    /**
+     * Blocks until all the agents loops see the termination condition.
+     * @param periodicOperation - runs each periodNanos while the agents work.
+     * @param periodNanos - the periodic operation rate, at least a millisecond.
+     */
+    @SuppressWarnings({"SameParameterValue", "MethodWithTooManyParameters"})
     public static void run(Callable<Long> agent, @Nonnegative int parallelAgents,
                            Supplier<Boolean> terminationCondition,
-                           Runnable agentsRunAdditionalOperation,
-                           String poolName, String agentName) {
-        final ExecutorService executor = buildContinuousExecutor(parallelAgents,
-                poolName, agentName);
-        for (int i = 0; i < parallelAgents; i++) {
-            executor.submit(agent);
+                           Runnable periodicOperation, @Nonnegative long periodNanos,
+                           String poolName, String agentName, ExecutionBackend backend) {
+        final long period =
+                Math.max(periodNanos, AgentsThreadPoolExecutorBuilder.MIN_PERIOD_NANOS);
+        if (backend == ExecutionBackend.SHARED_FORK_JOIN) {
+            SharedForkJoinExecutor.runContinuously(agent, parallelAgents, terminationCondition,
+                    periodicOperation, period, poolName, agentName);
+        } else {
+            runOnDedicatedThreads(agent, parallelAgents, terminationCondition,
+                    periodicOperation, period, poolName, agentName);
         }
+    }
 
+    @SuppressWarnings("MethodWithTooManyParameters")
+    private static void runOnDedicatedThreads(Callable<Long> agent, int parallelAgents,
+                                              Supplier<Boolean> terminationCondition,
+                                              Runnable periodicOperation, long period,
+                                              String poolName, String agentName) {
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelAgents,
+                new AgentsThreadsFactory(poolName, agentName));
+        final ScheduledExecutorService scheduler =
+                AgentsThreadPoolExecutorBuilder.buildPeriodic(periodicOperation, period, poolName);
         try {
-            mainCycle(agent, parallelAgents, terminationCondition,
-                    agentsRunAdditionalOperation, executor);
-        } catch (InterruptedException e) {
-            log.warn(INTERRUPTED_EX, e);
+            final Collection<Future<?>> loops = new ArrayList<>(parallelAgents);
+            for (int i = 0; i < parallelAgents; i++) {
+                loops.add(executor.submit(() -> agentLoop(agent, terminationCondition)));
+            }
+            awaitLoops(loops);
         } finally {
+            scheduler.shutdownNow();
             executor.shutdownNow();
         }
     }
 
-    private static void mainCycle(Callable<Long> agent,
-                                  int parallelAgents,
-                                  Supplier<Boolean> terminationCondition,
-                                  Runnable agentsRunAdditionalOperation,
-                                  ExecutorService executor) throws InterruptedException {
-        final List<Future<Long>> runFutureResults = executor.
-                invokeAll(Collections.nCopies(parallelAgents, agent));
-        int tasksReserve = BASE_MULTIPLIER;
-        boolean isFirstCycle = true;
+    // at least one agent run even if the condition is already met
+    private static void agentLoop(Callable<Long> agent, Supplier<Boolean> terminationCondition) {
         //noinspection MethodCallInLoopCondition, by design
-        while (!terminationCondition.get()) {
-            tasksReserve = addTasksIfNeed(runFutureResults, executor, agent,
-                    isFirstCycle, tasksReserve);
-            agentsRunAdditionalOperation.run();
-            isFirstCycle = false;
-            Thread.sleep(TASKS_QUEUE_CHECK_INTERVAL_MLS);
-        }
-    }
-
-    private static int addTasksIfNeed(Collection<Future<Long>> runFutureResults,
-                                      ExecutorService executor, Callable<Long> agent,
-                                      boolean firstCycle, int tasksReserve) {
-        int revisedTasksReserve = tasksReserve;
-        final List<Future<Long>> finished = getFinished(runFutureResults);
-        runFutureResults.removeAll(finished);
-        if (runFutureResults.size() < tasksReserve) {
-            revisedTasksReserve = reviseTasksReserve(firstCycle, tasksReserve, runFutureResults);
-            addTasks(executor, agent, runFutureResults, tasksReserve);
-        }
-        return revisedTasksReserve;
-    }
-
-    private static int reviseTasksReserve(boolean firstCycle, int tasksReserve,
-                                          Collection<Future<Long>> runFutureResults) {
-        if (!firstCycle && runFutureResults.isEmpty()) {
-            final int revisedTasksReserve = tasksReserve * 2;
-            log.debug("Zero tasks, new queue size {} -> {}.", tasksReserve, revisedTasksReserve);
-            return revisedTasksReserve;
-        }
-        return tasksReserve;
+        do {
+            try {
+                agent.call();
+            } catch (Exception e) { // the agent contract
+                log.error("The agent failed, it's loop is stopped!", e);
+                return;
+            }
+        } while (!terminationCondition.get() && !Thread.currentThread().isInterrupted());
     }
 
-    private static void addTasks(ExecutorService executor, Callable<Long> agent,
-                                 Collection<Future<Long>> runFutureResults,
-                                 int tasksReserve) {
-        for (int i = 0; i < tasksReserve; i++) {
-            runFutureResults.add(executor.submit(agent));
+    private static void awaitLoops(Iterable<Future<?>> loops) {
+        for (final Future<?> loop : loops) {
+            try {
+                loop.get();
+            } catch (InterruptedException e) {
+                log.warn(INTERRUPTED_EX, e);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.error("Agent loop failed!", e);
+            }
         }
     }
-
-    private static List<Future<Long>> getFinished(Collection<Future<Long>> runResults) {
-        return runResults.stream().filter(Future::isDone).collect(Collectors.toList());
-    }
-
-    private static ExecutorService buildContinuousExecutor(int parallelAgents,
-                                                           String poolName, String agentName) {
-        return Executors.newFixedThreadPool(parallelAgents,
-                new AgentsThreadsFactory(poolName, agentName));
-    }
 }
@@ -0,0 +1,32 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.parallelisation;
+
+/**
+ * Where the colonies ants are run. The colonies always have a thread each, waiting for their ants.
+ */
+public enum ExecutionBackend {
+    /** A platform thread per ant, each colony has it's own pool. */
+    DEDICATED_THREADS,
+    /**
+     * One work-stealing pool sized to the cores for the ants of all the colonies, each ant tour is
+     * a task. The threads are renamed to the colony and ant names while running them.
+     */
+    SHARED_FORK_JOIN
+}
@@ -0,0 +1,138 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.parallelisation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Runs the agents in lockstep iterations: each of the constant amount of threads runs it's agent
+ * once, then all of them wait on the one reusable barrier, the last coming one runs the iteration
+ * end and decides whether to go on. The barrier needs all the agents at once, so the threads are
+ * always dedicated ones.
+ */
+@ParametersAreNonnullByDefault
+public final class IterationsParallelExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(IterationsParallelExecutor.class);
+    private static final String INTERRUPTED_EX = "Got an interrupted exception!";
+
+    private IterationsParallelExecutor() { /* utility class*/ }
+
+    /**
+     * Blocks until the iteration end returns true, at least one iteration runs.
+     * @param agent - gets the agent number, from 0 to parallelAgents - 1.
+     * @param iterationEnd - runs alone after all the agents of an iteration, true to stop.
+     * @param periodicOperation - runs each periodNanos while the agents work.
+     */
+    @SuppressWarnings("MethodWithTooManyParameters")
+    public static void run(IntConsumer agent, @Nonnegative int parallelAgents,
+                           BooleanSupplier iterationEnd,
+                           Runnable periodicOperation, @Nonnegative long periodNanos,
+                           String poolName, String agentName) {
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelAgents,
+                new AgentsThreadsFactory(poolName, agentName));
+        final ScheduledExecutorService scheduler = AgentsThreadPoolExecutorBuilder
+                .buildPeriodic(periodicOperation, periodNanos, poolName);
+        try {
+            final Iteration iteration = new Iteration(iterationEnd);
+            final CyclicBarrier barrier = new CyclicBarrier(parallelAgents, iteration);
+            final Collection<Future<?>> loops = new ArrayList<>(parallelAgents);
+            for (int i = 0; i < parallelAgents; i++) {
+                final int agentNumber = i;
+                loops.add(executor.submit(() -> agentLoop(agent, agentNumber, barrier, iteration)));
+            }
+            awaitLoops(loops);
+        } finally {
+            scheduler.shutdownNow();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void agentLoop(IntConsumer agent, int agentNumber, CyclicBarrier barrier,
+                                  Iteration iteration) {
+        try {
+            //noinspection MethodCallInLoopCondition, by design
+            do {
+                agent.accept(agentNumber);
+                barrier.await();
+            } while (!iteration.isLast());
+        } catch (InterruptedException e) {
+            log.warn(INTERRUPTED_EX, e);
+            Thread.currentThread().interrupt();
+            barrier.reset();
+        } catch (BrokenBarrierException ignored) {
+            // an other agent failed, already logged
+        } catch (RuntimeException e) {
+            log.error("The agent failed, the iterations are stopped!", e);
+            barrier.reset();
+        }
+    }
+
+    private static void awaitLoops(Iterable<Future<?>> loops) {
+        for (final Future<?> loop : loops) {
+            try {
+                loop.get();
+            } catch (InterruptedException e) {
+                log.warn(INTERRUPTED_EX, e);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.error("Agent loop failed!", e);
+            }
+        }
+    }
+
+    /**
+     * The barrier action, it's result is published to the agents by the barrier itself.
+     */
+    private static final class Iteration implements Runnable {
+
+        private final BooleanSupplier iterationEnd;
+        private volatile boolean last = false;
+
+        Iteration(BooleanSupplier iterationEnd) {
+            this.iterationEnd = iterationEnd;
+        }
+
+        @Override
+        public void run() {
+            last = iterationEnd.getAsBoolean();
+        }
+
+        boolean isLast() {
+            return last;
+        }
+    }
+}
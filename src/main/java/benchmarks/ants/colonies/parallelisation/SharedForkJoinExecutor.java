@@ -0,0 +1,174 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.parallelisation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Runs the agents on the one process wide work-stealing pool sized to the cores, instead of a
+ * platform thread per agent. A continuous agent is a chain of tasks, one agent run each,
+ * resubmitted to the pool tail until the termination condition, so thousands of agents of all the
+ * colonies share the cores fairly without the context switches of thousands of threads.
+ * <p>
+ * The callers, the colonies, block for the whole run, so they stay on their own parked threads:
+ * blocked inside the pool they would take it's workers and run one after another.
+ * <p>
+ * The worker thread takes the pool and agent name for the time of an agent run, so the thread
+ * dumps and the logs read as with the dedicated threads.
+ * @see ExecutionBackend#SHARED_FORK_JOIN
+ */
+@ParametersAreNonnullByDefault
+final class SharedForkJoinExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedForkJoinExecutor.class);
+    private static final String INTERRUPTED_EX = "Got an interrupted exception!";
+
+    private static final ForkJoinPool pool = new ForkJoinPool(
+            Runtime.getRuntime().availableProcessors(), SharedForkJoinExecutor::newWorker,
+            null, true);
+    private static final ScheduledExecutorService scheduler = buildScheduler();
+
+    private SharedForkJoinExecutor() { /* package-local utility class */ }
+
+    static void runContinuously(Callable<Long> agent, @Nonnegative int parallelAgents,
+                                Supplier<Boolean> terminationCondition,
+                                Runnable periodicOperation, @Nonnegative long periodNanos,
+                                String poolName, String agentName) {
+        final ScheduledFuture<?> periodic = scheduler.scheduleAtFixedRate(
+                () -> pool.execute(() -> runNamed(poolName + "-periodic", periodicOperation)),
+                periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+        try {
+            final CountDownLatch finished = new CountDownLatch(parallelAgents);
+            for (int i = 0; i < parallelAgents; i++) {
+                pool.execute(new AgentChain(agentThreadName(poolName, agentName, i + 1),
+                        agent, terminationCondition, finished));
+            }
+            await(finished);
+        } finally {
+            periodic.cancel(false);
+        }
+    }
+
+    private static String agentThreadName(String poolName, String agentName, int number) {
+        return poolName + '-' + agentName + '-' + number;
+    }
+
+    private static void runNamed(String name, Runnable task) {
+        final Thread thread = Thread.currentThread();
+        final String workerName = thread.getName();
+        thread.setName(name);
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("Task {} failed!", name, e);
+        } finally {
+            thread.setName(workerName);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                @Override
+                public boolean block() throws InterruptedException {
+                    latch.await();
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return latch.getCount() == 0L;
+                }
+            });
+        } catch (InterruptedException e) {
+            log.warn(INTERRUPTED_EX, e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool forkJoinPool) {
+        final ForkJoinWorkerThread worker =
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+        worker.setName("shared-" + worker.getName());
+        return worker;
+    }
+
+    private static ScheduledExecutorService buildScheduler() {
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+                new AgentsThreadsFactory("shared", "scheduler"));
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * One agent run per task, resubmitting itself to the pool tail while the condition allows.
+     */
+    private static final class AgentChain implements Runnable {
+
+        private final String name;
+        private final Callable<Long> agent;
+        private final Supplier<Boolean> terminationCondition;
+        private final CountDownLatch finished;
+
+        AgentChain(String name, Callable<Long> agent, Supplier<Boolean> terminationCondition,
+                   CountDownLatch finished) {
+            this.name = name;
+            this.agent = agent;
+            this.terminationCondition = terminationCondition;
+            this.finished = finished;
+        }
+
+        // at least one agent run even if the condition is already met
+        @Override
+        public void run() {
+            final Thread thread = Thread.currentThread();
+            final String workerName = thread.getName();
+            thread.setName(name);
+            boolean resubmitted = false;
+            try {
+                agent.call();
+                if (!terminationCondition.get()) {
+                    pool.execute(this);
+                    resubmitted = true;
+                }
+            } catch (Exception e) { // the agent contract
+                log.error("The agent {} failed, it's chain is stopped!", name, e);
+            } finally {
+                thread.setName(workerName);
+                if (!resubmitted) {
+                    finished.countDown();
+                }
+            }
+        }
+    }
+}
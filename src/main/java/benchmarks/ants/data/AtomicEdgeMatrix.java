@@ -0,0 +1,83 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.data;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The heap edge matrix over the float bits kept in an int atomic array. Single cells reads and
+ * writes are volatile, {@link #addAndGet} and {@link #blendAndGet} are compare and set loops, so
+ * concurrent updates are never lost. The whole matrix operations are not atomic.
+ */
+@ThreadSafe
+public final class AtomicEdgeMatrix extends EdgeMatrix {
+
+    private static final long serialVersionUID = 2296505307417284716L;
+
+    @Nonnull
+    private final AtomicIntegerArray cells;
+
+    AtomicEdgeMatrix(@Nonnegative int size, Layout layout) {
+        super(size, layout);
+        cells = new AtomicIntegerArray(cellsAmount());
+    }
+
+    /**
+     * @return the cell value with the delta added.
+     */
+    public float addAndGet(int row, int column, float delta) {
+        final int index = index(row, column);
+        int expected;
+        float updated;
+        do {
+            expected = cells.get(index);
+            updated = Float.intBitsToFloat(expected) + delta;
+        } while (!cells.compareAndSet(index, expected, Float.floatToRawIntBits(updated)));
+        return updated;
+    }
+
+    /**
+     * @return the cell value moved towards the target by the weight part of the distance.
+     */
+    public float blendAndGet(int row, int column, float weight, float target) {
+        final int index = index(row, column);
+        int expected;
+        float updated;
+        do {
+            expected = cells.get(index);
+            final float current = Float.intBitsToFloat(expected);
+            updated = current + (weight * (target - current));
+        } while (!cells.compareAndSet(index, expected, Float.floatToRawIntBits(updated)));
+        return updated;
+    }
+
+    @Override
+    float getAt(int index) {
+        return Float.intBitsToFloat(cells.get(index));
+    }
+
+    @Override
+    void setAt(int index, float value) {
+        cells.set(index, Float.floatToRawIntBits(value));
+    }
+}
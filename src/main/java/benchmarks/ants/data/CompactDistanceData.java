@@ -0,0 +1,188 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.data;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The distances matrix in the smallest exact encoding: the 16 bits unsigned chars if the max
+ * distance fits, the ints otherwise. A symmetric one keeps only the cells above the diagonal,
+ * the row of the bigger vertex in the triangle, the square layout otherwise. The diagonal is not
+ * kept at all.
+ * <p>
+ * So a symmetric task takes 1 byte per cell of the square, the float triangle takes 2 and the
+ * float square 4.
+ */
+@Immutable
+@ParametersAreNonnullByDefault
+public final class CompactDistanceData implements IDistancesData {
+
+    private static final long serialVersionUID = -6094384302213315683L;
+    private static final int MAX_CHAR_DISTANCE = Character.MAX_VALUE;
+
+    @Nonnegative
+    private final int size;
+    private final boolean symmetric;
+    @Nullable
+    private final char[] chars;
+    @Nullable
+    private final int[] ints;
+
+    /**
+     * @param source - the distances to copy.
+     */
+    public CompactDistanceData(IDistancesData source) {
+        size = source.getSize();
+        symmetric = source.isSymmetric();
+        final int[] row = new int[size];
+        int maxDistance = 0;
+        for (int i = 0; i < size; i++) {
+            source.fillRow(i, row);
+            for (int j = 0; j < (symmetric ? i : size); j++) {
+                if ((i != j) && (row[j] > maxDistance)) {
+                    maxDistance = row[j];
+                }
+            }
+        }
+        final int cells = cells(size, symmetric);
+        chars = (maxDistance <= MAX_CHAR_DISTANCE) ? new char[cells] : null;
+        ints = (chars == null) ? new int[cells] : null;
+        for (int i = 0; i < size; i++) {
+            source.fillRow(i, row);
+            for (int j = 0; j < (symmetric ? i : size); j++) {
+                if (i != j) {
+                    put(index(i, j), row[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param chars - the ready cells, the {@link #triangle(int)} rows or the square ones.
+     */
+    CompactDistanceData(@Nonnegative int size, boolean symmetric, char[] chars) {
+        if (chars.length != cells(size, symmetric)) {
+            throw new IllegalArgumentException("The " + chars.length + " cells for the size "
+                    + size + '!');
+        }
+        this.size = size;
+        this.symmetric = symmetric;
+        this.chars = chars;
+        ints = null;
+    }
+
+    @Nonnegative
+    @Override
+    public int getDist(int start, int destiny) {
+        return (start == destiny) ? Integer.MAX_VALUE : cell(index(start, destiny));
+    }
+
+    @Nonnegative
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return symmetric;
+    }
+
+    @Override
+    public void fillRow(int row, int[] destination) {
+        if (!symmetric) {
+            final int offset = row * size;
+            for (int j = 0; j < size; j++) {
+                destination[j] = cell(offset + j);
+            }
+        } else {
+            // the row own cells run contiguously, the rest go down the column
+            final int offset = triangle(row);
+            for (int j = 0; j < row; j++) {
+                destination[j] = cell(offset + j);
+            }
+            for (int j = row + 1; j < size; j++) {
+                destination[j] = cell(triangle(j) + row);
+            }
+        }
+        destination[row] = Integer.MAX_VALUE;
+    }
+
+    @Nonnegative
+    @Override
+    @SuppressWarnings("MethodCanBeVariableArityMethod") // by design
+    public long tourLength(int[] tour) {
+        if (tour.length < 2) {
+            return 0L;
+        }
+        long length = 0L;
+        int from = tour[tour.length - 1];
+        for (final int to : tour) {
+            length += cell(index(from, to));
+            from = to;
+        }
+        return length;
+    }
+
+    /**
+     * @return true if the distances are kept in the 16 bits.
+     */
+    public boolean isCharEncoded() {
+        return chars != null;
+    }
+
+    private int index(int start, int destiny) {
+        if (!symmetric) {
+            return (start * size) + destiny;
+        }
+        return (start > destiny) ? (triangle(start) + destiny) : (triangle(destiny) + start);
+    }
+
+    // the cells before the row, the unsigned shift keeps it right up to the 65535 rows
+    static int triangle(int row) {
+        return (row * (row - 1)) >>> 1;
+    }
+
+    @Nonnegative
+    static int cells(@Nonnegative int size, boolean symmetric) {
+        final long cells = symmetric ? (((long) size * (size - 1)) / 2) : ((long) size * size);
+        if (cells > (Integer.MAX_VALUE - 8)) {
+            throw new IllegalArgumentException("Too big matrix " + size + '!');
+        }
+        return (int) cells;
+    }
+
+    @SuppressWarnings("ConstantConditions") // one of the two is always there
+    private int cell(int index) {
+        return (chars != null) ? chars[index] : ints[index];
+    }
+
+    @SuppressWarnings({"ConstantConditions", "NumericCastThatLosesPrecision"}) // checked fit
+    private void put(int index, int distance) {
+        if (chars != null) {
+            chars[index] = (char) distance;
+        } else {
+            ints[index] = distance;
+        }
+    }
+
+}
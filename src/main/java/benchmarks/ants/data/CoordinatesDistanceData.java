@@ -0,0 +1,196 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.data;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The TSPLIB distances computed from the vertexes coordinates on each call, the memory is O(n)
+ * instead of the n x n matrix.
+ * <p>
+ * The optional hot rows cache keeps some full distance rows, a slot per the start vertex modulo
+ * the cache size, rounded down to a power of two. The row is computed on the
+ * {@link #ROW_FILL_MISSES} consecutive misses of it's slot by the same start vertex, so the row
+ * scans get cached and the scattered tour walks don't.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public final class CoordinatesDistanceData implements IDistancesData {
+
+    private static final long serialVersionUID = -3075493327464526127L;
+    private static final int ROW_FILL_MISSES = 16;
+
+    @Nonnull
+    private final double[] xs;
+    @Nonnull
+    private final double[] ys;
+    @Nonnull
+    private final EdgeWeightType type;
+    @Nonnegative
+    private final int cachedRows;
+    private final int slotMask;
+    @Nullable
+    private transient AtomicReferenceArray<Row> rows;
+    @Nullable
+    private transient int[] missesStarts; // the racy slots statistics, only a heuristic
+    @Nullable
+    private transient int[] misses;
+
+    /**
+     * The EUC_2D distances, no cache.
+     */
+    public CoordinatesDistanceData(double[] xs, double[] ys) {
+        this(xs, ys, EdgeWeightType.EUC_2D, 0);
+    }
+
+    /**
+     * @param xs - the coordinates already {@link EdgeWeightType#convert(double)}-ed.
+     * @param cachedRows - the hot distance rows cache size, 0 means no cache, rounded down to a
+     *                   power of two.
+     */
+    public CoordinatesDistanceData(double[] xs, double[] ys, EdgeWeightType type,
+                                   @Nonnegative int cachedRows) {
+        if ((xs.length != ys.length) || (xs.length <= 0) || (cachedRows < 0)
+                || (type == EdgeWeightType.EXPLICIT)) {
+            throw new IllegalArgumentException("The " + xs.length + " x and " + ys.length
+                    + " y " + type + " coordinates with the " + cachedRows + " rows cache!");
+        }
+        this.type = type;
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+        // a power of two, the slot is taken by the mask
+        this.cachedRows = (cachedRows == 0) ? 0 : Integer.highestOneBit(
+                Math.min(cachedRows, xs.length));
+        slotMask = this.cachedRows - 1;
+        initCache();
+    }
+
+    @Nonnegative
+    @Override
+    public int getDist(int start, int destiny) {
+        if (rows != null) {
+            final int slot = start & slotMask;
+            final Row row = rows.get(slot);
+            if ((row != null) && (row.start == start)) {
+                return row.distances[destiny];
+            }
+            countMiss(slot, start);
+        }
+        return computeDist(start, destiny);
+    }
+
+    @Override
+    public void fillRow(int row, int[] destination) {
+        final Row cached = (rows == null) ? null : rows.get(row & slotMask);
+        if ((cached != null) && (cached.start == row)) {
+            System.arraycopy(cached.distances, 0, destination, 0, cached.distances.length);
+        } else {
+            for (int j = 0; j < xs.length; j++) {
+                destination[j] = computeDist(row, j);
+            }
+        }
+    }
+
+    /**
+     * Computed, the rows cache is not looked up nor filled by the tour edges.
+     */
+    @Nonnegative
+    @Override
+    @SuppressWarnings("MethodCanBeVariableArityMethod") // by design
+    public long tourLength(int[] tour) {
+        if (tour.length < 2) {
+            return 0L;
+        }
+        long length = 0L;
+        int from = tour[tour.length - 1];
+        for (final int to : tour) {
+            length += computeDist(from, to);
+            from = to;
+        }
+        return length;
+    }
+
+    @Nonnegative
+    @Override
+    public int getSize() {
+        return xs.length;
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return true;
+    }
+
+    @Nonnegative
+    private int computeDist(int start, int destiny) {
+        return (start == destiny) ? Integer.MAX_VALUE :
+                type.distance(xs[start], ys[start], xs[destiny], ys[destiny]);
+    }
+
+    @SuppressWarnings("ConstantConditions") // called with the cache only
+    private void countMiss(int slot, int start) {
+        if (missesStarts[slot] != start) {
+            missesStarts[slot] = start;
+            misses[slot] = 1;
+        } else if (++misses[slot] >= ROW_FILL_MISSES) {
+            misses[slot] = 0;
+            final int[] distances = new int[xs.length];
+            for (int destiny = 0; destiny < distances.length; destiny++) {
+                distances[destiny] = computeDist(start, destiny);
+            }
+            rows.lazySet(slot, new Row(start, distances));
+        }
+    }
+
+    private void initCache() {
+        if (cachedRows > 0) {
+            rows = new AtomicReferenceArray<>(cachedRows);
+            missesStarts = new int[cachedRows];
+            misses = new int[cachedRows];
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        initCache();
+    }
+
+    /**
+     * The immutable computed distances row, safely published by it's final fields.
+     */
+    private static final class Row {
+
+        private final int start;
+        @Nonnull
+        private final int[] distances;
+
+        Row(int start, int[] distances) {
+            this.start = start;
+            this.distances = distances;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.data;
+
+/**
+ * The way the task distances are kept.
+ */
+public enum DistancesStorage {
+    /** The full distances matrix, computed once. */
+    MATRIX,
+    /** The exact distances matrix in the 16 bits if they fit, the symmetric triangle only. */
+    COMPACT,
+    /** Only the vertexes coordinates, the distances are computed on demand. */
+    COORDINATES
+}
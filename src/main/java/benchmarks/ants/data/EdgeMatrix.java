@@ -0,0 +1,157 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.data;
+
+import java.io.Serializable;
+import java.nio.FloatBuffer;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Square float matrix of graph edges values stored in one contiguous row-major block, no rows
+ * indirection. The symmetric layout keeps only the lower triangle with the diagonal, so a value
+ * set for (i, j) is the (j, i) value too.
+ * <p>
+ * Implementations are not synchronized, besides the {@link AtomicEdgeMatrix} cells updates.
+ */
+@ParametersAreNonnullByDefault
+public abstract class EdgeMatrix implements Serializable {
+
+    private static final long serialVersionUID = 4311040049014322941L;
+
+    @Nonnegative
+    private final int size;
+    private final boolean symmetric;
+
+    EdgeMatrix(@Nonnegative int size, Layout layout) {
+        this.size = size;
+        symmetric = layout == Layout.SYMMETRIC;
+    }
+
+    @Nonnull
+    public static EdgeMatrix create(@Nonnegative int size, Layout layout, Backing backing) {
+        checkCellsAmount(size, layout, backing);
+        return (backing == Backing.OFF_HEAP) ?
+                new OffHeapEdgeMatrix(size, layout) : new HeapEdgeMatrix(size, layout);
+    }
+
+    /**
+     * @return the heap matrix with the atomic cells updates.
+     */
+    @Nonnull
+    public static AtomicEdgeMatrix atomic(@Nonnegative int size, Layout layout) {
+        checkCellsAmount(size, layout, Backing.HEAP);
+        return new AtomicEdgeMatrix(size, layout);
+    }
+
+    /**
+     * @param cells - the row-major cells of the layout, used as is, no copy.
+     */
+    @Nonnull
+    static EdgeMatrix wrap(@Nonnegative int size, Layout layout, FloatBuffer cells) {
+        checkCellsAmount(size, layout, Backing.OFF_HEAP);
+        return new OffHeapEdgeMatrix(size, layout, cells);
+    }
+
+    @Nonnull
+    public static EdgeMatrix onHeap(@Nonnegative int size, Layout layout) {
+        return create(size, layout, Backing.HEAP);
+    }
+
+    public final float get(int row, int column) {
+        return getAt(index(row, column));
+    }
+
+    public final void set(int row, int column, float value) {
+        setAt(index(row, column), value);
+    }
+
+    public final void add(int row, int column, float delta) {
+        final int index = index(row, column);
+        setAt(index, getAt(index) + delta);
+    }
+
+    public final void fill(float value) {
+        final int cells = cellsAmount();
+        for (int i = 0; i < cells; i++) {
+            setAt(i, value);
+        }
+    }
+
+    public final void multiplyAll(float multiplier) {
+        final int cells = cellsAmount();
+        for (int i = 0; i < cells; i++) {
+            setAt(i, getAt(i) * multiplier);
+        }
+    }
+
+    @Nonnegative
+    public final int getSize() {
+        return size;
+    }
+
+    public final boolean isSymmetric() {
+        return symmetric;
+    }
+
+    abstract float getAt(int index);
+
+    abstract void setAt(int index, float value);
+
+    final int cellsAmount() {
+        return symmetric ? ((size * (size + 1)) >>> 1) : (size * size);
+    }
+
+    final int index(int row, int column) {
+        if (symmetric) {
+            // the unsigned shift keeps the triangle number right up to the 65535 rows
+            return (row >= column) ?
+                    (((row * (row + 1)) >>> 1) + column) : (((column * (column + 1)) >>> 1) + row);
+        }
+        return (row * size) + column;
+    }
+
+    private static void checkCellsAmount(@Nonnegative int size, Layout layout, Backing backing) {
+        final long cells = (layout == Layout.SYMMETRIC) ?
+                (((long) size * (size + 1)) / 2) : ((long) size * size);
+        // int indexes for the arrays, int bytes capacity for the buffers
+        final long maxCells = (backing == Backing.OFF_HEAP) ?
+                (Integer.MAX_VALUE / Float.BYTES) : (Integer.MAX_VALUE - 8);
+        if (cells > maxCells) {
+            throw new IllegalArgumentException("Too big matrix " + size + ' ' + layout + ' '
+                    + backing + '!');
+        }
+    }
+
+    public enum Layout {
+        /** All the n * n cells. */
+        SQUARE,
+        /** The lower triangle with the diagonal, (i, j) and (j, i) is the same cell. */
+        SYMMETRIC
+    }
+
+    public enum Backing {
+        /** The java float array. */
+        HEAP,
+        /** The direct byte buffer outside the java heap, not affected by the GC. */
+        OFF_HEAP
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.data;
+
+/**
+ * The TSPLIB EDGE_WEIGHT_TYPE values supported, the distances as in the TSPLIB reference, the
+ * coordinates are converted once by {@link #convert(double)}.
+ */
+@SuppressWarnings("NumericCastThatLosesPrecision") // the TSPLIB integer distances
+public enum EdgeWeightType {
+    /** The rounded Euclidean distance. */
+    EUC_2D {
+        @Override
+        int distance(double dx, double dy) {
+            return (int) Math.round(Math.sqrt((dx * dx) + (dy * dy)));
+        }
+    },
+    /** The Euclidean distance rounded up. */
+    CEIL_2D {
+        @Override
+        int distance(double dx, double dy) {
+            return (int) Math.ceil(Math.sqrt((dx * dx) + (dy * dy)));
+        }
+    },
+    /** The pseudo Euclidean distance of the att48 and att532 tasks. */
+    ATT {
+        @Override
+        int distance(double dx, double dy) {
+            final double distance = Math.sqrt(((dx * dx) + (dy * dy)) / 10.0);
+            final int rounded = (int) Math.round(distance);
+            return (rounded < distance) ? (rounded + 1) : rounded;
+        }
+    },
+    /** The geographical distance, the coordinates are the DDD.MM latitude and longitude. */
+    GEO {
+        private static final double PI = 3.141592;
+        private static final double EARTH_RADIUS = 6378.388;
+
+        @Override
+        public double convert(double coordinate) {
+            final int degrees = (int) coordinate;
+            return (PI * (degrees + ((5.0 * (coordinate - degrees)) / 3.0))) / 180.0;
+        }
+
+        @Override
+        int distance(double latitudeFrom, double longitudeFrom, double latitudeTo,
+                     double longitudeTo) {
+            final double q1 = Math.cos(longitudeFrom - longitudeTo);
+            final double q2 = Math.cos(latitudeFrom - latitudeTo);
+            final double q3 = Math.cos(latitudeFrom + latitudeTo);
+            return (int) ((EARTH_RADIUS
+                    * Math.acos(0.5 * (((1.0 + q1) * q2) - ((1.0 - q1) * q3)))) + 1.0);
+        }
+    },
+    /** The weights are given in the file, no coordinates. */
+    EXPLICIT;
+
+    /**
+     * @return the file coordinate as the distance takes it.
+     */
+    public double convert(double coordinate) {
+        return coordinate;
+    }
+
+    int distance(double xFrom, double yFrom, double xTo, double yTo) {
+        return distance(xTo - xFrom, yTo - yFrom);
+    }
+
+    int distance(double dx, double dy) {
+        throw new UnsupportedOperationException("No coordinates distance for " + this);
+    }
+}
@@ -18,15 +18,11 @@
 
 package benchmarks.ants.data;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import javax.annotation.concurrent.Immutable;
 
-import javafx.util.Pair;
-
 /**
  * Class for manual filling a simple test data for ACO.
  * @author Sergey Pomelov on 27/04/2016.
@@ -35,7 +31,7 @@ import javafx.util.Pair;
 public final class FixedGraph implements IDistancesData {
 
     private static final long serialVersionUID = -42424710759314150L;
-    private final Map<Integer, List<Pair<Integer, Integer>>> nodes = new HashMap<>(8);
+    private final Map<Integer, Map<Integer, Integer>> nodes = new HashMap<>(8);
 
     public FixedGraph() {
         addSymmetricPath(1, 2, 1);
@@ -52,7 +48,7 @@ public final class FixedGraph implements IDistancesData {
     @Override
     public int getDist(int start, int destiny) {
         if (nodes.containsKey(start + 1)) {
-            return searchInDistList(nodes.get(start + 1), destiny + 1);
+            return nodes.get(start + 1).getOrDefault(destiny + 1, Integer.MAX_VALUE);
         }
         return Integer.MAX_VALUE;
     }
@@ -62,13 +58,9 @@ public final class FixedGraph implements IDistancesData {
         return nodes.size();
     }
 
-    private static int searchInDistList(Iterable<Pair<Integer, Integer>> pairs, int destiny) {
-        for (final Pair<Integer, Integer> pair : pairs) {
-            if (pair.getKey() == destiny) {
-                return pair.getValue();
-            }
-        }
-        return Integer.MAX_VALUE;
+    @Override
+    public boolean isSymmetric() {
+        return true;
     }
 
     private void addSymmetricPath(int start, int end, int length) {
@@ -77,14 +69,7 @@ public final class FixedGraph implements IDistancesData {
     }
 
     private void addOneWayPath(int start, int end, int length) {
-        if (nodes.containsKey(start)) {
-            final List<Pair<Integer, Integer>> node = nodes.get(start);
-            node.add(new Pair<>(end, length));
-        } else {
-            final List<Pair<Integer, Integer>> node = new ArrayList<>(1);
-            node.add(new Pair<>(end, length));
-            nodes.put(start, nodes.getOrDefault(start, node));
-        }
+        nodes.computeIfAbsent(start, node -> new HashMap<>(4)).put(end, length);
     }
 
 }
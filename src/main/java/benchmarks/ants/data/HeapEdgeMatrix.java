@@ -0,0 +1,50 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.data;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * The edge matrix over one flat java float array.
+ */
+@NotThreadSafe
+final class HeapEdgeMatrix extends EdgeMatrix {
+
+    private static final long serialVersionUID = -1873446592150493713L;
+
+    @Nonnull
+    private final float[] cells;
+
+    HeapEdgeMatrix(@Nonnegative int size, Layout layout) {
+        super(size, layout);
+        cells = new float[cellsAmount()];
+    }
+
+    @Override
+    float getAt(int index) {
+        return cells[index];
+    }
+
+    @Override
+    void setAt(int index, float value) {
+        cells[index] = value;
+    }
+}
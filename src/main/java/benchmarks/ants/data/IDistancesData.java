@@ -21,6 +21,7 @@ package benchmarks.ants.data;
 import java.io.Serializable;
 
 import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
 
 /**
  * Interface of Class answering to size of problem (i.d. how man vertexes there) and stating
@@ -41,4 +42,56 @@ public interface IDistancesData extends Serializable {
      */
     @Nonnegative
     int getSize();
+
+    /**
+     * @return true if the distance from the start to the destiny is always the backward one.
+     */
+    default boolean isSymmetric() {
+        return false;
+    }
+
+    /**
+     * The bulk row read, the implementations with a storage do it with no per cell virtual call.
+     * @param row - the start vertex.
+     * @param destination - the at least the size array, the distances to each destiny are put
+     *                    there, the row vertex one is {@link Integer#MAX_VALUE}.
+     */
+    default void fillRow(int row, int[] destination) {
+        final int size = getSize();
+        for (int j = 0; j < size; j++) {
+            destination[j] = getDist(row, j);
+        }
+    }
+
+    /**
+     * @param row - the start vertex.
+     * @return the new array of the distances to each destiny, the caller owns it, see
+     * {@link #fillRow(int, int[])}.
+     */
+    @Nonnull
+    default int[] distRow(int row) {
+        final int[] destination = new int[getSize()];
+        fillRow(row, destination);
+        return destination;
+    }
+
+    /**
+     * @param tour - the vertexes in the visiting order, the closing edge back to the first one is
+     *             counted too.
+     * @return the cycle length, the absent edges count as {@link Integer#MAX_VALUE}.
+     */
+    @Nonnegative
+    @SuppressWarnings("MethodCanBeVariableArityMethod") // by design
+    default long tourLength(int[] tour) {
+        if (tour.length < 2) {
+            return 0L;
+        }
+        long length = 0L;
+        int from = tour[tour.length - 1];
+        for (final int to : tour) {
+            length += getDist(from, to);
+            from = to;
+        }
+        return length;
+    }
 }
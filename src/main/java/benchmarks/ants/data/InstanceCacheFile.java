@@ -0,0 +1,243 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The precomputed task instance next to it's .tsp file: the distances and the edges qualities
+ * matrices and the neighbours lists, for the beta and the candidates amount. The file is memory
+ * mapped, the matrices are used from it with no copy, the small neighbours lists are copied.
+ * <p>
+ * The native byte order file: the header of the {@link #MAGIC}, the {@link #VERSION}, the .tsp
+ * file size and modification time, the size, the symmetry, the beta, the candidates amount and
+ * the lists size, then the distances and the qualities cells, then the neighbours. Any mismatch
+ * means the stale cache, it's rebuilt by the caller.
+ */
+@Immutable
+@ParametersAreNonnullByDefault
+public final class InstanceCacheFile {
+
+    private static final Logger log = LoggerFactory.getLogger(InstanceCacheFile.class);
+
+    private static final int MAGIC = 0x43414953; // CAIS
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 44;
+
+    @Nonnull
+    private final TSPDistanceData distances;
+    @Nonnull
+    private final EdgeMatrix qualities;
+    @Nullable
+    private final int[][] neighbours;
+
+    private InstanceCacheFile(TSPDistanceData distances, EdgeMatrix qualities,
+                              @Nullable int[][] neighbours) {
+        this.distances = distances;
+        this.qualities = qualities;
+        this.neighbours = neighbours;
+    }
+
+    /**
+     * @param task - the bundled task name.
+     * @return the up to date cache, empty if there is no such.
+     */
+    @Nonnull
+    public static Optional<InstanceCacheFile> open(String task, float beta,
+                                                   @Nonnegative int candidates) {
+        final Path cache = locate(task, beta, candidates);
+        if (!Files.isRegularFile(cache)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            final MappedByteBuffer bytes =
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+            bytes.order(ByteOrder.nativeOrder());
+            return read(bytes, source(task), beta, candidates);
+        } catch (IOException | RuntimeException e) {
+            log.warn("The instance cache {} is not readable, rebuilding.", cache, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the cache through a temporary file, a concurrent reader sees the whole file only.
+     * A failure is logged, the run goes on without the cache.
+     * @param neighbours - the lists of the same size, null if there is no lists.
+     */
+    public static void write(String task, float beta, @Nonnegative int candidates,
+                             TSPDistanceData distances, EdgeMatrix qualities,
+                             @Nullable int[][] neighbours) {
+        final Path cache = locate(task, beta, candidates);
+        final EdgeMatrix distancesCells = distances.getDistances();
+        final int listSize = ((neighbours == null) || (neighbours.length == 0)) ?
+                0 : neighbours[0].length;
+        final long bytesAmount = HEADER_BYTES
+                + ((long) distancesCells.cellsAmount() * Float.BYTES)
+                + ((long) qualities.cellsAmount() * Float.BYTES)
+                + ((long) distances.getSize() * listSize * Integer.BYTES);
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(cache.getParent(), task, ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                final MappedByteBuffer bytes =
+                        channel.map(FileChannel.MapMode.READ_WRITE, 0L, bytesAmount);
+                bytes.order(ByteOrder.nativeOrder());
+                final Path source = source(task);
+                bytes.putInt(MAGIC).putInt(VERSION)
+                        .putLong(Files.size(source))
+                        .putLong(Files.getLastModifiedTime(source).toMillis())
+                        .putInt(distances.getSize()).putInt(distances.isSymmetric() ? 1 : 0)
+                        .putFloat(beta).putInt(candidates).putInt(listSize);
+                putCells(bytes, distancesCells);
+                putCells(bytes, qualities);
+                if (neighbours != null) {
+                    for (final int[] list : neighbours) {
+                        for (final int vertex : list) {
+                            bytes.putInt(vertex);
+                        }
+                    }
+                }
+                bytes.force();
+            }
+            Files.move(temporary, cache, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            log.warn("The instance cache {} is not written.", cache, e);
+            deleteQuietly(temporary);
+        }
+    }
+
+    /**
+     * @return the distances over the mapped file.
+     */
+    @Nonnull
+    public IDistancesData getDistances() {
+        return distances;
+    }
+
+    /**
+     * @return the edges qualities over the mapped file, read only.
+     */
+    @Nonnull
+    public EdgeMatrix getQualities() {
+        return qualities;
+    }
+
+    /**
+     * @return the neighbours lists, the closest first, empty for the no candidates cache.
+     */
+    @SuppressWarnings("ReturnOfCollectionOrArrayField") // a fresh copy of the file, not kept
+    @Nonnull
+    public Optional<int[][]> getNeighbours() {
+        return Optional.ofNullable(neighbours);
+    }
+
+    @Nonnull
+    static Path locate(String task, float beta, @Nonnegative int candidates) {
+        return source(task).resolveSibling(task + ".b" + beta + ".k" + candidates + ".cache");
+    }
+
+    @Nonnull
+    private static Path source(String task) {
+        return Paths.get(System.getProperty("user.dir") + TSPDistanceData.taskLocation(task));
+    }
+
+    private static Optional<InstanceCacheFile> read(ByteBuffer bytes, Path source, float beta,
+                                                    int candidates) throws IOException {
+        if ((bytes.remaining() < HEADER_BYTES) || (bytes.getInt() != MAGIC)
+                || (bytes.getInt() != VERSION) || (bytes.getLong() != Files.size(source))
+                || (bytes.getLong() != Files.getLastModifiedTime(source).toMillis())) {
+            return Optional.empty();
+        }
+        final int size = bytes.getInt();
+        final boolean symmetric = bytes.getInt() == 1;
+        if ((Float.floatToIntBits(bytes.getFloat()) != Float.floatToIntBits(beta))
+                || (bytes.getInt() != candidates)) {
+            return Optional.empty();
+        }
+        final int listSize = bytes.getInt();
+        final EdgeMatrix.Layout layout =
+                symmetric ? EdgeMatrix.Layout.SYMMETRIC : EdgeMatrix.Layout.SQUARE;
+        final EdgeMatrix distances = EdgeMatrix.wrap(size, layout, cells(bytes));
+        skipCells(bytes, distances);
+        final EdgeMatrix qualities = EdgeMatrix.wrap(size, layout, cells(bytes));
+        skipCells(bytes, qualities);
+        if (bytes.remaining() != ((long) size * listSize * Integer.BYTES)) {
+            return Optional.empty();
+        }
+        int[][] neighbours = null;
+        if (listSize > 0) {
+            neighbours = new int[size][listSize];
+            for (final int[] list : neighbours) {
+                bytes.asIntBuffer().get(list);
+                bytes.position(bytes.position() + (listSize * Integer.BYTES));
+            }
+        }
+        return Optional.of(new InstanceCacheFile(new TSPDistanceData(distances, symmetric),
+                qualities, neighbours));
+    }
+
+    private static FloatBuffer cells(ByteBuffer bytes) {
+        // a slice is big endian whatever the source order is
+        return bytes.slice().order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    private static void skipCells(ByteBuffer bytes, EdgeMatrix matrix) {
+        bytes.position(bytes.position() + (matrix.cellsAmount() * Float.BYTES));
+    }
+
+    private static void putCells(ByteBuffer bytes, EdgeMatrix matrix) {
+        final int cells = matrix.cellsAmount();
+        for (int i = 0; i < cells; i++) {
+            bytes.putFloat(matrix.getAt(i));
+        }
+    }
+
+    private static void deleteQuietly(@Nullable Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("The temporary file {} is not deleted.", file, e);
+            }
+        }
+    }
+}
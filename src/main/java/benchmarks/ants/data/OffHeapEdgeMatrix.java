@@ -0,0 +1,91 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.data;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * The edge matrix in a direct buffer, the values are kept outside the java heap and the GC scans.
+ */
+@NotThreadSafe
+final class OffHeapEdgeMatrix extends EdgeMatrix {
+
+    private static final long serialVersionUID = 2617330125404452547L;
+
+    @Nonnull
+    private transient FloatBuffer cells;
+
+    OffHeapEdgeMatrix(@Nonnegative int size, Layout layout) {
+        super(size, layout);
+        cells = allocate(cellsAmount());
+    }
+
+    /**
+     * @param cells - the already filled cells, a mapped file region for example.
+     */
+    OffHeapEdgeMatrix(@Nonnegative int size, Layout layout, FloatBuffer cells) {
+        super(size, layout);
+        if (cells.remaining() < cellsAmount()) {
+            throw new IllegalArgumentException("Only " + cells.remaining() + " cells for the "
+                    + size + ' ' + layout + " matrix!");
+        }
+        this.cells = cells;
+    }
+
+    @Override
+    float getAt(int index) {
+        return cells.get(index);
+    }
+
+    @Override
+    void setAt(int index, float value) {
+        cells.put(index, value);
+    }
+
+    private static FloatBuffer allocate(int cellsAmount) {
+        return ByteBuffer.allocateDirect(cellsAmount * Float.BYTES)
+                .order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        final int cellsAmount = cellsAmount();
+        for (int i = 0; i < cellsAmount; i++) {
+            out.writeFloat(cells.get(i));
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        final int cellsAmount = cellsAmount();
+        cells = allocate(cellsAmount);
+        for (int i = 0; i < cellsAmount; i++) {
+            cells.put(i, in.readFloat());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package benchmarks.ants.data;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * The seeded random instances of any size. The same seed gives the same instance whatever the
+ * parallelism is: each vertexes chunk or matrix row draws from it's own {@link SplittableRandom},
+ * split off the seeded one in order before the parallel fill.
+ * <p>
+ * The points are in the million side square and the weights in [1, 1000], as the DIMACS TSP
+ * challenge generators do.
+ */
+@ParametersAreNonnullByDefault
+public enum RandomInstance {
+    /** The uniform integer points, the EUC_2D distances. */
+    EUC_2D,
+    /** The points normally scattered around the size / 100 uniform centres, the EUC_2D ones. */
+    CLUSTERED,
+    /** The symmetric uniform weights. */
+    UNIFORM_MATRIX,
+    /** The asymmetric uniform weights. */
+    ASYMMETRIC;
+
+    private static final int SIDE = 1_000_000;
+    private static final int MAX_WEIGHT = 1000;
+    private static final int CITIES_PER_CLUSTER = 100;
+    private static final int CHUNK = 4096;
+
+    /**
+     * @return the coordinates ones or the compact weights, as they are generated.
+     */
+    @Nonnull
+    public IDistancesData generate(@Nonnegative int size, long seed) {
+        return generate(size, seed, DistancesStorage.COORDINATES, EdgeMatrix.Backing.HEAP, 0);
+    }
+
+    /**
+     * @param storage - the way to keep the distances, the weights are never the coordinates.
+     * @param backing - the matrix storage.
+     * @param cachedRows - the coordinates hot distance rows cache size, 0 means no cache.
+     */
+    @Nonnull
+    public IDistancesData generate(@Nonnegative int size, long seed, DistancesStorage storage,
+                                   EdgeMatrix.Backing backing, @Nonnegative int cachedRows) {
+        if (size < 2) {
+            throw new IllegalArgumentException("Too small instance " + size + '!');
+        }
+        final SplittableRandom random = new SplittableRandom(seed);
+        final IDistancesData generated;
+        switch (this) {
+            case EUC_2D:
+            case CLUSTERED:
+                final double[] xs = new double[size];
+                final double[] ys = new double[size];
+                if (this == EUC_2D) {
+                    uniformPoints(random, xs, ys);
+                } else {
+                    clusteredPoints(random, xs, ys);
+                }
+                generated = new CoordinatesDistanceData(xs, ys, EdgeWeightType.EUC_2D,
+                        (storage == DistancesStorage.COORDINATES) ? cachedRows : 0);
+                break;
+            default:
+                generated = weights(random, size, this == UNIFORM_MATRIX);
+        }
+        switch (storage) {
+            case MATRIX:
+                return TSPDistanceData.copyOf(generated, backing);
+            case COMPACT:
+                return (generated instanceof CompactDistanceData) ?
+                        generated : new CompactDistanceData(generated);
+            default:
+                return generated;
+        }
+    }
+
+    private static void uniformPoints(SplittableRandom random, double[] xs, double[] ys) {
+        final SplittableRandom[] chunks = split(random, (xs.length + CHUNK - 1) / CHUNK);
+        IntStream.range(0, chunks.length).parallel().forEach(chunk -> {
+            final SplittableRandom own = chunks[chunk];
+            for (int i = chunk * CHUNK; i < Math.min(xs.length, (chunk + 1) * CHUNK); i++) {
+                xs[i] = own.nextInt(SIDE);
+                ys[i] = own.nextInt(SIDE);
+            }
+        });
+    }
+
+    private static void clusteredPoints(SplittableRandom random, double[] xs, double[] ys) {
+        final int clusters = Math.max(xs.length / CITIES_PER_CLUSTER, 1);
+        final double[] centresX = new double[clusters];
+        final double[] centresY = new double[clusters];
+        for (int i = 0; i < clusters; i++) {
+            centresX[i] = random.nextInt(SIDE);
+            centresY[i] = random.nextInt(SIDE);
+        }
+        final double deviation = SIDE / Math.sqrt(xs.length);
+        final SplittableRandom[] chunks = split(random, (xs.length + CHUNK - 1) / CHUNK);
+        IntStream.range(0, chunks.length).parallel().forEach(chunk -> {
+            final SplittableRandom own = chunks[chunk];
+            for (int i = chunk * CHUNK; i < Math.min(xs.length, (chunk + 1) * CHUNK); i++) {
+                final int centre = own.nextInt(clusters);
+                // the Box-Muller pair, no gaussians in the SplittableRandom
+                final double radius =
+                        deviation * Math.sqrt(-2.0 * Math.log(1.0 - own.nextDouble()));
+                final double angle = 2.0 * Math.PI * own.nextDouble();
+                xs[i] = Math.rint(centresX[centre] + (radius * Math.cos(angle)));
+                ys[i] = Math.rint(centresY[centre] + (radius * Math.sin(angle)));
+            }
+        });
+    }
+
+    private static CompactDistanceData weights(SplittableRandom random, int size,
+                                               boolean symmetric) {
+        final char[] cells = new char[CompactDistanceData.cells(size, symmetric)];
+        final SplittableRandom[] rows = split(random, size);
+        IntStream.range(0, size).parallel().forEach(i -> {
+            final SplittableRandom own = rows[i];
+            final int from = symmetric ? CompactDistanceData.triangle(i) : (i * size);
+            final int to = from + (symmetric ? i : size);
+            for (int cell = from; cell < to; cell++) {
+                //noinspection NumericCastThatLosesPrecision - fits the 16 bits
+                cells[cell] = (char) own.nextInt(1, MAX_WEIGHT + 1);
+            }
+        });
+        return new CompactDistanceData(size, symmetric, cells);
+    }
+
+    private static SplittableRandom[] split(SplittableRandom random, int parts) {
+        final SplittableRandom[] split = new SplittableRandom[parts];
+        for (int i = 0; i < parts; i++) {
+            split[i] = random.split();
+        }
+        return split;
+    }
+}
@@ -18,31 +18,25 @@
 
 package benchmarks.ants.data;
 
-import com.google.common.base.Charsets;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.regex.Pattern;
+import java.nio.file.Paths;
+import java.util.stream.IntStream;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
 
-import javafx.util.Pair;
+import static util.Constants.FS;
 
 /**
- * Class for loading distances data from .tsp form.
+ * Class for loading distances data from the TSPLIB .tsp and .atsp forms, the full distances
+ * matrix is computed once, the rows in parallel.
  *
  * @author Sergey Pomelov on 26/04/2016.
+ * @see TSPLibFile
  */
 @ThreadSafe
 public final class TSPDistanceData implements IDistancesData {
@@ -50,30 +44,81 @@ public final class TSPDistanceData implements IDistancesData {
     private static final Logger log = LoggerFactory.getLogger(TSPDistanceData.class);
 
     private static final long serialVersionUID = 6519359333995572903L;
-    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_EXACT_FLOAT_INT = 1 << 24;
 
     @Nonnull
-    private int[][] distances = new int[1][1];
-    private int size = 0;
+    private final EdgeMatrix distances;
+    private final int size;
+    private final boolean symmetric;
 
     /**
      * @param fileLocation - is a relative location, appended to the user.dir, root of the project
      */
-    @SuppressWarnings({"OverlyBroadThrowsClause", "OverlyBroadCatchBlock"})
     public TSPDistanceData(String fileLocation) throws IOException {
-        try (BufferedReader br = buildBufferReader(fileLocation)) {
-            distances = readData(br);
-            size = distances.length;
-        } catch (IOException e) {
-            log.error("IOException during construction!", e);
-            throw e;
+        this(fileLocation, EdgeMatrix.Backing.HEAP);
+    }
+
+    /**
+     * @param fileLocation - is a relative location, appended to the user.dir, root of the project
+     * @param backing - the distances storage.
+     */
+    public TSPDistanceData(String fileLocation, EdgeMatrix.Backing backing) throws IOException {
+        this(readFile(fileLocation, backing), backing);
+    }
+
+    /**
+     * @param distances - the ready distances matrix.
+     */
+    TSPDistanceData(EdgeMatrix distances, boolean symmetric) {
+        this.distances = distances;
+        size = distances.getSize();
+        this.symmetric = symmetric;
+    }
+
+    private TSPDistanceData(TSPLibFile file, EdgeMatrix.Backing backing) {
+        distances = file.hasCoordinates() ?
+                convertToDistArray(file.toCoordinatesData(0), backing) : file.getWeights();
+        size = file.getSize();
+        symmetric = file.isSymmetric();
+    }
+
+    /**
+     * @param fileLocation - is a relative location, appended to the user.dir, root of the project
+     * @param storage - the distances matrix, the compact one or the coordinates only, the
+     *                explicit weights tasks are never the coordinates.
+     * @param backing - the matrix storage.
+     * @param cachedRows - the coordinates hot distance rows cache size, 0 means no cache.
+     */
+    @Nonnull
+    public static IDistancesData load(String fileLocation, DistancesStorage storage,
+                                      EdgeMatrix.Backing backing, @Nonnegative int cachedRows)
+            throws IOException {
+        final TSPLibFile file = readFile(fileLocation, backing);
+        switch (storage) {
+            case COORDINATES:
+                return file.hasCoordinates() ?
+                        file.toCoordinatesData(cachedRows) : new TSPDistanceData(file, backing);
+            case COMPACT:
+                return new CompactDistanceData(file.hasCoordinates() ?
+                        file.toCoordinatesData(0) : new TSPDistanceData(file, backing));
+            default:
+                return new TSPDistanceData(file, backing);
         }
     }
 
+    /**
+     * @return the location of the bundled task, relative to the user.dir.
+     */
+    @Nonnull
+    public static String taskLocation(String name) {
+        return FS + "build" + FS + "resources" + FS + "main" + FS + "tsp_data" + FS + name + ".tsp";
+    }
+
     @Nonnegative
     @Override
     public int getDist(int start, int destiny) {
-        return distances[start][destiny];
+        //noinspection NumericCastThatLosesPrecision - exact, checked while reading
+        return (start == destiny) ? Integer.MAX_VALUE : (int) distances.get(start, destiny);
     }
 
     @Nonnegative
@@ -82,69 +127,83 @@ public final class TSPDistanceData implements IDistancesData {
         return size;
     }
 
-    private static BufferedReader buildBufferReader(String fileLocation)
-            throws FileNotFoundException {
-        final FileInputStream fis = new FileInputStream(System.getProperty("user.dir") +
-                fileLocation);
-        final InputStreamReader isr = new InputStreamReader(fis, Charsets.UTF_8);
-        return new BufferedReader(isr);
+    @Override
+    public boolean isSymmetric() {
+        return symmetric;
     }
 
-    private static int[][] readData(BufferedReader br) throws IOException {
-        boolean nodesReadStart = false;
-        final List<Pair<Float, Float>> tempNodes = new ArrayList<>(0);
-        // All right, lines from reader are finite.
-        //noinspection ForLoopWithMissingComponent,MethodCallInLoopCondition
-        for (String line; (((line = br.readLine())) != null) && !"EOF".equals(line); ) {
-            if (nodesReadStart) {
-                readNode(line, tempNodes);
-            } else if ("NODE_COORD_SECTION".equals(line)) {
-                nodesReadStart = true;
-            }
-        }
-        if (tempNodes.size() <= 0) {
-            throw new IllegalStateException("No nodes obtained from file !");
+    @Override
+    public void fillRow(int row, int[] destination) {
+        for (int j = 0; j < size; j++) {
+            //noinspection NumericCastThatLosesPrecision - exact, checked while reading
+            destination[j] = (int) distances.get(row, j);
         }
-        return convertToDistArray(tempNodes);
+        destination[row] = Integer.MAX_VALUE;
     }
 
-    private static int[][] convertToDistArray(List<Pair<Float, Float>> tempNodes) {
-        final int[][] tempDistArray = new int[tempNodes.size()][tempNodes.size()];
-        final int size = tempNodes.size();
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                tempDistArray[i][j] = getDistInner(i, j, tempNodes);
-            }
+    @Nonnegative
+    @Override
+    @SuppressWarnings("MethodCanBeVariableArityMethod") // by design
+    public long tourLength(int[] tour) {
+        if (tour.length < 2) {
+            return 0L;
         }
-        return tempDistArray;
+        long length = 0L;
+        int from = tour[tour.length - 1];
+        for (final int to : tour) {
+            length += (long) distances.get(from, to);
+            from = to;
+        }
+        return length;
     }
 
-    //Rounding distance as in TSPLib for optimal solution from there matching.
-    @SuppressWarnings("NumericCastThatLosesPrecision")
-    @Nonnegative
-    private static int getDistInner(int start, int destiny, List<Pair<Float, Float>> tempNodes) {
-        if (start == destiny) {
-            return Integer.MAX_VALUE;
-        }
-        return (int) Math.round(StrictMath.hypot(
-                getX(destiny, tempNodes) - getX(start, tempNodes),
-                getY(destiny, tempNodes) - getY(start, tempNodes)));
+    @Nonnull
+    EdgeMatrix getDistances() {
+        return distances;
     }
 
-    private static void readNode(CharSequence line, Collection<Pair<Float, Float>> tempNodes) {
-        final String[] formatParts = WHITESPACE.split(line);
-        if (formatParts.length == 3) {
-            tempNodes.add(new Pair<>(Float.valueOf(formatParts[1]), Float.valueOf(formatParts[2])));
-        } else {
-            log.error("Illegal .tsp nodes format line {}!", line);
+    @SuppressWarnings({"OverlyBroadThrowsClause", "OverlyBroadCatchBlock"})
+    private static TSPLibFile readFile(String fileLocation, EdgeMatrix.Backing backing)
+            throws IOException {
+        try {
+            return TSPLibFile.read(Paths.get(System.getProperty("user.dir") + fileLocation),
+                    backing);
+        } catch (IOException e) {
+            log.error("IOException during construction!", e);
+            throw e;
         }
     }
 
-    private static float getX(int node, List<Pair<Float, Float>> tempNodes) {
-        return tempNodes.get(node).getKey();
+    /**
+     * @param source - the distances to copy into the matrix.
+     */
+    @Nonnull
+    static TSPDistanceData copyOf(IDistancesData source, EdgeMatrix.Backing backing) {
+        return new TSPDistanceData(convertToDistArray(source, backing), source.isSymmetric());
     }
 
-    private static float getY(int node, List<Pair<Float, Float>> tempNodes) {
-        return tempNodes.get(node).getValue();
+    // the distinct cells of the rows are set by the parallel tasks
+    private static EdgeMatrix convertToDistArray(IDistancesData source,
+                                                 EdgeMatrix.Backing backing) {
+        final int size = source.getSize();
+        final boolean symmetric = source.isSymmetric();
+        final EdgeMatrix tempDistArray = EdgeMatrix.create(size,
+                symmetric ? EdgeMatrix.Layout.SYMMETRIC : EdgeMatrix.Layout.SQUARE, backing);
+        final ThreadLocal<int[]> rows = ThreadLocal.withInitial(() -> new int[size]);
+        IntStream.range(0, size).parallel().forEach(i -> {
+            final int[] row = rows.get();
+            source.fillRow(i, row);
+            for (int j = 0; j < (symmetric ? i : size); j++) {
+                if (j == i) {
+                    continue;
+                }
+                final int dist = row[j];
+                if (dist > MAX_EXACT_FLOAT_INT) {
+                    throw new IllegalStateException("Too long distance to be kept exactly " + dist);
+                }
+                tempDistArray.set(i, j, dist);
+            }
+        });
+        return tempDistArray;
     }
 }
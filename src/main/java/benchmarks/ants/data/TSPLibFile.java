@@ -0,0 +1,349 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The parsed TSPLIB .tsp or .atsp file: the TYPE, DIMENSION, EDGE_WEIGHT_TYPE and
+ * EDGE_WEIGHT_FORMAT header, the NODE_COORD_SECTION coordinates or the EDGE_WEIGHT_SECTION
+ * weights. The file is memory mapped, the numbers are parsed from it's bytes, no lines strings.
+ */
+@Immutable
+@ParametersAreNonnullByDefault
+final class TSPLibFile {
+
+    private static final int MAX_EXACT_FLOAT_INT = 1 << 24;
+
+    @Nonnegative
+    private final int size;
+    private final boolean symmetric;
+    @Nonnull
+    private final EdgeWeightType type;
+    @Nullable
+    private final double[] xs;
+    @Nullable
+    private final double[] ys;
+    @Nullable
+    private final EdgeMatrix weights;
+
+    private TSPLibFile(int size, boolean symmetric, EdgeWeightType type, @Nullable double[] xs,
+                       @Nullable double[] ys, @Nullable EdgeMatrix weights) {
+        this.size = size;
+        this.symmetric = symmetric;
+        this.type = type;
+        this.xs = xs;
+        this.ys = ys;
+        this.weights = weights;
+    }
+
+    /**
+     * @param backing - the explicit weights storage.
+     */
+    @Nonnull
+    static TSPLibFile read(Path file, EdgeMatrix.Backing backing) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return parse(new Tokens(channel.map(FileChannel.MapMode.READ_ONLY, 0L,
+                    channel.size())), backing);
+        }
+    }
+
+    @Nonnegative
+    int getSize() {
+        return size;
+    }
+
+    boolean isSymmetric() {
+        return symmetric;
+    }
+
+    boolean hasCoordinates() {
+        return xs != null;
+    }
+
+    /**
+     * @return the distances computed on demand, the coordinates types only.
+     */
+    @SuppressWarnings("ConstantConditions") // checked by hasCoordinates()
+    @Nonnull
+    CoordinatesDistanceData toCoordinatesData(@Nonnegative int cachedRows) {
+        if (!hasCoordinates()) {
+            throw new IllegalStateException("No coordinates for the " + type + " weights!");
+        }
+        return new CoordinatesDistanceData(xs, ys, type, cachedRows);
+    }
+
+    /**
+     * @return the explicit weights, the EXPLICIT type only.
+     */
+    @Nonnull
+    EdgeMatrix getWeights() {
+        if (weights == null) {
+            throw new IllegalStateException("No explicit weights for the " + type + " type!");
+        }
+        return weights;
+    }
+
+    private static TSPLibFile parse(Tokens tokens, EdgeMatrix.Backing backing) {
+        int size = 0;
+        boolean symmetric = true;
+        EdgeWeightType type = EdgeWeightType.EUC_2D;
+        String format = "FULL_MATRIX";
+        for (String keyword = tokens.nextKeyword(); keyword != null;
+             keyword = tokens.nextKeyword()) {
+            switch (keyword) {
+                case "TYPE":
+                    symmetric = !"ATSP".equals(tokens.restOfLine());
+                    break;
+                case "DIMENSION":
+                    size = Integer.parseInt(tokens.restOfLine());
+                    break;
+                case "EDGE_WEIGHT_TYPE":
+                    type = EdgeWeightType.valueOf(tokens.restOfLine());
+                    break;
+                case "EDGE_WEIGHT_FORMAT":
+                    format = tokens.restOfLine();
+                    break;
+                case "NODE_COORD_SECTION":
+                    return readCoordinates(tokens, checkSize(size), symmetric, type);
+                case "EDGE_WEIGHT_SECTION":
+                    return new TSPLibFile(checkSize(size), symmetric, EdgeWeightType.EXPLICIT,
+                            null, null, readWeights(tokens, size, symmetric, format, backing));
+                case "EOF":
+                    throw new IllegalStateException("No nodes obtained from file !");
+                default: // NAME, COMMENT and the other not needed entries
+                    tokens.restOfLine();
+            }
+        }
+        throw new IllegalStateException("No nodes obtained from file !");
+    }
+
+    private static int checkSize(int size) {
+        if (size <= 0) {
+            throw new IllegalStateException("No positive DIMENSION before the data section!");
+        }
+        return size;
+    }
+
+    private static TSPLibFile readCoordinates(Tokens tokens, int size, boolean symmetric,
+                                              EdgeWeightType type) {
+        if (type == EdgeWeightType.EXPLICIT) {
+            throw new IllegalStateException("The coordinates of the EXPLICIT weights task!");
+        }
+        final double[] xs = new double[size];
+        final double[] ys = new double[size];
+        for (int i = 0; i < size; i++) {
+            final int node = (int) tokens.nextNumber() - 1;
+            if ((node < 0) || (node >= size)) {
+                throw new IllegalStateException("The node " + (node + 1) + " out of the DIMENSION "
+                        + size + '!');
+            }
+            xs[node] = type.convert(tokens.nextNumber());
+            ys[node] = type.convert(tokens.nextNumber());
+        }
+        return new TSPLibFile(size, symmetric, type, xs, ys, null);
+    }
+
+    private static EdgeMatrix readWeights(Tokens tokens, int size, boolean symmetric,
+                                          String format, EdgeMatrix.Backing backing) {
+        final EdgeMatrix weights = EdgeMatrix.create(size,
+                symmetric ? EdgeMatrix.Layout.SYMMETRIC : EdgeMatrix.Layout.SQUARE, backing);
+        if (!symmetric && !"FULL_MATRIX".equals(format)) {
+            throw new IllegalStateException("The asymmetric task " + format + " weights!");
+        }
+        // the symmetric column formats are the transposed row ones, the same cells
+        for (int i = 0; i < size; i++) {
+            final int from;
+            final int to;
+            switch (format) {
+                case "FULL_MATRIX":
+                    from = 0;
+                    to = size;
+                    break;
+                case "UPPER_ROW":
+                case "LOWER_COL":
+                    from = i + 1;
+                    to = size;
+                    break;
+                case "UPPER_DIAG_ROW":
+                case "LOWER_DIAG_COL":
+                    from = i;
+                    to = size;
+                    break;
+                case "LOWER_ROW":
+                case "UPPER_COL":
+                    from = 0;
+                    to = i;
+                    break;
+                case "LOWER_DIAG_ROW":
+                case "UPPER_DIAG_COL":
+                    from = 0;
+                    to = i + 1;
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported EDGE_WEIGHT_FORMAT " + format);
+            }
+            for (int j = from; j < to; j++) {
+                final double weight = tokens.nextNumber();
+                if (i != j) { // the diagonal is often a big stub
+                    if ((weight < 0.0) || (weight > MAX_EXACT_FLOAT_INT)) {
+                        throw new IllegalStateException("The weight " + weight
+                                + " can't be kept exactly!");
+                    }
+                    weights.set(i, j, (float) weight);
+                }
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * The cursor over the file bytes.
+     */
+    private static final class Tokens {
+
+        private static final int MAX_FAST_DIGITS = 15;
+        private static final int MAX_FAST_POWER = 22;
+        private static final double[] POWERS_OF_TEN = new double[MAX_FAST_POWER + 1];
+
+        static {
+            POWERS_OF_TEN[0] = 1.0;
+            for (int i = 1; i <= MAX_FAST_POWER; i++) {
+                POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+            }
+        }
+
+        @Nonnull
+        private final ByteBuffer bytes;
+
+        Tokens(ByteBuffer bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * @return the header entry or the section name, null on the file end.
+         */
+        @Nullable
+        String nextKeyword() {
+            skipWhitespace();
+            final int start = bytes.position();
+            while (bytes.hasRemaining() && !isSpace(peek()) && (peek() != ':')) {
+                bytes.get();
+            }
+            final String keyword = text(start, bytes.position());
+            return keyword.isEmpty() ? null : keyword;
+        }
+
+        /**
+         * @return the header entry value after the optional colon, trimmed.
+         */
+        @Nonnull
+        String restOfLine() {
+            while (bytes.hasRemaining() && ((peek() == ' ') || (peek() == '\t')
+                    || (peek() == ':'))) {
+                bytes.get();
+            }
+            final int start = bytes.position();
+            while (bytes.hasRemaining() && (peek() != '\n') && (peek() != '\r')) {
+                bytes.get();
+            }
+            return text(start, bytes.position()).trim();
+        }
+
+        /**
+         * @return the next number, the string is made for the very long or huge exponent ones
+         * only, the others are exactly as {@link Double#parseDouble(String)} ones.
+         */
+        double nextNumber() {
+            skipWhitespace();
+            final int start = bytes.position();
+            final boolean negative = (peek() == '-');
+            if (negative || (peek() == '+')) {
+                bytes.get();
+            }
+            long mantissa = 0L;
+            int digits = 0;
+            int exponent = 0;
+            boolean fraction = false;
+            while (bytes.hasRemaining()) {
+                final byte symbol = peek();
+                if ((symbol >= '0') && (symbol <= '9')) {
+                    if ((mantissa != 0L) || (symbol != '0')) {
+                        digits++;
+                    }
+                    mantissa = (mantissa * 10L) + (symbol - '0');
+                    if (fraction) {
+                        exponent--;
+                    }
+                } else if ((symbol == '.') && !fraction) {
+                    fraction = true;
+                } else {
+                    break;
+                }
+                bytes.get();
+            }
+            if (bytes.position() == start) {
+                throw new IllegalStateException("No number at the byte " + start + '!');
+            }
+            if (bytes.hasRemaining() && ((peek() == 'e') || (peek() == 'E'))) {
+                bytes.get();
+                exponent += (int) nextNumber();
+            }
+            if ((digits > MAX_FAST_DIGITS) || (Math.abs(exponent) > MAX_FAST_POWER)) {
+                return Double.parseDouble(text(start, bytes.position()));
+            }
+            final double value = (exponent < 0) ? (mantissa / POWERS_OF_TEN[-exponent])
+                    : (mantissa * POWERS_OF_TEN[exponent]);
+            return negative ? -value : value;
+        }
+
+        private void skipWhitespace() {
+            while (bytes.hasRemaining() && isSpace(peek())) {
+                bytes.get();
+            }
+        }
+
+        private byte peek() {
+            return bytes.get(bytes.position());
+        }
+
+        private static boolean isSpace(byte symbol) {
+            return (symbol == ' ') || (symbol == '\n') || (symbol == '\r') || (symbol == '\t');
+        }
+
+        private String text(int from, int to) {
+            final byte[] text = new byte[to - from];
+            for (int i = 0; i < text.length; i++) {
+                text[i] = bytes.get(from + i);
+            }
+            return new String(text, StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.data;
+
+import java.io.Serializable;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The TSPLIB task: it's name, for loading the data from the name.tsp file, and the best known
+ * solution length, sometimes not optimal.
+ */
+@Immutable
+public final class TSPTask implements Serializable {
+
+    private static final long serialVersionUID = 2190451339458147416L;
+
+    @Nonnegative
+    private final int optimum;
+    @Nonnull
+    private final String name;
+
+    public TSPTask(@Nonnegative int optimum, @Nonnull String name) {
+        this.optimum = optimum;
+        this.name = name;
+    }
+
+    @Nonnegative
+    public int getOptimum() {
+        return optimum;
+    }
+
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name + '(' + optimum + ')';
+    }
+}
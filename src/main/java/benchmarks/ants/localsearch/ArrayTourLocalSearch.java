@@ -0,0 +1,281 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.localsearch;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import benchmarks.ants.colonies.colony.NeighboursLists;
+import benchmarks.ants.data.IDistancesData;
+
+/**
+ * The first improvement 2-opt and Or-opt over the tour array and it's vertexes positions index,
+ * so any move gain is O(1) to evaluate and the move itself is O(n) at most, the shorter tour side
+ * is changed. Only the moves adding an edge to one of the vertex nearest neighbours are tried, the
+ * vertexes with no improving move get the don't look bit until a move touches them.
+ * <p>
+ * Keeps it's arrays between the calls, intended to be kept per worker thread. Expects a symmetric
+ * graph, the moves reverse the tour parts.
+ * @see LocalSearch
+ */
+@NotThreadSafe
+@ParametersAreNonnullByDefault
+public final class ArrayTourLocalSearch implements TourLocalSearch {
+
+    private static final int MAX_SEGMENT = 3;
+
+    @Nonnull
+    private final IDistancesData graph;
+    @Nonnull
+    private final NeighboursLists neighbours;
+    @Nonnull
+    private final LocalSearch moves;
+    @Nonnegative
+    private final int size;
+    @Nonnull
+    private final int[] positions;
+    @Nonnull
+    private final int[] queue; // the vertexes to look at, a ring over the size
+    @Nonnull
+    private final boolean[] queued; // no don't look bit
+    @Nonnull
+    private final int[] segment = new int[MAX_SEGMENT];
+    private int[] tour;
+    private int queueHead;
+    private int queueSize;
+
+    public ArrayTourLocalSearch(IDistancesData graph, NeighboursLists neighbours,
+                                LocalSearch moves) {
+        this.graph = graph;
+        this.neighbours = neighbours;
+        this.moves = moves;
+        size = graph.getSize();
+        positions = new int[size];
+        queue = new int[size];
+        queued = new boolean[size];
+    }
+
+    /**
+     * Improves the tour in place until no move is found.
+     */
+    @Override
+    @SuppressWarnings("MethodCanBeVariableArityMethod") // by design
+    public long improve(int[] tour, long length) {
+        if (size < 5) {
+            return length;
+        }
+        this.tour = tour;
+        queueHead = 0;
+        queueSize = 0;
+        for (int i = 0; i < size; i++) {
+            positions[tour[i]] = i;
+            queued[tour[i]] = false;
+            enqueue(tour[i]);
+        }
+        long improved = length;
+        while (queueSize > 0) {
+            final int vertex = queue[queueHead];
+            queueHead = (queueHead + 1) % size;
+            queueSize--;
+            queued[vertex] = false;
+            long gain = moves.hasTwoOpt() ? tryTwoOpt(vertex) : 0L;
+            if ((gain == 0L) && moves.hasOrOpt()) {
+                gain = tryOrOpt(vertex);
+            }
+            improved -= gain;
+        }
+        this.tour = null;
+        return improved;
+    }
+
+    private long tryTwoOpt(int c1) {
+        for (int direction = 0; direction < 2; direction++) {
+            final boolean forward = direction == 0;
+            final int s1 = forward ? next(c1) : previous(c1);
+            final long radius = dist(c1, s1);
+            for (final int h1 : neighbours.getNeighbours(c1)) {
+                final long added = dist(c1, h1);
+                if (added >= radius) {
+                    break;
+                }
+                final int h2 = forward ? next(h1) : previous(h1);
+                if ((h1 == s1) || (h2 == c1)) {
+                    continue;
+                }
+                final long gain = (radius + dist(h1, h2)) - (added + dist(s1, h2));
+                if (gain > 0L) {
+                    // c1 s1 .. h1 h2 -> c1 h1 .. s1 h2, mirrored for the backward direction
+                    if (forward) {
+                        reverse(positions[s1], positions[h1]);
+                    } else {
+                        reverse(positions[h1], positions[s1]);
+                    }
+                    enqueue(c1, s1, h1, h2);
+                    return gain;
+                }
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Moves the segments of 1 to 3 vertexes starting at the vertex.
+     */
+    private long tryOrOpt(int start) {
+        for (int length = 1; length <= MAX_SEGMENT; length++) {
+            final int first = positions[start];
+            final int end = tour[(first + length - 1) % size];
+            final int before = previous(start);
+            final int after = next(end);
+            final long removed = (dist(before, start) + dist(end, after)) - dist(before, after);
+            if (removed <= 0L) {
+                continue;
+            }
+            for (int side = 0; side < 2; side++) {
+                final int pivot = (side == 0) ? start : end;
+                for (final int h : neighbours.getNeighbours(pivot)) {
+                    if (dist(pivot, h) >= removed) {
+                        break;
+                    }
+                    if (isInSegment(h, first, length)) {
+                        continue;
+                    }
+                    final long gain = tryInsertion(h, next(h), start, end, first, length,
+                            removed);
+                    if (gain > 0L) {
+                        return gain;
+                    }
+                    final long previousGain = tryInsertion(previous(h), h, start, end, first,
+                            length, removed);
+                    if (previousGain > 0L) {
+                        return previousGain;
+                    }
+                }
+            }
+        }
+        return 0L;
+    }
+
+    private long tryInsertion(int x, int y, int start, int end, int first, int length,
+                              long removed) {
+        if (isInSegment(x, first, length) || isInSegment(y, first, length)) {
+            return 0L;
+        }
+        final long edge = dist(x, y);
+        final long straight = (dist(x, start) + dist(end, y)) - edge;
+        final long reversed = (dist(x, end) + dist(start, y)) - edge;
+        final long gain = removed - Math.min(straight, reversed);
+        if (gain > 0L) {
+            final int before = previous(start);
+            final int after = next(end);
+            moveSegment(first, length, x, reversed < straight);
+            enqueue(before, after, x, y);
+            enqueue(start, end);
+        }
+        return gain;
+    }
+
+    /**
+     * Puts the segment between the x and it's next vertex, shifting the shorter side between.
+     */
+    private void moveSegment(int first, int length, int x, boolean reversed) {
+        for (int i = 0; i < length; i++) {
+            segment[i] = tour[(first + i) % size];
+        }
+        final int afterSegment = (first + length) % size;
+        final int forwardShift = ((positions[x] - afterSegment) + size) % size + 1;
+        final int backwardShift = size - length - forwardShift;
+        int place;
+        if (forwardShift <= backwardShift) {
+            for (int i = 0; i < forwardShift; i++) {
+                put((first + i) % size, tour[(afterSegment + i) % size]);
+            }
+            place = (first + forwardShift) % size;
+        } else {
+            final int last = (first + size - 1) % size;
+            for (int i = 0; i < backwardShift; i++) {
+                put((last + length - i + size) % size, tour[(last - i + size) % size]);
+            }
+            place = (first + size - backwardShift) % size;
+        }
+        for (int i = 0; i < length; i++) {
+            put((place + i) % size, segment[reversed ? (length - 1 - i) : i]);
+        }
+    }
+
+    /**
+     * Reverses the tour part from the i to the j position going forward, the reversed complement
+     * is the same cycle when it's shorter.
+     */
+    private void reverse(int from, int to) {
+        int i = from;
+        int j = to;
+        final int inner = ((j - i) + size) % size + 1;
+        if ((inner * 2) > size) {
+            i = (to + 1) % size;
+            j = (from - 1 + size) % size;
+        }
+        for (int swaps = (((j - i) + size) % size + 1) / 2; swaps > 0; swaps--) {
+            final int vertex = tour[i];
+            put(i, tour[j]);
+            put(j, vertex);
+            i = (i + 1) % size;
+            j = (j - 1 + size) % size;
+        }
+    }
+
+    private void put(int position, int vertex) {
+        tour[position] = vertex;
+        positions[vertex] = position;
+    }
+
+    private boolean isInSegment(int vertex, int first, int length) {
+        return (((positions[vertex] - first) + size) % size) < length;
+    }
+
+    private int next(int vertex) {
+        final int position = positions[vertex] + 1;
+        return tour[(position == size) ? 0 : position];
+    }
+
+    private int previous(int vertex) {
+        final int position = positions[vertex];
+        return tour[(position == 0) ? (size - 1) : (position - 1)];
+    }
+
+    private long dist(int from, int to) {
+        return graph.getDist(from, to);
+    }
+
+    private void enqueue(int... vertexes) {
+        for (final int vertex : vertexes) {
+            enqueue(vertex);
+        }
+    }
+
+    private void enqueue(int vertex) {
+        if (!queued[vertex]) {
+            queued[vertex] = true;
+            queue[(queueHead + queueSize) % size] = vertex;
+            queueSize++;
+        }
+    }
+}
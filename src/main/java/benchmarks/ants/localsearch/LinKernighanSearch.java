@@ -0,0 +1,187 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.localsearch;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import benchmarks.ants.colonies.colony.NeighboursLists;
+import benchmarks.ants.data.IDistancesData;
+
+/**
+ * The simplified Lin-Kernighan: from the t1 vertex and it's tour neighbour t2 the chain of the
+ * sequential 2-opt moves goes up to the depth bound. Each step adds the (t2, t3) edge to one of
+ * the t2 nearest neighbours keeping the partial gain positive, the t3 with the best one step look
+ * ahead is taken, and the (t1, t4) edge closes the tour. The chain is cut back to it's best closed
+ * tour, or undone at all if none is shorter. No backtracking, the vertexes with no improving
+ * chain get the don't look bit.
+ * <p>
+ * The tour is the {@link TwoLevelListTour}, so a move is O(sqrt(n)). Expects a symmetric graph.
+ * @see LocalSearch#LIN_KERNIGHAN
+ */
+@NotThreadSafe
+@ParametersAreNonnullByDefault
+public final class LinKernighanSearch implements TourLocalSearch {
+
+    private static final int MIN_SIZE = 8;
+
+    @Nonnull
+    private final IDistancesData graph;
+    @Nonnull
+    private final NeighboursLists neighbours;
+    @Nonnegative
+    private final int depth;
+    @Nonnegative
+    private final int size;
+    @Nonnull
+    private final TwoLevelListTour tour;
+    @Nonnull
+    private final int[] flipsFrom;
+    @Nonnull
+    private final int[] flipsTo;
+    @Nonnull
+    private final int[] queue; // the vertexes to look at, a ring over the size
+    @Nonnull
+    private final boolean[] queued; // no don't look bit
+    private int queueHead;
+    private int queueSize;
+
+    /**
+     * @param depth - the max moves in a chain.
+     */
+    public LinKernighanSearch(IDistancesData graph, NeighboursLists neighbours,
+                              @Nonnegative int depth) {
+        this.graph = graph;
+        this.neighbours = neighbours;
+        this.depth = Math.max(depth, 1);
+        size = graph.getSize();
+        tour = new TwoLevelListTour(size);
+        flipsFrom = new int[this.depth];
+        flipsTo = new int[this.depth];
+        queue = new int[size];
+        queued = new boolean[size];
+    }
+
+    @Override
+    @SuppressWarnings("MethodCanBeVariableArityMethod") // by design
+    public long improve(int[] cycle, long length) {
+        if (size < MIN_SIZE) {
+            return length;
+        }
+        tour.load(cycle);
+        queueHead = 0;
+        queueSize = 0;
+        for (final int vertex : cycle) {
+            queued[vertex] = false;
+            enqueue(vertex);
+        }
+        long improved = length;
+        while (queueSize > 0) {
+            final int vertex = queue[queueHead];
+            queueHead = (queueHead + 1) % size;
+            queueSize--;
+            queued[vertex] = false;
+            long gain = chain(vertex, true);
+            if (gain == 0L) {
+                gain = chain(vertex, false);
+            }
+            improved -= gain;
+        }
+        tour.store(cycle);
+        return improved;
+    }
+
+    /**
+     * @return the applied chain gain, 0 if the tour is unchanged.
+     */
+    private long chain(int t1, boolean forward) {
+        int t2 = forward ? tour.next(t1) : tour.previous(t1);
+        long gain = dist(t1, t2); // the removed minus the added, the closing edge aside
+        long bestGain = 0L;
+        int bestFlips = 0;
+        int flips = 0;
+        while (flips < depth) {
+            int bestT3 = -1;
+            int bestT4 = -1;
+            long bestPartial = Long.MIN_VALUE;
+            final int t2Next = forward ? tour.next(t2) : tour.previous(t2);
+            for (final int t3 : neighbours.getNeighbours(t2)) {
+                final long partial = gain - dist(t2, t3);
+                if (partial <= 0L) {
+                    break;
+                }
+                if ((t3 == t1) || (t3 == t2Next)) {
+                    continue;
+                }
+                final int t4 = forward ? tour.previous(t3) : tour.next(t3);
+                final long lookAhead = partial + dist(t3, t4);
+                if (lookAhead > bestPartial) {
+                    bestPartial = lookAhead;
+                    bestT3 = t3;
+                    bestT4 = t4;
+                }
+            }
+            if (bestT3 < 0) {
+                break;
+            }
+            // t1 t2 .. t4 t3 -> t1 t4 .. t2 t3, mirrored for the backward direction
+            flipsFrom[flips] = forward ? t2 : bestT4;
+            flipsTo[flips] = forward ? bestT4 : t2;
+            tour.reverse(flipsFrom[flips], flipsTo[flips]);
+            flips++;
+            gain = bestPartial;
+            t2 = bestT4;
+            final long closed = gain - dist(t2, t1);
+            if (closed > bestGain) {
+                bestGain = closed;
+                bestFlips = flips;
+            }
+        }
+        while (flips > bestFlips) {
+            flips--;
+            tour.reverse(flipsTo[flips], flipsFrom[flips]);
+        }
+        if (bestGain > 0L) {
+            enqueue(t1);
+            for (int i = 0; i < bestFlips; i++) {
+                enqueue(flipsFrom[i]);
+                enqueue(flipsTo[i]);
+                enqueue(tour.next(flipsFrom[i]));
+                enqueue(tour.previous(flipsFrom[i]));
+                enqueue(tour.next(flipsTo[i]));
+                enqueue(tour.previous(flipsTo[i]));
+            }
+        }
+        return bestGain;
+    }
+
+    private long dist(int from, int to) {
+        return graph.getDist(from, to);
+    }
+
+    private void enqueue(int vertex) {
+        if (!queued[vertex]) {
+            queued[vertex] = true;
+            queue[(queueHead + queueSize) % size] = vertex;
+            queueSize++;
+        }
+    }
+}
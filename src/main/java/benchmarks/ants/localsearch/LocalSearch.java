@@ -0,0 +1,72 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.localsearch;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import benchmarks.ants.colonies.colony.NeighboursLists;
+import benchmarks.ants.data.IDistancesData;
+
+/**
+ * The local search moves applied to each ant tour before it's pheromones update, on the symmetric
+ * graphs only.
+ * @see ArrayTourLocalSearch
+ * @see LinKernighanSearch
+ */
+@ParametersAreNonnullByDefault
+public enum LocalSearch {
+    /** The tours go to the pheromones update as they were built. */
+    NONE,
+    /** Two edges exchange with the segment between them reversed. */
+    TWO_OPT,
+    /** A segment of up to 3 vertexes moved, may be reversed, between the other two vertexes. */
+    OR_OPT,
+    /** Both the moves, the 2-opt first for each vertex. */
+    TWO_OPT_AND_OR_OPT,
+    /** The depth bounded chains of the 2-opt moves over the two level list tour. */
+    LIN_KERNIGHAN;
+
+    /**
+     * @param neighbours - the moves candidates of each vertex, the closest first.
+     * @param depth - the max moves in a {@link #LIN_KERNIGHAN} chain.
+     * @return the new search for one thread, null for {@link #NONE}.
+     */
+    @Nullable
+    public TourLocalSearch create(IDistancesData graph, NeighboursLists neighbours,
+                                  @Nonnegative int depth) {
+        switch (this) {
+            case NONE:
+                return null;
+            case LIN_KERNIGHAN:
+                return new LinKernighanSearch(graph, neighbours, depth);
+            default:
+                return new ArrayTourLocalSearch(graph, neighbours, this);
+        }
+    }
+
+    boolean hasTwoOpt() {
+        return (this == TWO_OPT) || (this == TWO_OPT_AND_OR_OPT);
+    }
+
+    boolean hasOrOpt() {
+        return (this == OR_OPT) || (this == TWO_OPT_AND_OR_OPT);
+    }
+}
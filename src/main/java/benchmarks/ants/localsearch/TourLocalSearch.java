@@ -0,0 +1,35 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.localsearch;
+
+/**
+ * Improves a tour in place, an instance keeps it's arrays between the calls and is intended to be
+ * kept per worker thread.
+ * @see LocalSearch
+ */
+@FunctionalInterface
+public interface TourLocalSearch {
+
+    /**
+     * @param tour - the cycle, the last vertex goes to the first one.
+     * @return the improved cycle length.
+     */
+    @SuppressWarnings("MethodCanBeVariableArityMethod") // by design
+    long improve(int[] tour, long length);
+}
@@ -0,0 +1,288 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.localsearch;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * The tour as the two level doubly-linked list: the vertexes array is cut into about sqrt(n)
+ * segments, each segment has it's own reversed bit and it's neighbours in the segments list. A
+ * path reversal splits at most two segments at the path ends and reverses the segments run
+ * between, or the complement run and the whole tour orientation if that one is shorter, so it is
+ * O(sqrt(n)) instead of the array O(n). The vertexes array is rebuilt into the even segments when
+ * the splits made too many of them.
+ * <p>
+ * The raw order is the one of the vertexes array with the segments bits applied, the tour order is
+ * the raw one or the opposite, by the whole tour reversed bit.
+ */
+@NotThreadSafe
+@ParametersAreNonnullByDefault
+final class TwoLevelListTour {
+
+    private static final int MIN_GROUP_SIZE = 8;
+
+    @Nonnegative
+    private final int size;
+    @Nonnegative
+    private final int groupSize;
+    @Nonnull
+    private int[] order; // the vertexes by the raw array positions
+    @Nonnull
+    private int[] spare; // the rebuild buffer
+    @Nonnull
+    private final int[] at; // the vertex array position
+    @Nonnull
+    private final int[] segmentOf;
+    @Nonnull
+    private final int[] low;
+    @Nonnull
+    private final int[] high;
+    @Nonnull
+    private final int[] nextSegment;
+    @Nonnull
+    private final int[] previousSegment;
+    @Nonnull
+    private final boolean[] segmentReversed;
+    private int segments;
+    private boolean reversed;
+
+    @SuppressWarnings("NumericCastThatLosesPrecision")
+    TwoLevelListTour(@Nonnegative int size) {
+        this.size = size;
+        groupSize = Math.max(MIN_GROUP_SIZE, (int) Math.sqrt(size));
+        // each reversal adds at most two segments, the rebuild returns to the even ones
+        final int maxSegments = (4 * ((size / groupSize) + 1)) + 2;
+        order = new int[size];
+        spare = new int[size];
+        at = new int[size];
+        segmentOf = new int[size];
+        low = new int[maxSegments];
+        high = new int[maxSegments];
+        nextSegment = new int[maxSegments];
+        previousSegment = new int[maxSegments];
+        segmentReversed = new boolean[maxSegments];
+    }
+
+    @SuppressWarnings("MethodCanBeVariableArityMethod") // by design
+    void load(int[] tour) {
+        System.arraycopy(tour, 0, order, 0, size);
+        reversed = false;
+        cut();
+    }
+
+    /**
+     * @param tour - filled in the tour order from it's current first vertex.
+     */
+    @SuppressWarnings("MethodCanBeVariableArityMethod") // by design
+    void store(int[] tour) {
+        int vertex = tour[0];
+        for (int i = 0; i < size; i++) {
+            tour[i] = vertex;
+            vertex = next(vertex);
+        }
+    }
+
+    int next(int vertex) {
+        return reversed ? rawPrevious(vertex) : rawNext(vertex);
+    }
+
+    int previous(int vertex) {
+        return reversed ? rawNext(vertex) : rawPrevious(vertex);
+    }
+
+    /**
+     * Reverses the tour path from the vertex to the other one, the tour neighbours of the path
+     * ends become the other ends neighbours.
+     */
+    void reverse(int from, int to) {
+        if (reversed) {
+            rawReverse(to, from);
+        } else {
+            rawReverse(from, to);
+        }
+    }
+
+    private void rawReverse(int from, int to) {
+        if (rawNext(to) == from) {
+            return; // the whole cycle, the same tour
+        }
+        if ((segments + 2) > low.length) {
+            rebuild();
+        }
+        splitBefore(from);
+        splitBefore(rawNext(to));
+        final int first = segmentOf[from];
+        final int last = segmentOf[to];
+        int run = 1;
+        for (int segment = first; segment != last; segment = nextSegment[segment]) {
+            run++;
+        }
+        if ((run * 2) > segments) {
+            reverseRun(nextSegment[last], previousSegment[first]);
+            reversed = !reversed;
+        } else {
+            reverseRun(first, last);
+        }
+    }
+
+    /**
+     * Reverses the segments run, the rest of the segments list must be not empty.
+     */
+    private void reverseRun(int first, int last) {
+        final int before = previousSegment[first];
+        final int after = nextSegment[last];
+        int segment = first;
+        while (true) {
+            final int following = nextSegment[segment];
+            nextSegment[segment] = previousSegment[segment];
+            previousSegment[segment] = following;
+            segmentReversed[segment] = !segmentReversed[segment];
+            if (segment == last) {
+                break;
+            }
+            segment = following;
+        }
+        nextSegment[before] = last;
+        previousSegment[last] = before;
+        nextSegment[first] = after;
+        previousSegment[after] = first;
+    }
+
+    /**
+     * Makes the vertex the raw first one of it's segment, the smaller part gets the new segment.
+     */
+    private void splitBefore(int vertex) {
+        final int segment = segmentOf[vertex];
+        if (rawFirst(segment) == vertex) {
+            return;
+        }
+        final int position = at[vertex];
+        final int frontLow;
+        final int frontHigh;
+        final int backLow;
+        final int backHigh;
+        if (segmentReversed[segment]) {
+            frontLow = position + 1;
+            frontHigh = high[segment];
+            backLow = low[segment];
+            backHigh = position;
+        } else {
+            frontLow = low[segment];
+            frontHigh = position - 1;
+            backLow = position;
+            backHigh = high[segment];
+        }
+        final int added = segments++;
+        segmentReversed[added] = segmentReversed[segment];
+        if ((frontHigh - frontLow) <= (backHigh - backLow)) {
+            assign(added, frontLow, frontHigh);
+            low[segment] = backLow;
+            high[segment] = backHigh;
+            final int before = previousSegment[segment];
+            previousSegment[added] = before;
+            nextSegment[added] = segment;
+            nextSegment[before] = added;
+            previousSegment[segment] = added;
+        } else {
+            assign(added, backLow, backHigh);
+            low[segment] = frontLow;
+            high[segment] = frontHigh;
+            final int after = nextSegment[segment];
+            nextSegment[added] = after;
+            previousSegment[added] = segment;
+            previousSegment[after] = added;
+            nextSegment[segment] = added;
+        }
+    }
+
+    private void assign(int segment, int from, int to) {
+        low[segment] = from;
+        high[segment] = to;
+        for (int i = from; i <= to; i++) {
+            segmentOf[order[i]] = segment;
+        }
+    }
+
+    /**
+     * Writes the raw order into the array and cuts it into the even segments again.
+     */
+    private void rebuild() {
+        int vertex = order[0];
+        for (int i = 0; i < size; i++) {
+            spare[i] = vertex;
+            vertex = rawNext(vertex);
+        }
+        final int[] rebuilt = spare;
+        spare = order;
+        order = rebuilt;
+        cut();
+    }
+
+    private void cut() {
+        segments = ((size + groupSize) - 1) / groupSize;
+        for (int segment = 0; segment < segments; segment++) {
+            final int from = segment * groupSize;
+            final int to = Math.min(size, from + groupSize) - 1;
+            segmentReversed[segment] = false;
+            nextSegment[segment] = (segment + 1) % segments;
+            previousSegment[segment] = ((segment + segments) - 1) % segments;
+            assign(segment, from, to);
+            for (int i = from; i <= to; i++) {
+                at[order[i]] = i;
+            }
+        }
+    }
+
+    private int rawNext(int vertex) {
+        final int segment = segmentOf[vertex];
+        final int position = at[vertex];
+        if (segmentReversed[segment]) {
+            if (position > low[segment]) {
+                return order[position - 1];
+            }
+        } else if (position < high[segment]) {
+            return order[position + 1];
+        }
+        return rawFirst(nextSegment[segment]);
+    }
+
+    private int rawPrevious(int vertex) {
+        final int segment = segmentOf[vertex];
+        final int position = at[vertex];
+        if (segmentReversed[segment]) {
+            if (position < high[segment]) {
+                return order[position + 1];
+            }
+        } else if (position > low[segment]) {
+            return order[position - 1];
+        }
+        return rawLast(previousSegment[segment]);
+    }
+
+    private int rawFirst(int segment) {
+        return order[segmentReversed[segment] ? high[segment] : low[segment]];
+    }
+
+    private int rawLast(int segment) {
+        return order[segmentReversed[segment] ? low[segment] : high[segment]];
+    }
+}
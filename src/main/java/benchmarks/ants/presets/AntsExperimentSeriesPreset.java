@@ -25,13 +25,17 @@ import java.io.Serializable;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
 
 import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.AntsSettingsBuilder;
 import benchmarks.ants.colonies.colony.CachedRawEdgeQualities;
-import javafx.util.Pair;
+import benchmarks.ants.colonies.islands.IslandsTransport;
+import benchmarks.ants.data.TSPTask;
 import util.Restrictions;
+import util.TimeUtil;
 
 /**
  * @author Sergey Pomelov on 17/05/2016.
@@ -44,7 +48,7 @@ public final class AntsExperimentSeriesPreset implements Serializable {
     private static final long serialVersionUID = -8708406567348424308L;
 
     @Nonnull
-    private final Pair<Integer, String> data;
+    private final TSPTask data;
     @Nonnull
     private final List<Integer> colonies;
     @Nonnull
@@ -57,6 +61,10 @@ public final class AntsExperimentSeriesPreset implements Serializable {
     private final AntsSettings settings;
     @Nonnull
     private final CachedRawEdgeQualities qualities;
+    @Nonnegative
+    private final int islands;
+    @Nonnull
+    private final IslandsTransport islandsTransport;
 
     /**
      * Use the constructors only in lazy style.
@@ -64,18 +72,30 @@ public final class AntsExperimentSeriesPreset implements Serializable {
      * @see AntsExperimentSeriesPresetBuilder
      */
     @SuppressWarnings("SameParameterValue")
-    AntsExperimentSeriesPreset(Pair<Integer, String> data, List<Integer> colonies,
+    AntsExperimentSeriesPreset(TSPTask data, List<Integer> colonies,
                                List<Integer> ants, float evaporation, int runsForAverageResult,
-                               long overallRunTimeInNanos) throws IOException {
-        Restrictions.ifContainsNullFastFail(data, colonies, ants);
+                               long overallRunTimeInNanos,
+                               AntsSettingsBuilder settingsBuilder, int islands,
+                               IslandsTransport islandsTransport) throws IOException {
+        Restrictions.ifContainsNullFastFail(data, colonies, ants, settingsBuilder,
+                islandsTransport);
         Restrictions.ifNotOnlyPositivesFastFail(runsForAverageResult, overallRunTimeInNanos);
+        if ((islands < 1) || colonies.stream().anyMatch(amount -> (amount % islands) != 0)) {
+            throw new IllegalArgumentException("The colonies " + colonies
+                    + " are not split among the " + islands + " islands!");
+        }
         this.data = data;
         this.colonies = ImmutableList.copyOf(colonies);
         this.ants = ImmutableList.copyOf(ants);
         this.runsForAverageResult = runsForAverageResult;
         this.overallRunTimeInNanos = overallRunTimeInNanos;
-        settings = new AntsSettings(data, evaporation, calculateSecondsToRun());
-        qualities = new CachedRawEdgeQualities(settings.getGraph());
+        this.islands = islands;
+        this.islandsTransport = islandsTransport;
+        settings = settingsBuilder.setData(data)
+                .setEvaporationCoefficient(evaporation)
+                .setRunPeriodNanos(TimeUtil.secToNano(calculateSecondsToRun()))
+                .createAntsSettings();
+        qualities = CachedRawEdgeQualities.of(settings);
     }
 
     @SuppressWarnings("NumericCastThatLosesPrecision")
@@ -85,7 +105,7 @@ public final class AntsExperimentSeriesPreset implements Serializable {
     }
 
     @Nonnull
-    public Pair<Integer, String> getData() {
+    public TSPTask getData() {
         return data;
     }
 
@@ -113,4 +133,17 @@ public final class AntsExperimentSeriesPreset implements Serializable {
     public CachedRawEdgeQualities getQualities() {
         return qualities;
     }
+
+    /**
+     * @return the JVMs the colonies are split among, 1 is this one.
+     */
+    @Nonnegative
+    public int getIslands() {
+        return islands;
+    }
+
+    @Nonnull
+    public IslandsTransport getIslandsTransport() {
+        return islandsTransport;
+    }
 }
@@ -24,19 +24,23 @@ import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
-import javafx.util.Pair;
+import benchmarks.ants.colonies.AntsSettingsBuilder;
+import benchmarks.ants.colonies.islands.IslandsTransport;
+import benchmarks.ants.data.TSPTask;
 
 public final class AntsExperimentSeriesPresetBuilder {
     private static final float DEFAULT_EVAPORATION = 0.1F;
-    private Pair<Integer, String> data = null;
+    private TSPTask data = null;
     private List<Integer> colonies = null;
     private List<Integer> ants = null;
     private int runsForAverageResult;
-    private int overallRunTimeInMinutes;
     private long overallRunTimeInNanos;
+    private AntsSettingsBuilder settings = new AntsSettingsBuilder();
+    private int islands = 1;
+    private IslandsTransport islandsTransport = IslandsTransport.TCP;
 
     @VisibleForTesting
-    public AntsExperimentSeriesPresetBuilder setData(Pair<Integer, String> data) {
+    public AntsExperimentSeriesPresetBuilder setData(TSPTask data) {
         this.data = data;
         return this;
     }
@@ -59,7 +63,6 @@ public final class AntsExperimentSeriesPresetBuilder {
         return this;
     }
 
-    @SuppressWarnings("unused")
     @VisibleForTesting
     public AntsExperimentSeriesPresetBuilder setOverallRunTimeInNanos(long overallRunTimeInNanos) {
         this.overallRunTimeInNanos = overallRunTimeInNanos;
@@ -72,13 +75,33 @@ public final class AntsExperimentSeriesPresetBuilder {
     }
 
     AntsExperimentSeriesPresetBuilder setOverallRunTimeInMinutes(int overallRunTimeInMinutes) {
-        this.overallRunTimeInMinutes = overallRunTimeInMinutes;
+        overallRunTimeInNanos = TimeUnit.MINUTES.toNanos(overallRunTimeInMinutes);
+        return this;
+    }
+
+    /**
+     * @param settings - the colonies settings template, the task data, the evaporation and the run
+     *                 period are set by the preset itself.
+     */
+    public AntsExperimentSeriesPresetBuilder setSettings(AntsSettingsBuilder settings) {
+        this.settings = settings;
+        return this;
+    }
+
+    /**
+     * @param islands - the JVMs the colonies are split among equally, 1 runs them all in this one.
+     * @param islandsTransport - the islands tours passing.
+     */
+    public AntsExperimentSeriesPresetBuilder setIslands(int islands,
+                                                        IslandsTransport islandsTransport) {
+        this.islands = islands;
+        this.islandsTransport = islandsTransport;
         return this;
     }
 
     public AntsExperimentSeriesPreset createAntsExperimentPreset() throws IOException {
         return new AntsExperimentSeriesPreset(data, colonies, ants, DEFAULT_EVAPORATION,
-                runsForAverageResult,
-                TimeUnit.MINUTES.toNanos(overallRunTimeInMinutes));
+                runsForAverageResult, overallRunTimeInNanos, settings, islands,
+                islandsTransport);
     }
 }
\ No newline at end of file
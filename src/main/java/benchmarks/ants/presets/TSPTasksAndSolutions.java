@@ -18,25 +18,24 @@
 
 package benchmarks.ants.presets;
 
-import javafx.util.Pair;
+import benchmarks.ants.data.TSPTask;
 
 /**
- * @author Sergey Pomelov on 21/05/2016. Contains pair constants. The first element - the best known
- *         solution, sometimes notoptimal. The second element - task name, for load data from a
- *         name.tsp file.
+ * @author Sergey Pomelov on 21/05/2016. Contains the tasks constants: the best known solution,
+ *         sometimes notoptimal, and the task name, for load data from a name.tsp file.
  */
 final class TSPTasksAndSolutions {
 
-    static final Pair<Integer, String> WI29 = new Pair<>(27603, "wi29");
-    static final Pair<Integer, String> QA194 = new Pair<>(9352, "qa194");
-    static final Pair<Integer, String> XQG237 = new Pair<>(1019, "xqg237");
-    static final Pair<Integer, String> UY734 = new Pair<>(79114, "uy734");
-    static final Pair<Integer, String> LU980 = new Pair<>(11340, "lu980");
-    static final Pair<Integer, String> XIT1083 = new Pair<>(3558, "xit1083");
-    static final Pair<Integer, String> RW1621 = new Pair<>(26051, "rw1621");
-    static final Pair<Integer, String> XQ1662 = new Pair<>(2513, "xql662");
-    static final Pair<Integer, String> DCC1911 = new Pair<>(6396, "dcc1911");
-    static final Pair<Integer, String> MU1979 = new Pair<>(86891, "mu1979");
+    static final TSPTask WI29 = new TSPTask(27603, "wi29");
+    static final TSPTask QA194 = new TSPTask(9352, "qa194");
+    static final TSPTask XQG237 = new TSPTask(1019, "xqg237");
+    static final TSPTask UY734 = new TSPTask(79114, "uy734");
+    static final TSPTask LU980 = new TSPTask(11340, "lu980");
+    static final TSPTask XIT1083 = new TSPTask(3558, "xit1083");
+    static final TSPTask RW1621 = new TSPTask(26051, "rw1621");
+    static final TSPTask XQ1662 = new TSPTask(2513, "xql662");
+    static final TSPTask DCC1911 = new TSPTask(6396, "dcc1911");
+    static final TSPTask MU1979 = new TSPTask(86891, "mu1979");
 
     private TSPTasksAndSolutions() { /* constants holder */ }
 }
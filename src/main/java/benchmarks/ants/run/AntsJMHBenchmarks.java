@@ -0,0 +1,113 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.run;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import benchmarks.ants.colonies.colony.CachedRawEdgeQualities;
+import benchmarks.ants.colonies.colony.ChoiceInfoMatrix;
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+import benchmarks.ants.colonies.colony.ant.AntWorkspace;
+import benchmarks.ants.colonies.colony.ant.RunningAnt;
+import benchmarks.ants.data.EdgeMatrix;
+import benchmarks.ants.data.IDistancesData;
+import benchmarks.ants.data.TSPDistanceData;
+import util.GNUCopyright;
+
+import static org.openjdk.jmh.annotations.Mode.Throughput;
+import static util.Constants.FS;
+
+/**
+ * JMH benchmarks of a single ant run on the bundled .tsp tasks, the score is ant runs per second.
+ * This class can't be final or not public because runtime instrumentation reasons.
+ */
+@SuppressWarnings("WeakerAccess")
+@Fork(1)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Throughput)
+@ParametersAreNonnullByDefault
+public class AntsJMHBenchmarks {
+
+    @Param({"qa194", "xit1083", "dcc1911", "mu1979"})
+    private String task;
+    @Param({"0", "10", "20"})
+    private int candidates;
+    @Param({"HEAP", "OFF_HEAP"})
+    private EdgeMatrix.Backing backing;
+
+    private IDistancesData graph;
+    private CachedRawEdgeQualities qualities;
+    private ChoiceInfoMatrix choiceInfo;
+    private AntWorkspace workspace;
+
+    public static void main(String... args) throws RunnerException {
+        GNUCopyright.printLicence();
+        final Options options = new OptionsBuilder()
+                .include(AntsJMHBenchmarks.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        graph = new TSPDistanceData(FS + "build" + FS + "resources" + FS + "main"
+                + FS + "tsp_data" + FS + task + ".tsp", backing);
+        qualities = new CachedRawEdgeQualities(graph, candidates, 1.0F, backing);
+        final EdgeMatrix trails = EdgeMatrix.create(graph.getSize(),
+                EdgeMatrix.Layout.SYMMETRIC, backing);
+        trails.fill(1.0F);
+        choiceInfo = new ChoiceInfoMatrix(qualities, 1.0F, trails);
+        workspace = new AntWorkspace(graph, qualities);
+    }
+
+    @Benchmark
+    public Optional<AntRunResult> runAnt() {
+        return new RunningAnt(workspace, choiceInfo).getRunResult();
+    }
+
+    /**
+     * The tour construction only, run it with the "-prof gc" to check it allocates nothing.
+     */
+    @Benchmark
+    public long buildTour() {
+        return workspace.buildTour(choiceInfo);
+    }
+}
@@ -22,17 +22,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Map;
 import java.util.OptionalDouble;
 
 import benchmarks.ants.colonies.AntsColonies;
 import benchmarks.ants.colonies.AntsExperimentData;
 import benchmarks.ants.colonies.AntsSettings;
 import benchmarks.ants.colonies.colony.ColonyRunResult;
+import benchmarks.ants.colonies.islands.IslandsCoordinator;
 import benchmarks.ants.presets.AntsExperimentSeriesPreset;
 import benchmarks.ants.presets.ExperimentsSeriesPresetsBuilders;
-import javafx.util.Pair;
 import util.GNUCopyright;
 
 import static benchmarks.ants.colonies.ColonyResultsCompiler.avgResult;
@@ -50,7 +52,7 @@ final class AntsRunner {
 
     private static final Logger log = LoggerFactory.getLogger(AntsRunner.class);
     private static final double PERCENTS = 100.0D;
-    private static final Collection<Pair<String, ColonyRunResult>> overallResults =
+    private static final Collection<Map.Entry<String, ColonyRunResult>> overallResults =
             new ArrayList<>(0);
 
     private AntsRunner() { /* runnable class */ }
@@ -94,7 +96,8 @@ final class AntsRunner {
         final Collection<ColonyRunResult> results = new ArrayList<>(iterations);
         final Collection<Long> tourLengths = new ArrayList<>(iterations);
         for (int i = 0; i < iterations; i++) {
-            final ColonyRunResult output = AntsColonies.runCalculations(data);
+            final ColonyRunResult output = (preset.getIslands() > 1) ?
+                    IslandsCoordinator.runCalculations(data) : AntsColonies.runCalculations(data);
             results.add(output);
             tourLengths.add(output.getResult());
         }
@@ -110,10 +113,11 @@ final class AntsRunner {
         final ColonyRunResult totalResult = avgResult(results, coloniesAmount, antsPerColony);
         final String percentString = formatPercents(preset.getSettings(), tourLengths);
         if (!warmUpRan) {
-            overallResults.add(new Pair<>(percentString, totalResult));
+            overallResults.add(
+                    new AbstractMap.SimpleImmutableEntry<>(percentString, totalResult));
         }
         log.info("{}, {} runs. {} colonies, x {} ants, accuracy: {}, performance: {}.",
-                preset.getData().getValue(), preset.getRunsForAverageResult(),
+                preset.getData().getName(), preset.getRunsForAverageResult(),
                 coloniesAmount, antsPerColony, percentString, totalResult.info());
     }
 
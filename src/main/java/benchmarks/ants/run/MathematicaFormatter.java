@@ -22,10 +22,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.function.Function;
 
 import benchmarks.ants.colonies.colony.ColonyRunResult;
-import javafx.util.Pair;
 
 import static util.Constants.LS;
 
@@ -39,9 +39,10 @@ final class MathematicaFormatter {
     private MathematicaFormatter() { /* package-local utility class */ }
 
     @SuppressWarnings("FeatureEnvy")
-    static void printDataThenClearSource(Collection<Pair<String, ColonyRunResult>> overallResults) {
+    static void printDataThenClearSource(
+            Collection<Map.Entry<String, ColonyRunResult>> overallResults) {
         final StringBuilder out = new StringBuilder(0);
-        fillDataForValue(overallResults, out, "accuracy", Pair::getKey);
+        fillDataForValue(overallResults, out, "accuracy", Map.Entry::getKey);
         fillDataForValue(overallResults, out, "runs", result ->
                 String.valueOf(result.getValue().getAntRuns()));
         fillDataForValue(overallResults, out, "exchanges", result ->
@@ -54,13 +55,12 @@ final class MathematicaFormatter {
         overallResults.clear();
     }
 
-    private static void fillDataForValue(Iterable<Pair<String, ColonyRunResult>> overallResults,
-                                         StringBuilder out, String label,
-                                         Function<Pair<String, ColonyRunResult>, String>
-                                                 valueExtractor) {
+    private static void fillDataForValue(
+            Iterable<Map.Entry<String, ColonyRunResult>> overallResults, StringBuilder out,
+            String label, Function<Map.Entry<String, ColonyRunResult>, String> valueExtractor) {
         out.append(label).append(" = {");
         boolean firstValue = true;
-        for (Pair<String, ColonyRunResult> runResult : overallResults) {
+        for (Map.Entry<String, ColonyRunResult> runResult : overallResults) {
             addValue(out, firstValue, runResult.getValue(), valueExtractor.apply(runResult));
             firstValue = false;
         }
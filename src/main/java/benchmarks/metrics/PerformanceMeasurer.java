@@ -108,9 +108,9 @@ public final class PerformanceMeasurer implements Serializable {
             double avgUserTime = 0L;
             long l = 1;
             for (PerformanceRecord record : records) {
-                avgTime = avg(avgCpuTime, record.getTime(), l);
+                avgTime = avg(avgTime, record.getTime(), l);
                 avgCpuTime = avg(avgCpuTime, record.getCpuTime(), l);
-                avgUserTime = avg(avgCpuTime, record.getUserTime(), l);
+                avgUserTime = avg(avgUserTime, record.getUserTime(), l);
                 l++;
             }
             checkMeasure(avgTime);
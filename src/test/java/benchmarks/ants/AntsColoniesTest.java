@@ -28,9 +28,9 @@ import benchmarks.ants.colonies.AntsColonies;
 import benchmarks.ants.colonies.AntsExperimentData;
 import benchmarks.ants.colonies.AntsSettings;
 import benchmarks.ants.colonies.colony.ColonyRunResult;
+import benchmarks.ants.data.TSPTask;
 import benchmarks.ants.presets.AntsExperimentSeriesPreset;
 import benchmarks.ants.presets.AntsExperimentSeriesPresetBuilder;
-import javafx.util.Pair;
 
 import static junit.framework.TestCase.fail;
 import static org.junit.Assert.assertEquals;
@@ -48,7 +48,7 @@ public class AntsColoniesTest {
     static {
         try {
             WI29_2X2_2_3M = new AntsExperimentSeriesPresetBuilder()
-                    .setData(new Pair<>(27603, "wi29"))
+                    .setData(new TSPTask(27603, "wi29"))
                     .setColonies(Collections.singletonList(2))
                     .setAnts(Collections.singletonList(2))
                     .setRunsForAverageResult(2)
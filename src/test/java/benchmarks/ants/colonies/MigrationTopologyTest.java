@@ -0,0 +1,123 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package benchmarks.ants.colonies;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The topologies are undirected, connected, with no loops and of their degrees.
+ */
+public class MigrationTopologyTest {
+
+    private static final int[] COLONIES = {1, 2, 3, 7, 16, 30, 128};
+    private static final int DEGREE = 4;
+    private static final int[] DEGREES = {1, 2, 3, DEGREE};
+    private static final int SEEDS = 50;
+    private static final long SEED = 42L;
+
+    @Test
+    public void connectedAndUndirected() {
+        for (final MigrationTopology topology : MigrationTopology.values()) {
+            for (final int colonies : COLONIES) {
+                final int[][] neighbours = topology.neighbours(colonies, DEGREE, SEED);
+                assertEquals(colonies, neighbours.length);
+                for (int i = 0; i < colonies; i++) {
+                    for (final int j : neighbours[i]) {
+                        assertTrue(topology + " loop " + i, i != j);
+                        assertTrue(topology + " one way " + i + ' ' + j,
+                                Arrays.binarySearch(neighbours[j], i) >= 0);
+                    }
+                }
+                assertEquals(topology + " " + colonies, colonies, reached(neighbours));
+            }
+        }
+    }
+
+    @Test
+    public void randomRegularConnectedForLowDegrees() {
+        for (final int degree : DEGREES) {
+            for (final int colonies : COLONIES) {
+                for (long seed = 0L; seed < SEEDS; seed++) {
+                    final int[][] neighbours =
+                            MigrationTopology.RANDOM_REGULAR.neighbours(colonies, degree, seed);
+                    assertEquals(degree + " " + colonies + ' ' + seed, colonies,
+                            reached(neighbours));
+                }
+            }
+        }
+        // the degree 1 is raised to 2, so the odd colonies amount is not isolated
+        for (final int[] neighbours : MigrationTopology.RANDOM_REGULAR.neighbours(5, 1, SEED)) {
+            assertEquals(2, neighbours.length);
+        }
+        assertDegrees(MigrationTopology.RANDOM_REGULAR, 30, 2, 2);
+    }
+
+    @Test
+    public void degrees() {
+        final int colonies = 16;
+        assertDegrees(MigrationTopology.FULL, colonies, colonies - 1);
+        assertDegrees(MigrationTopology.RING, colonies, 2);
+        assertDegrees(MigrationTopology.TORUS, colonies, 4);
+        assertDegrees(MigrationTopology.RANDOM_REGULAR, colonies, DEGREE);
+        assertDegrees(MigrationTopology.HYPERCUBE, colonies, 4);
+        final int[][] star = MigrationTopology.STAR.neighbours(colonies, DEGREE, SEED);
+        assertEquals(colonies - 1, star[0].length);
+        assertArrayEquals(new int[]{0}, star[colonies - 1]);
+        assertArrayEquals(MigrationTopology.RANDOM_REGULAR.neighbours(colonies, DEGREE, SEED),
+                MigrationTopology.RANDOM_REGULAR.neighbours(colonies, DEGREE, SEED));
+    }
+
+    private static void assertDegrees(MigrationTopology topology, int colonies, int degree) {
+        assertDegrees(topology, colonies, DEGREE, degree);
+    }
+
+    private static void assertDegrees(MigrationTopology topology, int colonies, int asked,
+                                      int degree) {
+        for (final int[] neighbours : topology.neighbours(colonies, asked, SEED)) {
+            assertEquals(topology.toString(), degree, neighbours.length);
+        }
+    }
+
+    private static int reached(int[][] neighbours) {
+        final boolean[] seen = new boolean[neighbours.length];
+        final Deque<Integer> queue = new ArrayDeque<>();
+        seen[0] = true;
+        queue.add(0);
+        int reached = 1;
+        while (!queue.isEmpty()) {
+            for (final int next : neighbours[queue.poll()]) {
+                if (!seen[next]) {
+                    seen[next] = true;
+                    reached++;
+                    queue.add(next);
+                }
+            }
+        }
+        return reached;
+    }
+}
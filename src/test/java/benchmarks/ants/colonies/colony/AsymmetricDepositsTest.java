@@ -0,0 +1,103 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package benchmarks.ants.colonies.colony;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.stream.IntStream;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.AntsSettingsBuilder;
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+import benchmarks.ants.data.RandomInstance;
+import benchmarks.metrics.PerformanceMeasurer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The Ant System, with each of the update strategies, and the MAX-MIN deposits on an asymmetric
+ * instance change the tour arcs in the walk direction only, the reversed ones stay as the rest.
+ */
+public class AsymmetricDepositsTest {
+
+    // the MAX-MIN min bound passes the max one below about ten vertexes
+    private static final int SIZE = 16;
+    private static final int[] TOUR = IntStream.range(0, SIZE).map(i -> (i * 3) % SIZE).toArray();
+    private static final float TRAIL = 1.0E-4F;
+    private static final float PRECISION = 1.0E-4F;
+
+    @Test
+    public void antSystemDepositsForward() throws IOException {
+        for (final PheromoneUpdateStrategy strategy : PheromoneUpdateStrategy.values()) {
+            final AntsColony colony = colony(new AntsSettingsBuilder()
+                    .setPheromoneUpdateStrategy(strategy));
+            colony.getTrails().transformAll(trail -> TRAIL);
+            PheromonesApplier.applyPheromones(tour(colony), colony.getTrails());
+            colony.getTrails().flush();
+            assertForwardOnly(colony.getTrails());
+        }
+    }
+
+    @Test
+    public void maxMinDepositsForward() throws IOException {
+        final AntsColony colony = colony(new AntsSettingsBuilder()
+                .setAntSystemVariant(AntSystemVariant.MAX_MIN).setTrailSmoothing(1.0F));
+        final AntRunResult best = tour(colony);
+        assertTrue(colony.getStatistics().offerBestRun(best, ""));
+        // in the middle of the bounds, so the deposits are not clamped
+        final float middle = 0.5F / (colony.getSettings().getEvaporationCoefficient()
+                * best.getLength());
+        colony.getTrails().transformAll(trail -> middle);
+        new MaxMinPheromones(colony).update(best);
+        assertForwardOnly(colony.getTrails());
+    }
+
+    private static AntsColony colony(AntsSettingsBuilder builder) throws IOException {
+        final AntsSettings settings = builder.setRandomInstance(RandomInstance.ASYMMETRIC, SIZE, 1L)
+                .createAntsSettings();
+        assertFalse(settings.getGraph().isSymmetric());
+        return new AntsColony("1", 1, settings, CachedRawEdgeQualities.of(settings));
+    }
+
+    private static AntRunResult tour(AntsColony colony) {
+        return AntRunResult.ofTour(TOUR, colony.getDistanceData().tourLength(TOUR),
+                new PerformanceMeasurer());
+    }
+
+    private static void assertForwardOnly(PheromoneTrails trails) {
+        final boolean[][] forward = new boolean[SIZE][SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            forward[TOUR[i]][TOUR[(i + 1) % SIZE]] = true;
+        }
+        final float untouched = trails.getTrail(0, 1); // neither way in the tour
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                if (forward[i][j]) {
+                    assertTrue(trails.getTrail(i, j) > (untouched * (1.0F + PRECISION)));
+                } else if (i != j) {
+                    assertEquals(untouched, trails.getTrail(i, j), untouched * PRECISION);
+                }
+            }
+        }
+    }
+}
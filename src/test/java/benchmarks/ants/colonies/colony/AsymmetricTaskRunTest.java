@@ -0,0 +1,76 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package benchmarks.ants.colonies.colony;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.AntsSettingsBuilder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static util.TimeUtil.mlsToNano;
+
+/**
+ * A short run on the ring17 ATSP task, the explicit full matrix one: the Ant System and the
+ * MAX-MIN colonies find the directed ring, the reversed one is the most expensive.
+ */
+public class AsymmetricTaskRunTest {
+
+    private static final int OPTIMUM = 17;
+    private static final int ANTS = 4;
+
+    @Test
+    public void antSystemFindsTheRing() throws IOException {
+        run(AntSystemVariant.ANT_SYSTEM);
+    }
+
+    @Test
+    public void maxMinFindsTheRing() throws IOException {
+        run(AntSystemVariant.MAX_MIN);
+    }
+
+    private static void run(AntSystemVariant variant) throws IOException {
+        final AntsSettings settings = new AntsSettingsBuilder().setFile("ring17")
+                .setOptimum(OPTIMUM)
+                .setAntSystemVariant(variant).createAntsSettings();
+        assertFalse(settings.getGraph().isSymmetric());
+        final AntsColony colony = new AntsColony(variant.name(), ANTS, settings,
+                CachedRawEdgeQualities.of(settings));
+        final ColonyRunResult result = colony.run(mlsToNano(300));
+
+        final int[] tour = colony.getStatistics().getBestRun()
+                .orElseThrow(AssertionError::new).getTour();
+        final int[] sorted = tour.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(IntStream.range(0, OPTIMUM).toArray(), sorted);
+        assertEquals(result.getResult(), settings.getGraph().tourLength(tour));
+        assertEquals(OPTIMUM, result.getResult());
+        for (int i = 0; i < tour.length; i++) { // walked in the ring direction
+            assertEquals((tour[i] + 1) % OPTIMUM, tour[(i + 1) % tour.length]);
+        }
+    }
+}
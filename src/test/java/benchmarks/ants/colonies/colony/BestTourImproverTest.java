@@ -0,0 +1,83 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.stream.IntStream;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.AntsSettingsBuilder;
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+import benchmarks.ants.localsearch.LocalSearch;
+import benchmarks.metrics.PerformanceMeasurer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The offered best tour comes back to the colony improved in the background, nothing comes after
+ * the colony is closed.
+ */
+public class BestTourImproverTest {
+
+    private static final long TIMEOUT_MS = 10_000L;
+    private static final long POLL_MS = 10L;
+
+    @Test
+    public void offeredTourImproved() throws IOException, InterruptedException {
+        final AntsColony colony = colony();
+        final int[] tour = IntStream.range(0, colony.getDistanceData().getSize()).toArray();
+        final long length = colony.getDistanceData().tourLength(tour);
+        final BestTourImprover improver = new BestTourImprover(colony);
+        improver.offer(AntRunResult.ofTour(tour, length, new PerformanceMeasurer()));
+
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while ((colony.getStatistics().getBestRunLength() >= length)
+                && (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(POLL_MS);
+        }
+        final AntRunResult improved = colony.getStatistics().getBestRun()
+                .orElseThrow(AssertionError::new);
+        assertTrue(improved.getLength() < length);
+        assertEquals(colony.getDistanceData().tourLength(improved.getTour()),
+                improved.getLength());
+        assertArrayEquals(tour, IntStream.range(0, tour.length).toArray()); // a copy improved
+    }
+
+    @Test
+    public void nothingAfterClose() throws IOException, InterruptedException {
+        final AntsColony colony = colony();
+        final int[] tour = IntStream.range(0, colony.getDistanceData().getSize()).toArray();
+        final BestTourImprover improver = new BestTourImprover(colony);
+        improver.close();
+        improver.offer(AntRunResult.ofTour(tour, colony.getDistanceData().tourLength(tour),
+                new PerformanceMeasurer()));
+        Thread.sleep(POLL_MS * 10L);
+        assertEquals(Long.MAX_VALUE, colony.getStatistics().getBestRunLength());
+    }
+
+    private static AntsColony colony() throws IOException {
+        final AntsSettings settings = new AntsSettingsBuilder().setFile("wi29")
+                .setBestTourLocalSearch(LocalSearch.TWO_OPT).createAntsSettings();
+        return new AntsColony("1", 1, settings, CachedRawEdgeQualities.of(settings));
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.AntsSettingsBuilder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static util.TimeUtil.mlsToNano;
+
+/**
+ * A short wi29 run of the {@link ColonyEngine#ITERATIONS} colony: the lockstep iterations run,
+ * the best tour is a valid one and all the colony threads exit.
+ */
+public class ColonyIterationsRunTest {
+
+    private static final int OPTIMUM = 27603;
+    private static final int ANTS = 4;
+    private static final String ID = "iterations";
+    private static final long THREADS_EXIT_MS = 5_000L;
+
+    @Test
+    public void iterationsRun() throws IOException, InterruptedException {
+        final AntsSettings settings = new AntsSettingsBuilder().setFile("wi29")
+                .setOptimum(OPTIMUM)
+                .setColonyEngine(ColonyEngine.ITERATIONS).createAntsSettings();
+        final AntsColony colony = new AntsColony(ID, ANTS, settings,
+                CachedRawEdgeQualities.of(settings));
+        final ColonyRunResult result = colony.run(mlsToNano(300));
+
+        assertTrue(result.getAntRuns() >= ANTS);
+        assertEquals(0L, result.getAntRuns() % ANTS); // whole iterations only
+        assertTrue(result.getResult() >= OPTIMUM);
+        final AntsStatistics statistics = colony.getStatistics();
+        assertEquals(result.getResult(), settings.getGraph().tourLength(
+                statistics.getBestRun().orElseThrow(AssertionError::new).getTour()));
+
+        final long deadline = System.currentTimeMillis() + THREADS_EXIT_MS;
+        while (colonyThreadsAlive() && (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(10L);
+        }
+        assertFalse(colonyThreadsAlive());
+    }
+
+    private static boolean colonyThreadsAlive() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.getName().startsWith("colony" + ID));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.stream.IntStream;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.AntsSettingsBuilder;
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+import benchmarks.ants.colonies.colony.ant.AntWorkspace;
+import benchmarks.ants.colonies.colony.ant.RunningAnt;
+import benchmarks.metrics.PerformanceMeasurer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The Ant Colony System on wi29 with the q0 1: the ants go the best weighted edges, each step
+ * moves it's edge trail towards the initial one and the global update touches the best tour only.
+ */
+public class ColonySystemPheromonesTest {
+
+    private static final float EVAPORATION = 0.1F;
+    private static final float LOCAL_EVAPORATION = 0.2F;
+    private static final float PRECISION = 1.0E-4F;
+    private static final long SEED = 42L;
+
+    @Test
+    public void bestEdgesChosen() throws IOException {
+        final AntsColony colony = colony();
+        final int[] tour = runAnt(colony, false);
+        final float[] choices = colony.getChoiceInfo().getChoices();
+        final int size = tour.length;
+        final boolean[] visited = new boolean[size];
+        visited[tour[0]] = true;
+        for (int step = 1; step < size; step++) {
+            final int from = tour[step - 1];
+            int best = -1;
+            for (int j = 0; j < size; j++) {
+                if (!visited[j] && ((best < 0)
+                        || (choices[(from * size) + j] > choices[(from * size) + best]))) {
+                    best = j;
+                }
+            }
+            assertEquals(best, tour[step]);
+            visited[best] = true;
+        }
+        assertArrayEquals(tour, runAnt(colony, false)); // the same seed, the same tour
+    }
+
+    @Test
+    public void stepsDecayTowardsTheInitialTrail() throws IOException {
+        final AntsColony colony = colony();
+        final PheromoneTrails trails = colony.getTrails();
+        final float initial = initialTrail(colony);
+        assertEquals(initial, trails.getTrail(0, 1), initial * PRECISION);
+        trails.transformAll(trail -> 2.0F * initial);
+
+        final int[] tour = runAnt(colony, true);
+        final float decayed = (2.0F * initial) - (LOCAL_EVAPORATION * initial);
+        assertTourTrails(trails, tour, decayed, 2.0F * initial);
+    }
+
+    @Test
+    public void globalUpdateOnTheBestTour() throws IOException {
+        final AntsColony colony = colony();
+        final float initial = initialTrail(colony);
+        final int size = colony.getTrails().getSize();
+        final int[] tour = IntStream.range(0, size).map(i -> (i * 2) % size).toArray();
+        final long length = colony.getDistanceData().tourLength(tour);
+        //noinspection ConstantConditions - the Ant Colony System variant
+        colony.getColonySystem().get().globalUpdate(
+                AntRunResult.ofTour(tour, length, new PerformanceMeasurer()));
+
+        final float updated = ((1.0F - EVAPORATION) * initial) + (EVAPORATION / length);
+        assertTourTrails(colony.getTrails(), tour, updated, initial);
+    }
+
+    private static AntsColony colony() throws IOException {
+        final AntsSettings settings = new AntsSettingsBuilder().setFile("wi29")
+                .setAntSystemVariant(AntSystemVariant.ANT_COLONY_SYSTEM)
+                .setEvaporationCoefficient(EVAPORATION)
+                .setLocalEvaporation(LOCAL_EVAPORATION)
+                .setExploitationProbability(1.0F).createAntsSettings();
+        return new AntsColony("1", 1, settings, CachedRawEdgeQualities.of(settings));
+    }
+
+    /**
+     * @param stepUpdate - true for the colony local trail update on each step.
+     * @return the tour of the seeded ant.
+     */
+    private static int[] runAnt(AntsColony colony, boolean stepUpdate) {
+        final AntWorkspace workspace = AntColonyInteractions.createWorkspace(colony, SEED);
+        workspace.seedRun(SEED);
+        //noinspection ConstantConditions - the Ant Colony System variant
+        return new RunningAnt(workspace, colony.getChoiceInfo(),
+                stepUpdate ? colony.getColonySystem().get() : null).getRunResult()
+                .orElseThrow(AssertionError::new).getTour().clone();
+    }
+
+    private static float initialTrail(AntsColony colony) {
+        final int size = colony.getTrails().getSize();
+        return (float) (1.0D / (size * (double) ColonySystemPheromones.nearestNeighbourTour(
+                colony.getSettings().getGraph())));
+    }
+
+    /**
+     * @param onTour - the trail of each tour edge, the closing one included.
+     * @param offTour - the trail of the other edges.
+     */
+    private static void assertTourTrails(PheromoneTrails trails, int[] tour, float onTour,
+                                         float offTour) {
+        final int size = tour.length;
+        final boolean[][] onTourEdges = new boolean[size][size];
+        int from = tour[size - 1];
+        for (final int to : tour) {
+            onTourEdges[from][to] = true;
+            onTourEdges[to][from] = true;
+            from = to;
+        }
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (i != j) {
+                    final float expected = onTourEdges[i][j] ? onTour : offTour;
+                    assertEquals(expected, trails.getTrail(i, j), expected * PRECISION);
+                }
+            }
+        }
+    }
+}
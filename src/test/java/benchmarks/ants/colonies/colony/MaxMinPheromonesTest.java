@@ -0,0 +1,182 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.stream.IntStream;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.AntsSettingsBuilder;
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+import benchmarks.metrics.PerformanceMeasurer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The MAX-MIN trails on wi29: they start from the nearest neighbour tour max, only the iteration
+ * or the global best deposits, the trails stay in the bounds and the stagnation resets them.
+ */
+public class MaxMinPheromonesTest {
+
+    private static final float EVAPORATION = 0.1F;
+    private static final float PRECISION = 1.0E-4F;
+
+    @Test
+    public void trailsStartFromTheMax() throws IOException {
+        final AntsColony colony = colony(0, 0);
+        final float max = (float) (1.0D / (EVAPORATION
+                * ColonySystemPheromones.nearestNeighbourTour(colony.getSettings().getGraph())));
+        final int size = colony.getTrails().getSize();
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (i != j) {
+                    assertEquals(max, colony.getTrails().getTrail(i, j), max * PRECISION);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void iterationBestDeposits() throws IOException {
+        final AntsColony colony = colony(0, 0);
+        final AntRunResult globalBest = offerGlobalBest(colony);
+        final AntRunResult iterationBest = tour(colony, 1);
+        betweenTheBounds(colony, globalBest);
+        new MaxMinPheromones(colony).update(iterationBest);
+        assertDeposited(colony, iterationBest, globalBest);
+    }
+
+    @Test
+    public void globalBestDeposits() throws IOException {
+        final AntsColony colony = colony(1, 0);
+        final AntRunResult globalBest = offerGlobalBest(colony);
+        final AntRunResult iterationBest = tour(colony, 1);
+        betweenTheBounds(colony, globalBest);
+        new MaxMinPheromones(colony).update(iterationBest);
+        assertDeposited(colony, globalBest, iterationBest);
+    }
+
+    @Test
+    public void trailsInBounds() throws IOException {
+        final AntsColony colony = colony(0, 0);
+        final AntRunResult best = offerGlobalBest(colony);
+        final MaxMinPheromones maxMin = new MaxMinPheromones(colony);
+        final AntsSettings settings = colony.getSettings();
+        final float max = 1.0F / (EVAPORATION * best.getLength());
+        final float min = max * MaxMinPheromones.minToMaxRatio(settings.getBestTourProbability(),
+                settings.getGraph().getSize());
+        for (int iteration = 0; iteration < 100; iteration++) {
+            maxMin.update(best);
+            assertInBounds(colony.getTrails(), min, max);
+        }
+        // converged: the best tour edges at the max, the rest at the min
+        assertEquals(max, colony.getTrails().getTrail(0, 2), max * PRECISION);
+        assertEquals(min, colony.getTrails().getTrail(0, 1), min * PRECISION);
+    }
+
+    @Test
+    public void stagnationResetsToTheMax() throws IOException {
+        final AntsColony colony = colony(0, 3);
+        final AntRunResult best = offerGlobalBest(colony);
+        final MaxMinPheromones maxMin = new MaxMinPheromones(colony);
+        final float max = 1.0F / (EVAPORATION * best.getLength());
+        for (int iteration = 0; iteration < 3; iteration++) {
+            maxMin.update(best);
+        }
+        assertNotEquals(max, colony.getTrails().getTrail(0, 1), max * PRECISION);
+        maxMin.update(best); // the third one without an improvement
+        final int size = colony.getTrails().getSize();
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (i != j) {
+                    assertEquals(max, colony.getTrails().getTrail(i, j), max * PRECISION);
+                }
+            }
+        }
+    }
+
+    private static AntsColony colony(int globalBestDepositPeriod, int stagnationIterations)
+            throws IOException {
+        final AntsSettings settings = new AntsSettingsBuilder().setFile("wi29")
+                .setAntSystemVariant(AntSystemVariant.MAX_MIN)
+                .setEvaporationCoefficient(EVAPORATION)
+                .setGlobalBestDepositPeriod(globalBestDepositPeriod)
+                .setStagnationIterations(stagnationIterations)
+                .setTrailSmoothing(1.0F).createAntsSettings();
+        return new AntsColony("1", 1, settings, CachedRawEdgeQualities.of(settings));
+    }
+
+    /**
+     * @return the tour of the vertexes by the step, it's edges connect the vertexes step apart.
+     */
+    private static AntRunResult tour(AntsColony colony, int step) {
+        final int size = colony.getTrails().getSize();
+        final int[] tour = IntStream.range(0, size).map(i -> (i * step) % size).toArray();
+        return AntRunResult.ofTour(tour, colony.getDistanceData().tourLength(tour),
+                new PerformanceMeasurer());
+    }
+
+    /**
+     * @return the colony best, the vertexes by 2, wi29 has the prime size.
+     */
+    private static AntRunResult offerGlobalBest(AntsColony colony) {
+        final AntRunResult best = tour(colony, 2);
+        assertTrue(colony.getStatistics().offerBestRun(best, ""));
+        return best;
+    }
+
+    /**
+     * The trails in the middle of the best tour bounds, so the deposits are not clamped.
+     */
+    private static void betweenTheBounds(AntsColony colony, AntRunResult best) {
+        final float middle = 0.5F / (EVAPORATION * best.getLength());
+        colony.getTrails().transformAll(trail -> middle);
+    }
+
+    private static void assertDeposited(AntsColony colony, AntRunResult depositor,
+                                        AntRunResult other) {
+        final PheromoneTrails trails = colony.getTrails();
+        final float untouched = trails.getTrail(0, 5);
+        final int[] deposited = depositor.getTour();
+        final int[] skipped = other.getTour();
+        for (int i = 0; i < deposited.length; i++) {
+            final int next = (i + 1) % deposited.length;
+            assertTrue(trails.getTrail(deposited[i], deposited[next]) > untouched);
+            assertEquals(untouched, trails.getTrail(skipped[i], skipped[next]),
+                    untouched * PRECISION);
+        }
+    }
+
+    private static void assertInBounds(PheromoneTrails trails, float min, float max) {
+        final int size = trails.getSize();
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (i != j) {
+                    final float trail = trails.getTrail(i, j);
+                    assertTrue(trail >= (min * (1.0F - PRECISION)));
+                    assertTrue(trail <= (max * (1.0F + PRECISION)));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package benchmarks.ants.colonies.colony;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import benchmarks.ants.colonies.AntsSettingsBuilder;
+import benchmarks.ants.colonies.colony.ant.AntRandom;
+import benchmarks.ants.colonies.colony.ant.AntWorkspace;
+import benchmarks.ants.data.EdgeMatrix;
+import benchmarks.ants.data.FixedGraph;
+import benchmarks.ants.data.IDistancesData;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The nearest neighbours lists order on the {@link FixedGraph}, the ties kept in the vertexes
+ * order, and the valid wi29 tours of the single candidate ants, which fall back to the whole row
+ * once the candidate is visited.
+ */
+public class NeighboursListsTest {
+
+    private static final int RUNS = 20;
+    private static final long SEED = 42L;
+
+    @Test
+    public void nearestFirstTiesInOrder() {
+        final NeighboursLists lists = new NeighboursLists(new FixedGraph(), 3);
+        assertEquals(3, lists.getListSize());
+        assertArrayEquals(new int[]{1, 2, 3}, lists.getNeighbours(0));
+        assertArrayEquals(new int[]{0, 3, 6}, lists.getNeighbours(2));
+        assertArrayEquals(new int[]{4, 5, 2}, lists.getNeighbours(6));
+    }
+
+    @Test
+    public void wholeRowListsForTheBigK() {
+        for (final int desired : new int[]{6, 100}) {
+            final NeighboursLists lists = new NeighboursLists(new FixedGraph(), desired);
+            assertEquals(6, lists.getListSize());
+            // the not connected vertexes are the farthest ones, in the vertexes order too
+            assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6}, lists.getNeighbours(0));
+            assertArrayEquals(new int[]{4, 5, 2, 0, 1, 3}, lists.getNeighbours(6));
+        }
+    }
+
+    @Test
+    public void singleCandidateToursAreValid() throws IOException {
+        final IDistancesData graph = new AntsSettingsBuilder().setFile("wi29")
+                .createAntsSettings().getGraph();
+        final CachedRawEdgeQualities qualities = new CachedRawEdgeQualities(graph, 1, 1.0F,
+                EdgeMatrix.Backing.HEAP);
+        final NeighboursLists lists = qualities.getNeighboursLists()
+                .orElseThrow(AssertionError::new);
+        assertEquals(1, lists.getListSize());
+        final EdgeMatrix trails = EdgeMatrix.create(graph.getSize(),
+                EdgeMatrix.Layout.SYMMETRIC, EdgeMatrix.Backing.HEAP);
+        trails.fill(1.0F);
+        final ChoiceInfoMatrix choiceInfo = new ChoiceInfoMatrix(qualities, 1.0F, trails);
+        // the proportional and the best edge choices
+        for (final float exploitation : new float[]{0.0F, 1.0F}) {
+            final AntWorkspace workspace = new AntWorkspace(graph, qualities, exploitation, null,
+                    AntRandom.split(SEED, 1L));
+            int fallbacks = 0;
+            for (int run = 0; run < RUNS; run++) {
+                workspace.seedNextRun(RandomStreams.SEEDED);
+                final long length = workspace.buildTour(choiceInfo);
+                final int[] tour = workspace.getTour();
+                assertEquals(graph.tourLength(tour), length);
+                assertValidPermutation(tour);
+                fallbacks += fallbacks(tour, lists);
+            }
+            assertTrue(fallbacks > 0);
+        }
+    }
+
+    /**
+     * @return the steps with the visited candidate, the not visited one is always taken.
+     */
+    private static int fallbacks(int[] tour, NeighboursLists lists) {
+        final boolean[] visited = new boolean[tour.length];
+        visited[tour[0]] = true;
+        int fallbacks = 0;
+        for (int step = 1; step < tour.length; step++) {
+            final int candidate = lists.getNeighbours(tour[step - 1])[0];
+            if (visited[candidate]) {
+                fallbacks++;
+            } else {
+                assertEquals(candidate, tour[step]);
+            }
+            visited[tour[step]] = true;
+        }
+        return fallbacks;
+    }
+
+    private static void assertValidPermutation(int[] tour) {
+        final int[] sorted = tour.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(IntStream.range(0, tour.length).toArray(), sorted);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.AntsSettingsBuilder;
+import benchmarks.ants.colonies.colony.ant.TourTrailDelta;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Many threads deposit on the same trails at once, every strategy must keep all the deposits.
+ * Each tour puts 1.0 on the (i, i + 1) edges, so the sums stay exact floats.
+ */
+@RunWith(Parameterized.class)
+public class PheromoneTrailsStressTest {
+
+    private static final int THREADS = 8;
+    private static final int TOURS_PER_THREAD = 50_000;
+    private static final float INITIAL_TRAIL = 1.0F;
+
+    private final PheromoneUpdateStrategy strategy;
+
+    public PheromoneTrailsStressTest(PheromoneUpdateStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> strategies() {
+        final List<Object[]> strategies = new ArrayList<>(0);
+        for (final PheromoneUpdateStrategy strategy : PheromoneUpdateStrategy.values()) {
+            strategies.add(new Object[]{strategy});
+        }
+        return strategies;
+    }
+
+    @Test
+    public void noDepositLost() throws Exception {
+        final PheromoneTrails trails = createTrails(0.0F);
+        depositConcurrently(trails);
+
+        final int size = trails.getSize();
+        final float expected = INITIAL_TRAIL + (THREADS * TOURS_PER_THREAD);
+        for (int i = 0; i < size; i++) {
+            final int next = (i + 1) % size;
+            assertEquals("trail " + i + "->" + next, expected, trails.getTrail(i, next), 0.0F);
+            if ((i + 2) < size) {
+                assertEquals("untouched trail " + i + "->" + (i + 2),
+                        INITIAL_TRAIL, trails.getTrail(i, i + 2), 0.0F);
+            }
+        }
+    }
+
+    @Test
+    public void evaporationRescalingKeepsTrailsBounded() throws Exception {
+        // a tour deposit 1.0 and the half evaporation converge to 2.0, rescaling often
+        final PheromoneTrails trails = createTrails(0.5F);
+        depositConcurrently(trails);
+
+        final int size = trails.getSize();
+        for (int i = 0; i < size; i++) {
+            final float trail = trails.getTrail(i, (i + 1) % size);
+            assertTrue("trail " + i + " is " + trail, (trail > 0.99F) && (trail < 2.01F));
+        }
+    }
+
+    @Test
+    public void transformAllClampsEveryTrail() throws Exception {
+        final PheromoneTrails trails = createTrails(0.5F);
+        depositConcurrently(trails);
+        // the ring trails are near 2.0, the untouched ones evaporated to almost 0.0
+        trails.transformAll(trail -> Math.min(Math.max(trail, 0.5F), 1.5F));
+
+        final int size = trails.getSize();
+        for (int i = 0; i < size; i++) {
+            assertEquals("trail " + i, 1.5F, trails.getTrail(i, (i + 1) % size), 1.0E-6F);
+            if ((i + 2) < size) {
+                assertEquals("untouched trail " + i, 0.5F, trails.getTrail(i, i + 2), 1.0E-6F);
+            }
+        }
+    }
+
+    private PheromoneTrails createTrails(float evaporation) throws IOException {
+        final AntsSettings settings = new AntsSettingsBuilder().setFile("wi29")
+                .setEvaporationCoefficient(evaporation)
+                .setInitialTrail(INITIAL_TRAIL)
+                .setPheromoneUpdateStrategy(strategy)
+                .createAntsSettings();
+        return PheromoneTrails.create(settings, new CachedRawEdgeQualities(settings.getGraph()));
+    }
+
+    private static void depositConcurrently(PheromoneTrails trails) throws Exception {
+        final TourTrailDelta delta = buildRingDelta(trails.getSize());
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final Collection<Future<?>> deposits = new ArrayList<>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                deposits.add(executor.submit(() -> {
+                    start.await();
+                    for (int tour = 0; tour < TOURS_PER_THREAD; tour++) {
+                        trails.evaporateAndDeposit(delta);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (final Future<?> deposit : deposits) {
+                deposit.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        trails.flush();
+    }
+
+    private static TourTrailDelta buildRingDelta(int size) {
+        final float[] deltas = new float[size];
+        final int[] columns = new int[size];
+        Arrays.fill(deltas, 1.0F);
+        for (int i = 0; i < size; i++) {
+            columns[i] = (i + 1) % size;
+        }
+        return new TourTrailDelta(deltas, columns);
+    }
+}
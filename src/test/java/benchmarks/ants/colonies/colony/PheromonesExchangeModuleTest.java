@@ -0,0 +1,95 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.AntsSettingsBuilder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A colony trail moves towards the neighbour one by each sharing mode, the bytes are counted.
+ */
+public class PheromonesExchangeModuleTest {
+
+    private static final float STRONG_TRAIL = 11.0F;
+    private static final float WEIGHT = 0.5F;
+
+    @Test
+    public void weightedMerge() throws IOException {
+        final AntsColony[] colonies = colonies(PheromoneSharing.WEIGHTED_MERGE);
+        exchange(colonies[0]);
+        assertEquals(6.0F, colonies[0].getTrails().getTrail(0, 1), 1.0E-5F);
+        assertEquals(1.0F, colonies[0].getTrails().getTrail(0, 2), 1.0E-5F);
+        final int size = colonies[0].getTrails().getSize();
+        assertEquals(((long) size * (size - 1) / 2L) * Float.BYTES,
+                colonies[0].getPheromonesExchange().getExchangedBytes());
+    }
+
+    @Test
+    public void topEdges() throws IOException {
+        final AntsColony[] colonies = colonies(PheromoneSharing.TOP_K_EDGES);
+        exchange(colonies[1]);
+        exchange(colonies[0]);
+        assertEquals(6.0F, colonies[0].getTrails().getTrail(0, 1), 1.0E-5F);
+        assertEquals(6.0F, colonies[0].getTrails().getTrail(1, 0), 1.0E-5F);
+        assertTrue(colonies[0].getPheromonesExchange().getExchangedBytes() > 0L);
+    }
+
+    @Test
+    public void sharedGlobal() throws IOException {
+        final AntsColony[] colonies = colonies(PheromoneSharing.SHARED_GLOBAL);
+        final SharedTrails shared = new SharedTrails(colonies[0].getSettings(), 2);
+        colonies[0].shareTrails(shared);
+        colonies[1].shareTrails(shared);
+        exchange(colonies[1]);
+        exchange(colonies[0]);
+        // the common trail is 6.0 after the first colony, 3.5 after the second one
+        assertEquals(8.5F, colonies[1].getTrails().getTrail(0, 1), 1.0E-5F);
+        assertEquals(2.25F, colonies[0].getTrails().getTrail(0, 1), 1.0E-5F);
+    }
+
+    /**
+     * @return two neighbour colonies, the second one has the strong (0, 1) trail.
+     */
+    private static AntsColony[] colonies(PheromoneSharing sharing) throws IOException {
+        final AntsSettings settings = new AntsSettingsBuilder().setFile("wi29")
+                .setEvaporationCoefficient(0.0F)
+                .setPheromoneSharing(sharing)
+                .setPheromoneSharingWeight(WEIGHT)
+                .setPheromoneSharingTopEdges(1).createAntsSettings();
+        final CachedRawEdgeQualities qualities = CachedRawEdgeQualities.of(settings);
+        final AntsColony first = new AntsColony("1", 1, settings, qualities);
+        final AntsColony second = new AntsColony("2", 1, settings, qualities);
+        first.addNeighbours(Collections.singletonList(second));
+        second.addNeighbours(Collections.singletonList(first));
+        second.getTrails().blend(0, 1, 1.0F, STRONG_TRAIL);
+        return new AntsColony[]{first, second};
+    }
+
+    private static void exchange(AntsColony colony) {
+        colony.getPheromonesExchange().exchange(colony.getTrails());
+    }
+}
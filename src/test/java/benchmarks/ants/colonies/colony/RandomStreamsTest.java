@@ -0,0 +1,71 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package benchmarks.ants.colonies.colony;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import benchmarks.ants.colonies.AntsSettingsBuilder;
+import benchmarks.ants.colonies.colony.ant.AntRandom;
+import benchmarks.ants.colonies.colony.ant.AntWorkspace;
+import benchmarks.ants.data.EdgeMatrix;
+import benchmarks.ants.data.IDistancesData;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * The seeded ant runs build the same tours in any workspace.
+ */
+public class RandomStreamsTest {
+
+    private static final int RUNS = 20;
+    private static final long SEED = 42L;
+
+    @Test
+    public void sameSeedSameTours() throws IOException {
+        final IDistancesData graph = new AntsSettingsBuilder().setFile("qa194")
+                .createAntsSettings().getGraph();
+        final CachedRawEdgeQualities qualities = new CachedRawEdgeQualities(graph, 10, 1.0F,
+                EdgeMatrix.Backing.HEAP);
+        final EdgeMatrix trails = EdgeMatrix.create(graph.getSize(),
+                EdgeMatrix.Layout.SYMMETRIC, EdgeMatrix.Backing.HEAP);
+        trails.fill(1.0F);
+        final ChoiceInfoMatrix choiceInfo = new ChoiceInfoMatrix(qualities, 1.0F, trails);
+        final long stream = AntRandom.split(SEED, 1L);
+        final AntWorkspace first = new AntWorkspace(graph, qualities, 0.5F, null, stream);
+        final AntWorkspace second = new AntWorkspace(graph, qualities, 0.5F, null, stream);
+
+        int[] previous = null;
+        for (int run = 0; run < RUNS; run++) {
+            first.seedNextRun(RandomStreams.SEEDED);
+            second.seedRun(RandomStreams.SEEDED.runSeed(stream, run));
+            final long length = first.buildTour(choiceInfo);
+            final int[] tour = first.getTour().clone();
+            assertEquals(length, second.buildTour(choiceInfo));
+            assertArrayEquals(tour, second.getTour());
+            assertFalse(Arrays.equals(previous, tour));
+            previous = tour;
+        }
+    }
+}
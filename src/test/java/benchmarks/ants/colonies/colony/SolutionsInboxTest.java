@@ -0,0 +1,67 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package benchmarks.ants.colonies.colony;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+import benchmarks.metrics.PerformanceMeasurer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The inbox keeps the best pending solution of each sender and gives it once.
+ */
+public class SolutionsInboxTest {
+
+    private static final int[] TOUR = {0, 1, 2, 3};
+
+    @Test
+    public void coalescesBySender() {
+        final SolutionsInbox inbox = new SolutionsInbox();
+        final int first = inbox.addSender();
+        final int second = inbox.addSender();
+        inbox.offer(first, solution(30L));
+        inbox.offer(first, solution(10L));
+        inbox.offer(first, solution(20L));
+        inbox.offer(second, solution(40L));
+
+        final List<Long> received = new ArrayList<>(2);
+        inbox.drain(result -> received.add(result.getLength()));
+        assertEquals(2, received.size());
+        assertTrue(received.contains(10L));
+        assertTrue(received.contains(40L));
+
+        received.clear();
+        inbox.drain(result -> received.add(result.getLength()));
+        assertTrue(received.isEmpty());
+        inbox.offer(second, solution(50L));
+        inbox.drain(result -> received.add(result.getLength()));
+        assertEquals(1, received.size());
+    }
+
+    private static AntRunResult solution(long length) {
+        return AntRunResult.ofTour(TOUR.clone(), length, new PerformanceMeasurer());
+    }
+}
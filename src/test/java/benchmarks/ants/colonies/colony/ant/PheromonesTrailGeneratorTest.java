@@ -0,0 +1,62 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.colony.ant;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import benchmarks.metrics.PerformanceMeasurer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * A tour pheromones delta sprays exactly the tour edges, the closing one included, in the walk
+ * direction: the row is the vertex the edge leaves.
+ */
+public class PheromonesTrailGeneratorTest {
+
+    private static final long LENGTH = 100L;
+
+    @Test
+    public void tourEdgesSprayed() {
+        final int[] tour = {3, 0, 4, 1, 2};
+        final TourTrailDelta delta =
+                AntRunResult.ofTour(tour, LENGTH, new PerformanceMeasurer()).getPheromonesDelta();
+        final Set<String> expected = new HashSet<>(tour.length);
+        int from = tour[tour.length - 1];
+        for (final int to : tour) {
+            expected.add(edge(from, to));
+            from = to;
+        }
+        final Set<String> sprayed = new HashSet<>(tour.length);
+        for (int row = 0; row < tour.length; row++) {
+            assertNotEquals(row, delta.getDeltaColumnIdx(row));
+            assertEquals(1.0F / LENGTH, delta.getDelta(row), 0.0F);
+            sprayed.add(edge(row, delta.getDeltaColumnIdx(row)));
+        }
+        assertEquals(expected, sprayed);
+    }
+
+    private static String edge(int from, int to) {
+        return from + "->" + to;
+    }
+}
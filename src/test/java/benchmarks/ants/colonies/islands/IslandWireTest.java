@@ -0,0 +1,120 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.islands;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.AntsSettingsBuilder;
+import benchmarks.ants.colonies.colony.AntSystemVariant;
+import benchmarks.ants.colonies.colony.ColonyRunResult;
+import benchmarks.ants.colonies.colony.PheromoneSharing;
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+import benchmarks.metrics.PerformanceMeasurer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The islands messages round trip, a tour of the close vertexes takes about a byte per vertex.
+ */
+public class IslandWireTest {
+
+    private static final int SIZE = 10_000;
+
+    @Test
+    public void tourRoundTrip() throws IOException {
+        final List<Integer> shuffled = IntStream.range(0, SIZE).boxed()
+                .collect(Collectors.toList());
+        Collections.shuffle(shuffled.subList(SIZE / 2, SIZE));
+        final int[] tour = shuffled.stream().mapToInt(Integer::intValue).toArray();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        IslandWire.writeTour(new DataOutputStream(bytes),
+                AntRunResult.ofTour(tour, 123_456_789L, new PerformanceMeasurer()));
+        // the sorted half takes a byte per vertex, the shuffled one up to three
+        assertTrue(bytes.size() < (2 * SIZE));
+
+        final DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(IslandWire.TOUR, in.readByte());
+        final AntRunResult received = IslandWire.readTour(in);
+        assertEquals(123_456_789L, received.getLength());
+        assertArrayEquals(tour, received.getTour());
+    }
+
+    @Test(expected = IOException.class)
+    public void negativeCountRejected() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        IslandWire.writeVarLong(out, 100L);
+        IslandWire.writeVarLong(out, 0xFFFFFFFFL);
+        IslandWire.readTour(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test
+    public void settingsRoundTrip() throws IOException {
+        final AntsSettings settings = new AntsSettingsBuilder().setFile("wi29").setOptimum(27603)
+                .setAntSystemVariant(AntSystemVariant.MAX_MIN).setAlpha(2.0F).setBeta(3.0F)
+                .setCandidatesAmount(7).setPheromoneSharing(PheromoneSharing.SHARED_GLOBAL)
+                .createAntsSettings();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        IslandWire.writeSettings(new DataOutputStream(bytes), settings.toBuilder());
+
+        final DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(IslandWire.SETTINGS, in.readByte());
+        final AntsSettings received = IslandWire.readSettings(in).createAntsSettings();
+        assertEquals(settings.getFile(), received.getFile());
+        assertEquals(AntSystemVariant.MAX_MIN, received.getAntSystemVariant());
+        assertEquals(settings.getAlpha(), received.getAlpha(), 0.0F);
+        assertEquals(settings.getBeta(), received.getBeta(), 0.0F);
+        assertEquals(7, received.getCandidatesAmount());
+        assertEquals(PheromoneSharing.SHARED_GLOBAL, received.getPheromoneSharing());
+    }
+
+    @Test
+    public void resultRoundTrip() throws IOException {
+        final ColonyRunResult result = new ColonyRunResult("1.2", 9352L, 8, 4, 100_000L, 12L,
+                1_500L, 2_000_000L, Long.MAX_VALUE, 31_600L);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        IslandWire.writeResult(new DataOutputStream(bytes), result);
+
+        final DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(IslandWire.RESULT, in.readByte());
+        final ColonyRunResult received = IslandWire.readResult(in);
+        assertEquals(result.getId(), received.getId());
+        assertEquals(result.getResult(), received.getResult());
+        assertEquals(result.getColonies(), received.getColonies());
+        assertEquals(result.getAntRuns(), received.getAntRuns());
+        assertEquals(result.getAvgExchangeNs(), received.getAvgExchangeNs());
+        assertEquals(result.getExchangedBytes(), received.getExchangedBytes());
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.islands;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import benchmarks.ants.colonies.AntsExperimentData;
+import benchmarks.ants.colonies.colony.ColonyRunResult;
+import benchmarks.ants.data.TSPTask;
+import benchmarks.ants.presets.AntsExperimentSeriesPreset;
+import benchmarks.ants.presets.AntsExperimentSeriesPresetBuilder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static util.TimeUtil.secToNano;
+
+/**
+ * Two islands JVMs of a colony each, all their colonies results are compiled.
+ */
+public class IslandsCoordinatorTest {
+
+    private static final int OPTIMUM = 27603;
+
+    @Test
+    public void tcpIslandsResultsCompiled() throws IOException {
+        assertCompiled(IslandsTransport.TCP);
+    }
+
+    @Test
+    public void sharedMemoryIslandsResultsCompiled() throws IOException {
+        assertCompiled(IslandsTransport.SHARED_MEMORY);
+    }
+
+    private static void assertCompiled(IslandsTransport transport) throws IOException {
+        final AntsExperimentSeriesPreset preset = new AntsExperimentSeriesPresetBuilder()
+                .setData(new TSPTask(OPTIMUM, "wi29"))
+                .setColonies(Collections.singletonList(2))
+                .setAnts(Collections.singletonList(2))
+                .setRunsForAverageResult(1)
+                .setOverallRunTimeInNanos(secToNano(1))
+                .setIslands(2, transport)
+                .createAntsExperimentPreset();
+        final ColonyRunResult result =
+                IslandsCoordinator.runCalculations(new AntsExperimentData(2, 2, preset));
+
+        assertEquals(2, result.getColonies());
+        assertEquals(2, result.getAnts());
+        assertEquals(2L, Arrays.stream(result.getId().split(";")).distinct().count());
+        assertTrue(result.getId().contains("1.1") && result.getId().contains("2.1"));
+        assertTrue(result.getResult() >= OPTIMUM);
+        assertTrue(result.getAntRuns() > 0L);
+    }
+}
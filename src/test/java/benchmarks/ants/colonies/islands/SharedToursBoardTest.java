@@ -0,0 +1,101 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.islands;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import benchmarks.ants.colonies.colony.ant.AntRunResult;
+import benchmarks.metrics.PerformanceMeasurer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The board slots keep the shortest tours, a reader gets a tour once and never a torn one.
+ */
+public class SharedToursBoardTest {
+
+    private static final int SIZE = 1_000;
+
+    @Test
+    public void publishAndRead() throws IOException {
+        final Path file = Files.createTempFile("tours", ".board");
+        try {
+            final SharedToursBoard writer = SharedToursBoard.create(file, 2, SIZE);
+            final SharedToursBoard reader = SharedToursBoard.open(file);
+            final long[] versions = new long[reader.getSlots()];
+            assertNull(reader.readNewer(1, versions));
+
+            assertTrue(writer.publish(1, solution(20L)));
+            assertFalse(writer.publish(1, solution(30L)));
+            final AntRunResult read = reader.readNewer(1, versions);
+            assertNotNull(read);
+            assertEquals(20L, read.getLength());
+            assertArrayEquals(solution(20L).getTour(), read.getTour());
+            assertNull(reader.readNewer(1, versions));
+            assertNull(reader.readNewer(0, versions));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void noTornReads() throws IOException, InterruptedException {
+        final Path file = Files.createTempFile("tours", ".board");
+        try {
+            final SharedToursBoard writer = SharedToursBoard.create(file, 1, SIZE);
+            final SharedToursBoard reader = SharedToursBoard.open(file);
+            final Thread writing = new Thread(() -> {
+                for (long length = 100_000L; length > 0L; length--) {
+                    writer.publish(0, solution(length));
+                }
+            });
+            writing.start();
+            final long[] versions = new long[1];
+            //noinspection MethodCallInLoopCondition, by design
+            while (writing.isAlive()) {
+                final AntRunResult read = reader.readNewer(0, versions);
+                if (read != null) {
+                    assertArrayEquals(solution(read.getLength()).getTour(), read.getTour());
+                }
+            }
+            writing.join();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * @return the tour of the length values, rotated by the length.
+     */
+    private static AntRunResult solution(long length) {
+        final int[] tour = new int[SIZE];
+        Arrays.setAll(tour, i -> (int) ((i + length) % SIZE));
+        return AntRunResult.ofTour(tour, length, new PerformanceMeasurer());
+    }
+}
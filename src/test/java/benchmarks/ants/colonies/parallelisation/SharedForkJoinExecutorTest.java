@@ -0,0 +1,57 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.colonies.parallelisation;
+
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertTrue;
+import static util.TimeUtil.mlsToNano;
+
+/**
+ * The {@link ExecutionBackend#SHARED_FORK_JOIN} runs many more agents than the cores on the shared
+ * pool workers only, named after the pool and the agent for the time of a run, and returns when all
+ * the agents chains are done.
+ */
+public class SharedForkJoinExecutorTest {
+
+    private static final int AGENTS = 1_000;
+    private static final int RUNS = 20_000;
+
+    @Test
+    public void agentsShareThePool() {
+        final Set<Long> threads = ConcurrentHashMap.newKeySet();
+        final Set<String> names = ConcurrentHashMap.newKeySet();
+        final AtomicInteger runs = new AtomicInteger();
+        ContinuousParallelExecutor.run(() -> {
+            threads.add(Thread.currentThread().getId());
+            names.add(Thread.currentThread().getName());
+            return (long) runs.incrementAndGet();
+        }, AGENTS, () -> runs.get() >= RUNS, () -> { }, mlsToNano(1), "test", "agent",
+                ExecutionBackend.SHARED_FORK_JOIN);
+
+        assertTrue(runs.get() >= RUNS);
+        assertTrue(threads.size() <= Runtime.getRuntime().availableProcessors());
+        assertTrue(names.size() > threads.size());
+        assertTrue(names.stream().allMatch(name -> name.startsWith("test-agent-")));
+    }
+}
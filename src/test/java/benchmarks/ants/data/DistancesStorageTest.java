@@ -0,0 +1,126 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.data;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import benchmarks.ants.colonies.AntsSettingsBuilder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The on demand computed distances, with and without the rows cache, and the compact ones are the
+ * matrix ones, by the cell, by the row and by the tour length.
+ */
+public class DistancesStorageTest {
+
+    private static final String TASK = "xit1083";
+    private static final int CACHED_ROWS = 4;
+    private static final int SCATTERED_CALLS = 100_000;
+
+    @Test
+    public void matchesTheMatrix() throws IOException {
+        final IDistancesData matrix = new AntsSettingsBuilder().setFile(TASK)
+                .createAntsSettings().getGraph();
+        checkSame(matrix, load(DistancesStorage.COORDINATES, 0));
+        checkSame(matrix, load(DistancesStorage.COORDINATES, CACHED_ROWS));
+        final IDistancesData compact = load(DistancesStorage.COMPACT, 0);
+        assertTrue(((CompactDistanceData) compact).isCharEncoded());
+        checkSame(matrix, compact);
+    }
+
+    @Test
+    public void keepsTheLongAsymmetricDistances() {
+        final IDistancesData square = new SquareStub();
+        final CompactDistanceData compact = new CompactDistanceData(square);
+        assertFalse(compact.isCharEncoded());
+        assertFalse(compact.isSymmetric());
+        checkSame(square, compact);
+    }
+
+    private static IDistancesData load(DistancesStorage storage, int cachedRows)
+            throws IOException {
+        return new AntsSettingsBuilder().setFile(TASK).setDistancesStorage(storage)
+                .setDistanceRowsCache(cachedRows).createAntsSettings().getGraph();
+    }
+
+    private static void checkSame(IDistancesData expected, IDistancesData actual) {
+        assertEquals(expected.getSize(), actual.getSize());
+        final int size = expected.getSize();
+        final int[] row = new int[size];
+        for (int start = 0; start < size; start++) {
+            actual.fillRow(start, row);
+            for (int destiny = 0; destiny < size; destiny++) {
+                assertEquals(expected.getDist(start, destiny), actual.getDist(start, destiny));
+                assertEquals(expected.getDist(start, destiny), row[destiny]);
+            }
+        }
+        final Random random = new Random(42L);
+        for (int call = 0; call < SCATTERED_CALLS; call++) {
+            final int start = random.nextInt(size);
+            final int destiny = random.nextInt(size);
+            assertEquals(expected.getDist(start, destiny), actual.getDist(start, destiny));
+        }
+        final int[] tour = shuffledTour(size, random);
+        assertEquals(edgesSum(expected, tour), expected.tourLength(tour));
+        assertEquals(edgesSum(expected, tour), actual.tourLength(tour));
+    }
+
+    private static int[] shuffledTour(int size, Random random) {
+        final int[] tour = new int[size];
+        for (int i = 0; i < size; i++) {
+            final int j = random.nextInt(i + 1);
+            tour[i] = tour[j];
+            tour[j] = i;
+        }
+        return tour;
+    }
+
+    private static long edgesSum(IDistancesData graph, int[] tour) {
+        long sum = 0L;
+        for (int i = 0; i < tour.length; i++) {
+            sum += graph.getDist(tour[i], tour[(i + 1) % tour.length]);
+        }
+        return sum;
+    }
+
+    /**
+     * The asymmetric distances past the 16 bits.
+     */
+    private static final class SquareStub implements IDistancesData {
+
+        private static final long serialVersionUID = 1L;
+        private static final int SIZE = 50;
+
+        @Override
+        public int getDist(int start, int destiny) {
+            return (start == destiny) ? Integer.MAX_VALUE : ((start * 100_000) + destiny);
+        }
+
+        @Override
+        public int getSize() {
+            return SIZE;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.data;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+
+import benchmarks.ants.colonies.AntsSettingsBuilder;
+import benchmarks.ants.colonies.colony.CachedRawEdgeQualities;
+import benchmarks.ants.colonies.colony.NeighboursLists;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The written instance cache is read back the same and is stale for the other beta or the
+ * changed task file.
+ */
+public class InstanceCacheFileTest {
+
+    private static final String TASK = "qa194";
+    private static final int CANDIDATES = 10;
+    private static final float BETA = 1.0F;
+
+    @Test
+    public void readsTheWrittenInstance() throws IOException {
+        final Path cache = InstanceCacheFile.locate(TASK, BETA, CANDIDATES);
+        Files.deleteIfExists(cache);
+        final TSPDistanceData graph = (TSPDistanceData) new AntsSettingsBuilder().setFile(TASK)
+                .setInstanceCache(false).createAntsSettings().getGraph();
+        final CachedRawEdgeQualities qualities = new CachedRawEdgeQualities(graph, CANDIDATES,
+                BETA, EdgeMatrix.Backing.HEAP);
+        final NeighboursLists lists = qualities.getNeighboursLists()
+                .orElseThrow(IllegalStateException::new);
+        final int size = graph.getSize();
+        final int[][] neighbours = new int[size][];
+        for (int i = 0; i < size; i++) {
+            neighbours[i] = lists.getNeighbours(i);
+        }
+        InstanceCacheFile.write(TASK, BETA, CANDIDATES, graph, qualities.getEdgesQualities(),
+                neighbours);
+
+        final Optional<InstanceCacheFile> read = InstanceCacheFile.open(TASK, BETA, CANDIDATES);
+        assertTrue(read.isPresent());
+        assertEquals(size, read.get().getDistances().getSize());
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                assertEquals(graph.getDist(i, j), read.get().getDistances().getDist(i, j));
+                assertEquals(qualities.getEdgesQualities().get(i, j),
+                        read.get().getQualities().get(i, j), 0.0F);
+            }
+            assertArrayEquals(neighbours[i], read.get().getNeighbours()
+                    .orElseThrow(IllegalStateException::new)[i]);
+        }
+        assertFalse(InstanceCacheFile.open(TASK, 2.0F, CANDIDATES).isPresent());
+
+        final Path source = Paths.get(System.getProperty("user.dir")
+                + TSPDistanceData.taskLocation(TASK));
+        final FileTime modified = Files.getLastModifiedTime(source);
+        try {
+            Files.setLastModifiedTime(source, FileTime.fromMillis(modified.toMillis() + 1000L));
+            assertFalse(InstanceCacheFile.open(TASK, BETA, CANDIDATES).isPresent());
+        } finally {
+            Files.setLastModifiedTime(source, modified);
+            Files.deleteIfExists(cache);
+        }
+    }
+}
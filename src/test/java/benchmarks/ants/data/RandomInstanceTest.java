@@ -0,0 +1,74 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package benchmarks.ants.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The generated instances are reproducible by the seed and kept in any storage alike.
+ */
+public class RandomInstanceTest {
+
+    private static final int SIZE = 5000;
+    private static final int SMALL_SIZE = 300;
+    private static final long SEED = 42L;
+
+    @Test
+    public void sameSeedSameInstance() {
+        for (final RandomInstance instance : RandomInstance.values()) {
+            final IDistancesData first = instance.generate(SIZE, SEED);
+            final IDistancesData second = instance.generate(SIZE, SEED);
+            final IDistancesData other = instance.generate(SIZE, SEED + 1L);
+            assertEquals(SIZE, first.getSize());
+            assertEquals(instance != RandomInstance.ASYMMETRIC, first.isSymmetric());
+            final int[] tour = new int[SIZE];
+            for (int i = 0; i < SIZE; i++) {
+                tour[i] = i;
+            }
+            assertEquals(first.tourLength(tour), second.tourLength(tour));
+            assertNotEquals(first.tourLength(tour), other.tourLength(tour));
+            assertTrue(first.getDist(0, 1) > 0);
+        }
+    }
+
+    @Test
+    public void storagesMatch() {
+        for (final RandomInstance instance : RandomInstance.values()) {
+            final IDistancesData generated = instance.generate(SMALL_SIZE, SEED);
+            for (final DistancesStorage storage : DistancesStorage.values()) {
+                final IDistancesData stored = instance.generate(SMALL_SIZE, SEED, storage,
+                        EdgeMatrix.Backing.HEAP, 0);
+                for (int i = 0; i < SMALL_SIZE; i++) {
+                    for (int j = 0; j < SMALL_SIZE; j++) {
+                        assertEquals(generated.getDist(i, j), stored.getDist(i, j));
+                    }
+                }
+            }
+        }
+        final IDistancesData asymmetric = RandomInstance.ASYMMETRIC.generate(SMALL_SIZE, SEED);
+        assertFalse((asymmetric.getDist(0, 1) == asymmetric.getDist(1, 0))
+                && (asymmetric.getDist(1, 2) == asymmetric.getDist(2, 1)));
+    }
+}
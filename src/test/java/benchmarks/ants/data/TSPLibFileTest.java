@@ -0,0 +1,142 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.data;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The TSPLIB headers, the explicit weights formats and the coordinates distances types.
+ */
+public class TSPLibFileTest {
+
+    private static final int SIZE = 12;
+    private static final String[] FORMATS = {"FULL_MATRIX", "UPPER_ROW", "LOWER_ROW",
+            "UPPER_DIAG_ROW", "LOWER_DIAG_ROW", "UPPER_COL", "LOWER_COL", "UPPER_DIAG_COL",
+            "LOWER_DIAG_COL"};
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsEveryExplicitFormat() throws IOException {
+        final int[][] weights = randomSymmetricWeights(new Random(42L));
+        for (final String format : FORMATS) {
+            final StringBuilder file = new StringBuilder("NAME: random\nTYPE: TSP\nDIMENSION: ")
+                    .append(SIZE).append("\nEDGE_WEIGHT_TYPE: EXPLICIT\nEDGE_WEIGHT_FORMAT: ")
+                    .append(format).append("\nEDGE_WEIGHT_SECTION\n");
+            for (int i = 0; i < SIZE; i++) {
+                for (int j = 0; j < SIZE; j++) {
+                    if (isWritten(format, i, j)) {
+                        file.append(' ').append(weights[i][j]);
+                    }
+                }
+                file.append('\n');
+            }
+            final TSPLibFile read = TSPLibFile.read(write(file.append("EOF\n")),
+                    EdgeMatrix.Backing.HEAP);
+            assertFalse(format, read.hasCoordinates());
+            assertTrue(format, read.isSymmetric());
+            for (int i = 0; i < SIZE; i++) {
+                for (int j = 0; j < SIZE; j++) {
+                    if (i != j) {
+                        assertEquals(format, weights[i][j], read.getWeights().get(i, j), 0.0F);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void readsAsymmetricFullMatrix() throws IOException {
+        final TSPLibFile read = TSPLibFile.read(write(new StringBuilder(
+                "NAME : tiny\r\nTYPE : ATSP\r\nDIMENSION : 3\r\nEDGE_WEIGHT_TYPE : EXPLICIT\r\n"
+                        + "EDGE_WEIGHT_FORMAT : FULL_MATRIX\r\nEDGE_WEIGHT_SECTION\r\n"
+                        + "100000000 1 2\r\n3 100000000 4\r\n5 6 100000000\r\nEOF")),
+                EdgeMatrix.Backing.HEAP);
+        assertFalse(read.isSymmetric());
+        assertEquals(4.0F, read.getWeights().get(1, 2), 0.0F);
+        assertEquals(6.0F, read.getWeights().get(2, 1), 0.0F);
+    }
+
+    @Test
+    public void computesCoordinatesDistances() throws IOException {
+        // the burma14 first nodes, the TSPLIB GEO distances 153 and 510
+        assertEquals(153, coordinates("GEO", "1 16.47 96.10\n2 16.47 94.44\n3 20.09 92.54\n")
+                .getDist(0, 1));
+        assertEquals(510, coordinates("GEO", "1 16.47 96.10\n2 16.47 94.44\n3 20.09 92.54\n")
+                .getDist(0, 2));
+        // sqrt(10) is 3.16, the ATT one sqrt((100 + 0) / 10) is 3.16 too, both round up
+        assertEquals(4, coordinates("CEIL_2D", "1 0 0\n2 3 1\n3 1e1 0\n").getDist(0, 1));
+        assertEquals(4, coordinates("ATT", "1 0 0\n2 3 1\n3 1e1 0\n").getDist(0, 2));
+        assertEquals(10, coordinates("EUC_2D", "1 0 0\n2 3 1\n3 1e1 0\n").getDist(2, 0));
+    }
+
+    private IDistancesData coordinates(String type, String nodes) throws IOException {
+        return TSPLibFile.read(write(new StringBuilder("NAME: nodes\nTYPE: TSP\nDIMENSION: 3\n"
+                + "EDGE_WEIGHT_TYPE: " + type + "\nNODE_COORD_SECTION\n" + nodes + "EOF\n")),
+                EdgeMatrix.Backing.HEAP).toCoordinatesData(0);
+    }
+
+    private Path write(CharSequence content) throws IOException {
+        final Path file = folder.newFile().toPath();
+        Files.write(file, content.toString().getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    private static boolean isWritten(String format, int i, int j) {
+        switch (format) {
+            case "FULL_MATRIX":
+                return true;
+            case "UPPER_ROW":
+            case "LOWER_COL":
+                return j > i;
+            case "LOWER_ROW":
+            case "UPPER_COL":
+                return j < i;
+            case "UPPER_DIAG_ROW":
+            case "LOWER_DIAG_COL":
+                return j >= i;
+            default:
+                return j <= i;
+        }
+    }
+
+    private static int[][] randomSymmetricWeights(Random random) {
+        final int[][] weights = new int[SIZE][SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < i; j++) {
+                weights[i][j] = random.nextInt(1000);
+                weights[j][i] = weights[i][j];
+            }
+        }
+        return weights;
+    }
+}
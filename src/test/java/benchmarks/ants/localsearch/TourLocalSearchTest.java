@@ -0,0 +1,114 @@
+/*
+ *     Computer and algorithm interaction simulation software (CAISS).
+ *     Copyright (C) 2016 Sergey Pomelov.
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package benchmarks.ants.localsearch;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import benchmarks.ants.colonies.AntsSettings;
+import benchmarks.ants.colonies.AntsSettingsBuilder;
+import benchmarks.ants.colonies.colony.CachedRawEdgeQualities;
+import benchmarks.ants.data.EdgeMatrix;
+import benchmarks.ants.data.IDistancesData;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The random tours improved by each moves set stay the permutations and get the returned length.
+ */
+@RunWith(Parameterized.class)
+public class TourLocalSearchTest {
+
+    private static final int TOURS = 20;
+    private static final int DEPTH = 5;
+
+    private final LocalSearch moves;
+
+    public TourLocalSearchTest(LocalSearch moves) {
+        this.moves = moves;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> moves() {
+        final List<Object[]> moves = new ArrayList<>(0);
+        for (final LocalSearch localSearch : LocalSearch.values()) {
+            if (localSearch != LocalSearch.NONE) {
+                moves.add(new Object[]{localSearch});
+            }
+        }
+        return moves;
+    }
+
+    @Test
+    public void improvesRandomTours() throws IOException {
+        final AntsSettings settings = new AntsSettingsBuilder().setFile("qa194")
+                .createAntsSettings();
+        final IDistancesData graph = settings.getGraph();
+        final CachedRawEdgeQualities qualities = new CachedRawEdgeQualities(graph, 10, 1.0F,
+                EdgeMatrix.Backing.HEAP);
+        final TourLocalSearch localSearch = moves.create(graph,
+                qualities.getNeighboursLists().orElseThrow(IllegalStateException::new), DEPTH);
+
+        final Random random = new Random(42L);
+        final int size = graph.getSize();
+        for (int run = 0; run < TOURS; run++) {
+            final int[] tour = randomTour(size, random);
+            final long length = length(graph, tour);
+            final long improved = localSearch.improve(tour, length);
+
+            assertEquals("returned length", length(graph, tour), improved);
+            assertTrue("improved " + improved + " of " + length, improved < (length / 2L));
+            final boolean[] seen = new boolean[size];
+            for (final int vertex : tour) {
+                assertTrue("vertex " + vertex + " twice", !seen[vertex]);
+                seen[vertex] = true;
+            }
+        }
+    }
+
+    private static int[] randomTour(int size, Random random) {
+        final int[] tour = new int[size];
+        for (int i = 0; i < size; i++) {
+            tour[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final int vertex = tour[i];
+            tour[i] = tour[j];
+            tour[j] = vertex;
+        }
+        return tour;
+    }
+
+    private static long length(IDistancesData graph, int[] tour) {
+        long length = graph.getDist(tour[tour.length - 1], tour[0]);
+        for (int i = 1; i < tour.length; i++) {
+            length += graph.getDist(tour[i - 1], tour[i]);
+        }
+        return length;
+    }
+}